@@ -0,0 +1,59 @@
+package com.steve.ai.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.Bootstrap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shared setup for benchmarks that touch Minecraft classes, and loaders for the fixtures on the jmh classpath:
+ * {@code responses/*.txt} (LLM responses) and {@code structures/*.nbt} (the bundled templates, copied in by
+ * processJmhResources). The responses are written by hand to reproduce the shapes the parser has to cope
+ * with (fenced JSON, missing commas, dependencies); swap in real ones recorded with PlanTrace when adding cases.
+ */
+final class Fixtures {
+    private static boolean bootstrapped;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Fill the block and item registries, as the server does before loading any mod code
+     */
+    static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            bootstrapped = true;
+        }
+    }
+
+    static String response(String name) {
+        try (InputStream in = open("/responses/" + name + ".txt")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static CompoundTag structure(String name) {
+        try (InputStream in = open("/structures/" + name + ".nbt")) {
+            return NbtIo.readCompressed(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream open(String path) throws IOException {
+        InputStream in = Fixtures.class.getResourceAsStream(path);
+        if (in == null) {
+            throw new IOException("Missing benchmark fixture " + path);
+        }
+        return in;
+    }
+}
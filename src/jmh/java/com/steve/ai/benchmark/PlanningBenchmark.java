@@ -0,0 +1,61 @@
+package com.steve.ai.benchmark;
+
+import com.steve.ai.action.Task;
+import com.steve.ai.action.TaskGraph;
+import com.steve.ai.ai.CommandCompiler;
+import com.steve.ai.ai.PromptBuilder;
+import com.steve.ai.ai.ResponseParser;
+import com.steve.ai.ai.TaskPlanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-command planning path after the LLM answers: parse, validate and order the tasks.
+ * Also the system prompt, which is rebuilt for every request, and the local command compiler.
+ * {@code PromptBuilder.buildUserPrompt} needs a live SteveEntity and world, so it isn't covered here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningBenchmark {
+    @Param({"single_task", "fenced", "dependencies", "missing_commas"})
+    public String response;
+
+    private String text;
+    private List<Task> parsedTasks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.bootstrap();
+        text = Fixtures.response(response);
+        parsedTasks = ResponseParser.parseAIResponse(text).getTasks();
+    }
+
+    @Benchmark
+    public ResponseParser.ParsedResponse parse() {
+        return ResponseParser.parseAIResponse(text);
+    }
+
+    @Benchmark
+    public List<Task> validateAndOrder() {
+        return TaskGraph.order(TaskGraph.withoutDependentsOfRemoved(parsedTasks, TaskPlanner.validateAndFilterTasks(parsedTasks)));
+    }
+
+    @Benchmark
+    public String systemPrompt() {
+        return PromptBuilder.buildSystemPrompt();
+    }
+
+    @Benchmark
+    public void compileLocally(Blackhole blackhole) {
+        blackhole.consume(CommandCompiler.compile("mine 10 iron"));
+        blackhole.consume(CommandCompiler.compile("please build a tower"));
+        blackhole.consume(CommandCompiler.compile("build a base and mine iron"));  // falls through to the LLM
+    }
+}
@@ -0,0 +1,62 @@
+package com.steve.ai.benchmark;
+
+import com.steve.ai.action.CollaborativeBuildManager;
+import com.steve.ai.structure.BuildPlan;
+import com.steve.ai.structure.StructureGenerators;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done once per build command: generating the procedural block plan (which counts its blocks
+ * without materializing them) and splitting it into quadrants for collaborative building, plus the
+ * cost of drawing every placement from the plan, in placement order, over the course of the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructureBenchmark {
+    private static final BlockPos ORIGIN = new BlockPos(100, 64, -200);
+
+    @Param({"house", "castle", "tower", "modern", "barn"})
+    public String structure;
+
+    @Param({"9", "25"})
+    public int size;
+
+    private List<Block> materials;
+    private BuildPlan plan;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.bootstrap();
+        materials = List.of(Blocks.OAK_PLANKS, Blocks.COBBLESTONE, Blocks.GLASS_PANE, Blocks.STONE_BRICKS);
+        plan = generate();
+    }
+
+    @Benchmark
+    public BuildPlan generate() {
+        return StructureGenerators.generate(structure, ORIGIN, size, size * 2 / 3, size, materials);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (StructureGenerators.BlockPlacement placement : plan) {
+            blackhole.consume(placement);
+        }
+    }
+
+    @Benchmark
+    public CollaborativeBuildManager.CollaborativeBuild divideIntoSections() {
+        return new CollaborativeBuildManager.CollaborativeBuild(structure, plan, ORIGIN,
+            new CollaborativeBuildManager.PlanSource(structure, size, size * 2 / 3, size, materials));
+    }
+}
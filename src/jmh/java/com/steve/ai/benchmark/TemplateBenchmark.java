@@ -0,0 +1,34 @@
+package com.steve.ai.benchmark;
+
+import com.steve.ai.structure.StructureTemplateLoader;
+import net.minecraft.nbt.CompoundTag;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the bundled structure templates into block lists, once the NBT is in memory
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateBenchmark {
+    @Param({"house", "power plant"})
+    public String template;
+
+    private CompoundTag nbt;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.bootstrap();
+        nbt = Fixtures.structure(template);
+    }
+
+    @Benchmark
+    public StructureTemplateLoader.LoadedTemplate parse() {
+        return StructureTemplateLoader.parseNBTStructure(nbt, template);
+    }
+}
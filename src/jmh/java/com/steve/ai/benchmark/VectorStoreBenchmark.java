@@ -0,0 +1,51 @@
+package com.steve.ai.benchmark;
+
+import com.steve.ai.agent.VectorStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-k similarity search over stores of 10k / 100k / 1M memories, per storage mode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorStoreBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    @Param({"5"})
+    public int k;
+
+    @Param({"NONE", "INT8", "PRODUCT"})
+    public VectorStore.Quantization quantization;
+
+    private VectorStore store;
+    private String[] queries;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new VectorStore(384, entries, quantization, false);
+        for (int i = 0; i < entries; i++) {
+            store.addText("memory " + i + " mined iron near base", Map.of("role", "user"));
+        }
+        store.trainQuantizer(); // product codebooks would otherwise still be training in the background
+        queries = new String[64];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = "query " + i + " where is the iron";
+        }
+    }
+
+    @Benchmark
+    public void similaritySearch(Blackhole blackhole) {
+        String query = queries[nextQuery++ & (queries.length - 1)];
+        blackhole.consume(store.similaritySearch(query, k));
+    }
+}
@@ -6,29 +6,68 @@ import com.steve.ai.ai.ResponseParser;
 import com.steve.ai.ai.TaskPlanner;
 import com.steve.ai.config.SteveConfig;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.memory.ActionHistory;
+import com.steve.ai.metrics.Histogram;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.AgentTickEvent;
+import com.steve.ai.util.EventLog;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ActionExecutor {
+    private static final EventLog.Key TASK_STARTED = EventLog.key("task.started", EventLog.Level.INFO, 10);
+    private static final EventLog.Key ACTION_COMPLETED = EventLog.key("action.completed", EventLog.Level.INFO, 10);
+    private static final EventLog.Key ACTION_TICKING = EventLog.key("action.ticking", EventLog.Level.DEBUG, 2);
+
+    // LLM requests for contingency plans, shared by all Steves; results come back through each executor's inbox
+    private static final ExecutorService CONTINGENCY_PLANNER = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "Steve-Contingency-Planner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final SteveEntity steve;
     private TaskPlanner taskPlanner;  // Lazy-initialized to avoid loading dependencies on entity creation
     private final Queue<Task> taskQueue;
     
-    private BaseAction currentAction;
+    // Actions with pairwise disjoint resources, in the order they were started
+    private final List<BaseAction> runningActions;
+    // Results from planning threads, applied at the start of the next tick; everything else here is only
+    // touched on the server thread
+    private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+    private BaseAction nextAction;  // Created for the queue head while it waits for a conflict to clear
     private String currentGoal;
     private int ticksSinceLastAction;
     private BaseAction idleFollowAction;  // Follow player when idle
+    private volatile boolean planning;  // Waiting on the LLM; not available for team tasks
+    private final Set<Task> assignedTasks = Collections.newSetFromMap(new IdentityHashMap<>());  // From the TeamCoordinator
+    // Plans to switch to if a running action fails, requested while it runs
+    private final Map<BaseAction, CompletableFuture<ResponseParser.ParsedResponse>> contingencies = new IdentityHashMap<>();
+    private CompletableFuture<ResponseParser.ParsedResponse> pendingRecovery;  // Contingency of a failed action, still planning
+    private Histogram tickCost;  // Created on the first tick, once the Steve has its name
 
     public ActionExecutor(SteveEntity steve) {
         this.steve = steve;
         this.taskPlanner = null;  // Will be initialized when first needed
         this.taskQueue = new LinkedList<>();
+        this.runningActions = new ArrayList<>();
         this.ticksSinceLastAction = 0;
         this.idleFollowAction = null;
     }
     
-    private TaskPlanner getTaskPlanner() {
+    private synchronized TaskPlanner getTaskPlanner() {
         if (taskPlanner == null) {
             SteveMod.LOGGER.info("Initializing TaskPlanner for Steve '{}'", steve.getSteveName());
             taskPlanner = new TaskPlanner();
@@ -36,39 +75,74 @@ public class ActionExecutor {
         return taskPlanner;
     }
 
+    /**
+     * Plan {@code command} on the calling thread (blocks on the LLM, so never call it on the server thread)
+     * and hand the plan to the server thread, which cancels the current work and queues the new tasks
+     */
     public void processNaturalLanguageCommand(String command) {
         SteveMod.LOGGER.info("Steve '{}' processing command: {}", steve.getSteveName(), command);
         
-        if (currentAction != null) {            currentAction.cancel();
-            currentAction = null;
+        planning = true;
+        inbox.add(this::interruptForCommand);
+        
+        ResponseParser.ParsedResponse response;
+        try {
+            response = getTaskPlanner().planTasks(steve, command);
+        } catch (NoClassDefFoundError e) {
+            SteveMod.LOGGER.error("Failed to initialize AI components", e);
+            inbox.add(() -> {
+                planning = false;
+                sendToGUI(steve.getSteveName(), "Sorry, I'm having trouble with my AI systems!");
+            });
+            return;
+        } catch (RuntimeException e) {
+            SteveMod.LOGGER.error("Error planning command '{}'", command, e);
+            response = null;
         }
+        ResponseParser.ParsedResponse plan = response;
+        inbox.add(() -> applyPlan(command, plan));
+    }
+    
+    private void interruptForCommand() {
+        cancelRunningActions();
         
         if (idleFollowAction != null) {
             idleFollowAction.cancel();
             idleFollowAction = null;
         }
+    }
+    
+    private void applyPlan(String command, ResponseParser.ParsedResponse response) {
+        planning = false;
+        // Recorded after planning so the prompt's history doesn't repeat the command
+        steve.getMemory().getConversation().addUserMessage(command);
         
-        try {
-            ResponseParser.ParsedResponse response = getTaskPlanner().planTasks(steve, command);
-            
-            if (response == null) {
-                sendToGUI(steve.getSteveName(), "I couldn't understand that command.");
-                return;
-            }
+        if (response == null) {
+            sendToGUI(steve.getSteveName(), "I couldn't understand that command.");
+            return;
+        }
 
-            currentGoal = response.getPlan();
-            steve.getMemory().setCurrentGoal(currentGoal);
-            
-            taskQueue.clear();
+        currentGoal = response.getPlan();
+        steve.getMemory().setCurrentGoal(currentGoal);
+        steve.getMemory().getConversation().addAssistantMessage(currentGoal);
+        if (response.getTasks().isEmpty()) {
+            currentGoal = null;  // e.g. "stop": nothing left to do, go back to idling
+        }
+        
+        taskQueue.clear();
+        assignedTasks.clear();
+        nextAction = null;
+        TeamCoordinator team = SteveMod.getSteveManager().getTeamCoordinator();
+        if (response.getTasks().size() > 1 && team.hasIdleHelpers(steve)) {
+            // Independent branches of the plan go to other idle Steves
+            team.submit(steve, currentGoal, response.getTasks());
+        } else {
             taskQueue.addAll(response.getTasks());
-            
-            // Send response to GUI pane only
-            if (SteveConfig.ENABLE_CHAT_RESPONSES.get()) {
-                sendToGUI(steve.getSteveName(), "Okay! " + currentGoal);
-            }
-        } catch (NoClassDefFoundError e) {
-            SteveMod.LOGGER.error("Failed to initialize AI components", e);
-            sendToGUI(steve.getSteveName(), "Sorry, I'm having trouble with my AI systems!");
+        }
+        
+        // Send response to GUI pane only
+        if (SteveConfig.ENABLE_CHAT_RESPONSES.get()) {
+            sendToGUI(steve.getSteveName(), "Okay! " + response.getPlan());
         }
         
         SteveMod.LOGGER.info("Steve '{}' queued {} tasks", steve.getSteveName(), taskQueue.size());
@@ -84,45 +158,96 @@ public class ActionExecutor {
     }
 
     public void tick() {
+        if (tickCost == null) {
+            tickCost = SteveMetrics.tickCost(steve.getSteveName());
+        }
+        AgentTickEvent event = new AgentTickEvent();
+        event.begin();
+        long start = System.nanoTime();
+        for (Runnable handoff = inbox.poll(); handoff != null; handoff = inbox.poll()) {
+            handoff.run();
+        }
+        tickActions();
+        tickCost.recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.steve = steve.getSteveName();
+            event.actions = describeRunningActions();
+            event.queuedTasks = taskQueue.size();
+            event.commit();
+        }
+    }
+
+    private String describeRunningActions() {
+        if (runningActions.isEmpty()) {
+            return idleFollowAction != null ? "idle_follow" : "";
+        }
+        StringBuilder actions = new StringBuilder();
+        for (BaseAction action : runningActions) {
+            if (!actions.isEmpty()) {
+                actions.append(',');
+            }
+            actions.append(action.getTask().getAction());
+        }
+        return actions.toString();
+    }
+
+    private void tickActions() {
         ticksSinceLastAction++;
         
-        if (currentAction != null) {
-            if (currentAction.isComplete()) {
-                ActionResult result = currentAction.getResult();
-                SteveMod.LOGGER.info("Steve '{}' - Action completed: {} (Success: {})", 
-                    steve.getSteveName(), result.getMessage(), result.isSuccess());
+        Iterator<BaseAction> running = runningActions.iterator();
+        while (running.hasNext()) {
+            BaseAction action = running.next();
+            if (action.isComplete()) {
+                ActionResult result = action.getResult();
+                if (EventLog.admit(ACTION_COMPLETED)) {
+                    EventLog.log(ACTION_COMPLETED, "Steve '{}' - Action completed: {} (Success: {})", 
+                        steve.getSteveName(), result.getMessage(), result.isSuccess());
+                }
                 
-                steve.getMemory().addAction(currentAction.getDescription());
+                recordAction(action);
                 
+                CompletableFuture<ResponseParser.ParsedResponse> contingency = contingencies.remove(action);
                 if (!result.isSuccess() && result.requiresReplanning()) {
                     // Action failed, need to replan
                     if (SteveConfig.ENABLE_CHAT_RESPONSES.get()) {
                         sendToGUI(steve.getSteveName(), "Problem: " + result.getMessage());
                     }
+                    if (contingency != null && pendingRecovery == null) {
+                        pendingRecovery = contingency;
+                    }
+                } else if (contingency != null) {
+                    contingency.cancel(false);
                 }
                 
-                currentAction = null;
+                running.remove();
             } else {
-                if (ticksSinceLastAction % 100 == 0) {
-                    SteveMod.LOGGER.info("Steve '{}' - Ticking action: {}", 
-                        steve.getSteveName(), currentAction.getDescription());
+                if ((steve.level().getGameTime() - action.getStartTick()) % 100 == 99) {
+                    if (EventLog.admit(ACTION_TICKING)) {
+                        EventLog.log(ACTION_TICKING, "Steve '{}' - Ticking action: {}", steve.getSteveName(), action);
+                    }
                 }
-                currentAction.tick();
-                return;
+                action.tick();
             }
         }
 
-        if (ticksSinceLastAction >= SteveConfig.ACTION_TICK_DELAY.get()) {
-            if (!taskQueue.isEmpty()) {
-                Task nextTask = taskQueue.poll();
-                executeTask(nextTask);
-                ticksSinceLastAction = 0;
-                return;
+        applyRecovery();
+
+        // Start queued tasks in order for as long as the head doesn't conflict with anything running
+        while (pendingRecovery == null && !taskQueue.isEmpty() && ticksSinceLastAction >= SteveConfig.ACTION_TICK_DELAY.get()) {
+            if (nextAction == null) {
+                nextAction = createAction(taskQueue.peek());
             }
+            if (nextAction != null && (conflictsWithRunning(nextAction) || waitsOnRunning(taskQueue.peek()))) {
+                break;
+            }
+            executeTask(taskQueue.poll(), nextAction);
+            nextAction = null;
+            ticksSinceLastAction = 0;
         }
         
         // When completely idle (no tasks, no goal), follow nearest player
-        if (taskQueue.isEmpty() && currentAction == null && currentGoal == null) {
+        if (taskQueue.isEmpty() && runningActions.isEmpty() && currentGoal == null) {
             if (idleFollowAction == null) {
                 idleFollowAction = new IdleFollowAction(steve);
                 idleFollowAction.start();
@@ -140,20 +265,151 @@ public class ActionExecutor {
         }
     }
 
-    private void executeTask(Task task) {
-        SteveMod.LOGGER.info("Steve '{}' executing task: {} (action type: {})", 
-            steve.getSteveName(), task, task.getAction());
-        
-        currentAction = createAction(task);
+    private boolean conflictsWithRunning(BaseAction action) {
+        for (BaseAction running : runningActions) {
+            if (running.conflictsWith(action)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a running action other than {@code action} holds {@code resource}
+     */
+    public boolean isHeldByOther(ActionResource resource, BaseAction action) {
+        for (BaseAction running : runningActions) {
+            if (running != action && running.getRequiredResources().contains(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean waitsOnRunning(Task task) {
+        for (BaseAction running : runningActions) {
+            String id = running.getTask().getId();
+            if (id != null && task.getDependsOn().contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void executeTask(Task task, BaseAction action) {
+        if (EventLog.admit(TASK_STARTED)) {
+            EventLog.log(TASK_STARTED, "Steve '{}' executing task: {}", steve.getSteveName(), task);
+        }
         
-        if (currentAction == null) {
+        if (action == null) {
             SteveMod.LOGGER.error("FAILED to create action for task: {}", task);
+            dropDependents(task);
             return;
         }
 
-        SteveMod.LOGGER.info("Created action: {} - starting now...", currentAction.getClass().getSimpleName());
-        currentAction.start();
-        SteveMod.LOGGER.info("Action started! Is complete: {}", currentAction.isComplete());
+        action.start();
+        runningActions.add(action);
+
+        if (SteveConfig.SPECULATIVE_REPLANNING.get() && !action.isComplete() && currentGoal != null
+                && !assignedTasks.contains(task)) {
+            requestContingency(action);
+        }
+    }
+
+    /**
+     * Ask the planner, off-thread, what to do if {@code action} fails, so a failure can be
+     * handled without waiting for a fresh LLM round-trip. Dropped if the action succeeds.
+     * The future is only completed from the inbox, i.e. on the server thread.
+     */
+    private void requestContingency(BaseAction action) {
+        String prompt = "If \"" + action.getDescription() + "\" fails while working on \"" + currentGoal
+            + "\", what should you do instead to still reach the goal?";
+        TaskPlanner planner = getTaskPlanner();
+        CompletableFuture<ResponseParser.ParsedResponse> contingency = new CompletableFuture<>();
+        contingencies.put(action, contingency);
+        CONTINGENCY_PLANNER.execute(() -> {
+            if (contingency.isCancelled()) {
+                return;  // The action finished while this waited for a planner thread
+            }
+            ResponseParser.ParsedResponse plan = null;
+            try {
+                plan = planner.planGenerated(steve, prompt);
+            } finally {
+                ResponseParser.ParsedResponse result = plan;
+                inbox.add(() -> contingency.complete(result));
+            }
+        });
+    }
+
+    /**
+     * Replace the queue with the contingency plan of a failed action once it's available
+     */
+    private void applyRecovery() {
+        if (pendingRecovery == null || !pendingRecovery.isDone()) {
+            return;
+        }
+        ResponseParser.ParsedResponse recovery = pendingRecovery.isCompletedExceptionally() ? null : pendingRecovery.join();
+        pendingRecovery = null;
+        if (recovery == null || recovery.getTasks().isEmpty()) {
+            SteveMod.LOGGER.warn("Steve '{}' has no usable contingency plan, continuing with the queue", steve.getSteveName());
+            return;
+        }
+
+        SteveMod.LOGGER.info("Steve '{}' switching to contingency plan: {} ({} tasks)",
+            steve.getSteveName(), recovery.getPlan(), recovery.getTasks().size());
+        taskQueue.clear();
+        nextAction = null;
+        taskQueue.addAll(recovery.getTasks());
+        if (SteveConfig.ENABLE_CHAT_RESPONSES.get()) {
+            sendToGUI(steve.getSteveName(), "New plan: " + recovery.getPlan());
+        }
+    }
+
+    private void dropContingencies() {
+        for (CompletableFuture<ResponseParser.ParsedResponse> contingency : contingencies.values()) {
+            contingency.cancel(false);
+        }
+        contingencies.clear();
+        if (pendingRecovery != null) {
+            pendingRecovery.cancel(false);
+            pendingRecovery = null;
+        }
+    }
+
+    private void recordAction(BaseAction action) {
+        ActionResult result = action.getResult();
+        byte outcome = action.isCancelled() ? ActionHistory.CANCELLED
+            : result != null && result.isSuccess() ? ActionHistory.SUCCESS : ActionHistory.FAILURE;
+        long now = steve.level().getGameTime();
+        Task task = action.getTask();
+        int duration = (int) (now - action.getStartTick());
+        steve.getMemory().recordAction(task.getAction(), ActionHistory.targetOf(task), outcome, now, duration);
+        SteveMetrics.recordAction(task.getAction(), outcome, duration);
+        if (assignedTasks.remove(task)) {
+            SteveMod.getSteveManager().getTeamCoordinator().onTaskFinished(steve, task, outcome == ActionHistory.SUCCESS);
+        }
+        if (outcome != ActionHistory.SUCCESS) {
+            dropDependents(task);
+        }
+    }
+
+    /**
+     * Remove queued tasks that depend, directly or not, on a task that failed or was cancelled
+     */
+    private void dropDependents(Task task) {
+        if (task.getId() == null || taskQueue.isEmpty()) {
+            return;
+        }
+        Set<String> dependents = TaskGraph.dependentsOf(new ArrayList<>(taskQueue), task.getId());
+        if (dependents.isEmpty()) {
+            return;
+        }
+        taskQueue.removeIf(queued -> dependents.contains(queued.getId()));
+        if (nextAction != null && dependents.contains(nextAction.getTask().getId())) {
+            nextAction = null;
+        }
+        SteveMod.LOGGER.warn("Steve '{}': {} did not succeed, dropping {} dependent tasks",
+            steve.getSteveName(), task, dependents.size());
     }
 
     private BaseAction createAction(Task task) {
@@ -174,20 +430,55 @@ public class ActionExecutor {
     }
 
     public void stopCurrentAction() {
-        if (currentAction != null) {
-            currentAction.cancel();
-            currentAction = null;
-        }
+        cancelRunningActions();
         if (idleFollowAction != null) {
             idleFollowAction.cancel();
             idleFollowAction = null;
         }
         taskQueue.clear();
+        assignedTasks.clear();
+        nextAction = null;
         currentGoal = null;
     }
 
+    private void cancelRunningActions() {
+        for (BaseAction action : runningActions) {
+            action.cancel();
+            recordAction(action);
+        }
+        runningActions.clear();
+        dropContingencies();
+    }
+
+    /**
+     * Queue a task handed out by the {@link TeamCoordinator}. Like the other queue accessors below, server thread only.
+     */
+    public void assignTask(Task task) {
+        assignedTasks.add(task);
+        taskQueue.add(task);
+    }
+
+    /**
+     * Free to take a team task: not planning, nothing queued or running
+     */
+    public boolean isIdle() {
+        return !planning && runningActions.isEmpty() && taskQueue.isEmpty();
+    }
+
+    public boolean isWorkingOn(Task task) {
+        if (taskQueue.contains(task)) {
+            return true;
+        }
+        for (BaseAction action : runningActions) {
+            if (action.getTask() == task) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean isExecuting() {
-        return currentAction != null || !taskQueue.isEmpty();
+        return !runningActions.isEmpty() || !taskQueue.isEmpty();
     }
 
     public String getCurrentGoal() {
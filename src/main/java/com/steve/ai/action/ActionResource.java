@@ -0,0 +1,12 @@
+package com.steve.ai.action;
+
+/**
+ * Parts of a Steve an action takes exclusive control of while it runs. Actions that share none of
+ * them, and don't edit overlapping regions ({@code BaseAction#getTargetRegion}), run at the same time.
+ */
+public enum ActionResource {
+    /** Navigation, teleporting and flight */
+    MOVEMENT,
+    /** Held item, swinging, attacking and breaking blocks */
+    HANDS
+}
@@ -0,0 +1,45 @@
+package com.steve.ai.action;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-world persistence for unfinished {@link CollaborativeBuildManager} builds
+ */
+public class CollaborativeBuildData extends SavedData {
+    private final List<CompoundTag> loadedBuilds;
+
+    public CollaborativeBuildData() {
+        this.loadedBuilds = new ArrayList<>();
+    }
+
+    private CollaborativeBuildData(List<CompoundTag> loadedBuilds) {
+        this.loadedBuilds = loadedBuilds;
+    }
+
+    public static CollaborativeBuildData load(CompoundTag tag) {
+        List<CompoundTag> builds = new ArrayList<>();
+        ListTag list = tag.getList("Builds", 10); // 10 = TAG_Compound
+        for (int i = 0; i < list.size(); i++) {
+            builds.add(list.getCompound(i));
+        }
+        return new CollaborativeBuildData(builds);
+    }
+
+    /**
+     * Build checkpoints read from disk, restored by the manager when it binds to this world
+     */
+    public List<CompoundTag> getLoadedBuilds() {
+        return loadedBuilds;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        tag.put("Builds", CollaborativeBuildManager.checkpointBuilds());
+        return tag;
+    }
+}
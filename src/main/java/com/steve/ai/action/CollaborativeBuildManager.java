@@ -1,30 +1,71 @@
 package com.steve.ai.action;
 
 import com.steve.ai.SteveMod;
+import com.steve.ai.config.SteveConfig;
+import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.entity.SteveManager;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.structure.BuildPlan;
+import com.steve.ai.structure.StructureGenerators;
+import com.steve.ai.structure.StructureGenerators.BlockPlacement;
+import com.steve.ai.structure.StructureTemplateLoader;
+import com.steve.ai.structure.WorldDiff;
+import com.steve.ai.util.EventLog;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.storage.LevelResource;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Manages collaborative building where multiple Steves work on DIFFERENT SECTIONS of the same structure
+ * Manages collaborative building where multiple Steves work on DIFFERENT SECTIONS of the same structure.
+ * Builds are checkpointed per world through {@link CollaborativeBuildData} and picked up again after a restart.
  */
 public class CollaborativeBuildManager {
+    private static final EventLog.Key HELPING = EventLog.key("build.helping", EventLog.Level.DEBUG, 1);
+    private static final String DATA_NAME = SteveMod.MODID + "_builds";
+    private static final int RESUME_INTERVAL_TICKS = 20;
+    
+    /**
+     * What a build's plan was generated from, enough to generate the same plan again after a restart
+     */
+    public record PlanSource(String structureType, int width, int height, int depth, List<Block> materials) {
+    }
     
     public static class CollaborativeBuild {
         public final String structureId;
-        public final List<BlockPlacement> buildPlan;
+        public final BuildPlan buildPlan;
+        public final PlanSource source;
         private final List<BuildSection> sections;
         private final Map<String, Integer> steveToSectionMap;
         private final AtomicInteger nextSectionIndex;
         public final Set<String> participatingSteves;
         public final BlockPos startPos;
         
-        public CollaborativeBuild(String structureId, List<BlockPlacement> buildPlan, BlockPos startPos) {
+        public CollaborativeBuild(String structureId, BuildPlan buildPlan, BlockPos startPos, PlanSource source) {
             this.structureId = structureId;
             this.buildPlan = buildPlan;
+            this.source = source;
             this.participatingSteves = ConcurrentHashMap.newKeySet();
             this.startPos = startPos;
             this.steveToSectionMap = new ConcurrentHashMap<>();
@@ -37,59 +78,31 @@ public class CollaborativeBuildManager {
         
         /**
          * Divide the build into 4 QUADRANTS (NW, NE, SW, SE)
-         * Each quadrant is sorted BOTTOM-TO-TOP so each Steve builds their quadrant from the ground up
+         * Each quadrant is built BOTTOM-TO-TOP, generating its part of a layer only when it reaches it
          */
-        private List<BuildSection> divideBuildIntoSections(List<BlockPlacement> plan) {
+        private List<BuildSection> divideBuildIntoSections(BuildPlan plan) {
             if (plan.isEmpty()) {
                 return new ArrayList<>();
             }
             
-            int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
-            int minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+            int centerX = (plan.getMinX() + plan.getMaxX()) / 2;
+            int centerZ = (plan.getMinZ() + plan.getMaxZ()) / 2;
             
-            for (BlockPlacement placement : plan) {
-                minX = Math.min(minX, placement.pos.getX());
-                maxX = Math.max(maxX, placement.pos.getX());
-                minZ = Math.min(minZ, placement.pos.getZ());
-                maxZ = Math.max(maxZ, placement.pos.getZ());
+            // Counted without materializing the plan
+            int[] counts = new int[4];
+            for (int y = plan.getMinY(); y < plan.getMaxY(); y++) {
+                plan.forEachInLayer(y, (x, z, state, blockEntityTag) -> counts[quadrant(x, z, centerX, centerZ)]++);
             }
             
-            int centerX = (minX + maxX) / 2;
-            int centerZ = (minZ + maxZ) / 2;
-            
-            List<BlockPlacement> northWest = new ArrayList<>();
-            List<BlockPlacement> northEast = new ArrayList<>();
-            List<BlockPlacement> southWest = new ArrayList<>();
-            List<BlockPlacement> southEast = new ArrayList<>();
-            
-            for (BlockPlacement placement : plan) {
-                int x = placement.pos.getX();
-                int z = placement.pos.getZ();
-                
-                if (x <= centerX && z <= centerZ) {
-                    northWest.add(placement);
-                } else if (x > centerX && z <= centerZ) {
-                    northEast.add(placement);
-                } else if (x <= centerX && z > centerZ) {
-                    southWest.add(placement);
-                } else {
-                    southEast.add(placement);
+            List<BuildSection> sectionList = new ArrayList<>();
+            for (int i = 0; i < QUADRANT_NAMES.length; i++) {
+                if (counts[i] > 0) {
+                    sectionList.add(new BuildSection(i, QUADRANT_NAMES[i], plan, centerX, centerZ, counts[i]));
                 }
             }
-            Comparator<BlockPlacement> bottomToTop = Comparator.comparingInt(p -> p.pos.getY());
-            northWest.sort(bottomToTop);
-            northEast.sort(bottomToTop);
-            southWest.sort(bottomToTop);
-            southEast.sort(bottomToTop);
-            
-            List<BuildSection> sectionList = new ArrayList<>();
-            if (!northWest.isEmpty()) sectionList.add(new BuildSection(0, northWest, "NORTH-WEST"));
-            if (!northEast.isEmpty()) sectionList.add(new BuildSection(1, northEast, "NORTH-EAST"));
-            if (!southWest.isEmpty()) sectionList.add(new BuildSection(2, southWest, "SOUTH-WEST"));
-            if (!southEast.isEmpty()) sectionList.add(new BuildSection(3, southEast, "SOUTH-EAST"));
             
             SteveMod.LOGGER.info("Divided structure into {} quadrants (BOTTOM-TO-TOP): NW={}, NE={}, SW={}, SE={} blocks", 
-                sectionList.size(), northWest.size(), northEast.size(), southWest.size(), southEast.size());
+                sectionList.size(), counts[0], counts[1], counts[2], counts[3]);
             
             return sectionList;
         }
@@ -106,6 +119,17 @@ public class CollaborativeBuildManager {
             return total;
         }
         
+        /**
+         * Planned blocks that were already in place and didn't need placing
+         */
+        public int getBlocksSkipped() {
+            int total = 0;
+            for (BuildSection section : sections) {
+                total += section.getBlocksSkipped();
+            }
+            return total;
+        }
+        
         public boolean isComplete() {
             for (BuildSection section : sections) {
                 if (!section.isComplete()) {
@@ -116,66 +140,383 @@ public class CollaborativeBuildManager {
         }
         
         public int getProgressPercentage() {
-            return (getBlocksPlaced() * 100) / buildPlan.size();
+            return buildPlan.isEmpty() ? 100 : ((getBlocksPlaced() + getBlocksSkipped()) * 100) / buildPlan.size();
+        }
+        
+        /**
+         * Plan source, origin, participants and each section's layer cursor
+         */
+        CompoundTag checkpoint() {
+            CompoundTag tag = new CompoundTag();
+            tag.putString("Id", structureId);
+            tag.putString("Type", source.structureType());
+            tag.putLong("Origin", startPos.asLong());
+            tag.putInt("Width", source.width());
+            tag.putInt("Height", source.height());
+            tag.putInt("Depth", source.depth());
+            tag.putInt("TotalBlocks", buildPlan.size());
+            ListTag materials = new ListTag();
+            for (Block block : source.materials()) {
+                materials.add(StringTag.valueOf(BuiltInRegistries.BLOCK.getKey(block).toString()));
+            }
+            tag.put("Materials", materials);
+            ListTag steves = new ListTag();
+            for (String steveName : participatingSteves) {
+                steves.add(StringTag.valueOf(steveName));
+            }
+            tag.put("Participants", steves);
+            ListTag sectionTags = new ListTag();
+            for (BuildSection section : sections) {
+                sectionTags.add(section.checkpoint());
+            }
+            tag.put("Sections", sectionTags);
+            return tag;
         }
     }
     
+    private static final String[] QUADRANT_NAMES = {"NORTH-WEST", "NORTH-EAST", "SOUTH-WEST", "SOUTH-EAST"};
+    
+    private static int quadrant(int x, int z, int centerX, int centerZ) {
+        return (x <= centerX ? 0 : 1) + (z <= centerZ ? 0 : 2);
+    }
+    
     /**
-     * A section of the build that one Steve works on (represents a spatial quadrant)
+     * A section of the build that one Steve works on (represents a spatial quadrant).
+     * Holds only its share of the current layer; the next layer is generated when this one runs out,
+     * and only the blocks that differ from the world are kept.
      */
     public static class BuildSection {
         public final int yLevel; // Used as section ID
         public final String sectionName;
-        private final List<BlockPlacement> blocks;
-        private final AtomicInteger nextBlockIndex;
+        private final BuildPlan plan;
+        private final int centerX;
+        private final int centerZ;
+        private final int totalBlocks;
+        private List<BlockPlacement> layer = List.of();
+        private int layerIndex;
+        private int nextY;
+        private volatile int blocksPlaced;
+        private volatile int blocksSkipped;
+        // Checkpointed: the layer being worked on and the counts from before it. A resumed section diffs
+        // that layer against the world again, so blocks placed from it before the restart count as skipped.
+        private int layerY;
+        private int placedBeforeLayer;
+        private int skippedBeforeLayer;
         
-        public BuildSection(int sectionId, List<BlockPlacement> blocks, String sectionName) {
+        public BuildSection(int sectionId, String sectionName, BuildPlan plan, int centerX, int centerZ, int totalBlocks) {
             this.yLevel = sectionId;
             this.sectionName = sectionName;
-            this.blocks = blocks;
-            this.nextBlockIndex = new AtomicInteger(0);
+            this.plan = plan;
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+            this.totalBlocks = totalBlocks;
+            this.nextY = plan.getMinY();
+            this.layerY = nextY;
         }
         
-        public BlockPlacement getNextBlock() {
-            int index = nextBlockIndex.getAndIncrement();
-            if (index < blocks.size()) {
-                return blocks.get(index);
+        public synchronized BlockPlacement getNextBlock(Level level) {
+            while (layerIndex >= layer.size()) {
+                if (isComplete() || nextY >= plan.getMaxY()) {
+                    return null;
+                }
+                layerY = nextY;
+                placedBeforeLayer = blocksPlaced;
+                skippedBeforeLayer = blocksSkipped;
+                List<BlockPlacement> planned = plan.layer(nextY++, (x, z) -> quadrant(x, z, centerX, centerZ) == yLevel);
+                layer = WorldDiff.changedOnly(level, planned);
+                layerIndex = 0;
+                int skipped = planned.size() - layer.size();
+                blocksSkipped += skipped;
+                SteveMetrics.BLOCKS_SKIPPED.add(skipped);
+                markChanged();
             }
-            return null;
+            blocksPlaced++;
+            return layer.get(layerIndex++);
         }
         
         public int getBlocksPlaced() {
-            return Math.min(nextBlockIndex.get(), blocks.size());
+            return blocksPlaced;
+        }
+        
+        public int getBlocksSkipped() {
+            return blocksSkipped;
+        }
+        
+        synchronized CompoundTag checkpoint() {
+            CompoundTag tag = new CompoundTag();
+            tag.putInt("Id", yLevel);
+            tag.putInt("LayerY", layerY);
+            tag.putInt("Placed", placedBeforeLayer);
+            tag.putInt("Skipped", skippedBeforeLayer);
+            return tag;
+        }
+        
+        synchronized void resume(CompoundTag tag) {
+            layer = List.of();
+            layerIndex = 0;
+            layerY = Math.max(plan.getMinY(), tag.getInt("LayerY"));
+            nextY = layerY;
+            blocksPlaced = placedBeforeLayer = tag.getInt("Placed");
+            blocksSkipped = skippedBeforeLayer = tag.getInt("Skipped");
         }
         
         public boolean isComplete() {
-            return nextBlockIndex.get() >= blocks.size();
+            return blocksPlaced + blocksSkipped >= totalBlocks;
         }
         
         public int getTotalBlocks() {
-            return blocks.size();
+            return totalBlocks;
         }
     }
     
-    public static class BlockPlacement {
-        public final BlockPos pos;
-        public final Block block;
+    /**
+     * A checkpointed build waiting for its template to load before it can be restored
+     */
+    private record PendingRestore(CompoundTag checkpoint, CompletableFuture<StructureTemplateLoader.LoadedTemplate> template) {
+    }
+    
+    private static final Map<String, CollaborativeBuild> activeBuilds = new ConcurrentHashMap<>();
+    private static final List<PendingRestore> pendingRestores = new ArrayList<>();
+    // Restored builds no Steve has picked up yet
+    private static final Set<CollaborativeBuild> awaitingWorkers = ConcurrentHashMap.newKeySet();
+    private static CollaborativeBuildData savedData;
+    private static File savedDataFile;
+    private static volatile boolean changed;  // Since the last checkpoint write
+    private static int ticksSinceCheckpoint;
+    private static final ExecutorService CHECKPOINT_WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Steve-Build-Checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+    
+    /**
+     * Attach to a world's saved builds and start restoring them (called when the server starts)
+     */
+    public static void bind(ServerLevel level) {
+        activeBuilds.clear();
+        awaitingWorkers.clear();
+        pendingRestores.clear();
+        savedData = level.getDataStorage().computeIfAbsent(
+            CollaborativeBuildData::load, CollaborativeBuildData::new, DATA_NAME);
+        savedDataFile = level.getServer().getWorldPath(LevelResource.ROOT)
+            .resolve("data").resolve(DATA_NAME + ".dat").toFile();
+        for (CompoundTag checkpoint : savedData.getLoadedBuilds()) {
+            // Same lookup as BuildStructureAction: the template if there is one, procedural otherwise
+            pendingRestores.add(new PendingRestore(checkpoint,
+                StructureTemplateLoader.loadAsync(level, checkpoint.getString("Type"))));
+        }
+        changed = false;
+        ticksSinceCheckpoint = 0;
+        if (!pendingRestores.isEmpty()) {
+            SteveMod.LOGGER.info("Resuming {} unfinished collaborative builds", pendingRestores.size());
+        }
+    }
+    
+    /**
+     * Detach from the current world (called when the server stops, after the world was saved)
+     */
+    public static void unbind() {
+        for (PendingRestore pending : pendingRestores) {
+            pending.template().cancel(false);
+        }
+        pendingRestores.clear();
+        activeBuilds.clear();
+        awaitingWorkers.clear();
+        savedData = null;
+        savedDataFile = null;
+    }
+    
+    /**
+     * Finish restoring builds whose plans are ready, hand restored builds back to their Steves, and
+     * write a checkpoint every few seconds while progress is being made
+     */
+    public static void tick(ServerLevel level) {
+        if (savedData == null) {
+            return;
+        }
         
-        public BlockPlacement(BlockPos pos, Block block) {
-            this.pos = pos;
-            this.block = block;
+        Iterator<PendingRestore> iterator = pendingRestores.iterator();
+        while (iterator.hasNext()) {
+            PendingRestore pending = iterator.next();
+            if (pending.template().isDone()) {
+                iterator.remove();
+                restore(pending);
+            }
+        }
+        
+        if (level.getGameTime() % RESUME_INTERVAL_TICKS == 0) {
+            for (CollaborativeBuild build : awaitingWorkers) {
+                resumeWork(build);
+            }
+        }
+        
+        if (++ticksSinceCheckpoint >= SteveConfig.BUILD_CHECKPOINT_SECONDS.get() * 20) {
+            ticksSinceCheckpoint = 0;
+            if (changed && pendingWrite.isDone()) {
+                changed = false;
+                writeCheckpoint();
+            }
         }
     }
+
+    /**
+     * Every change marks the data dirty, so the world's own saves (autosave and the one on stop) always
+     * write the latest state; the periodic checkpoint only bounds what a crash can lose
+     */
+    private static void markChanged() {
+        changed = true;
+        CollaborativeBuildData data = savedData;
+        if (data != null) {
+            data.setDirty();
+        }
+    }
+
+    /**
+     * Snapshot the builds on the server thread and write the file on the checkpoint thread, through a
+     * temporary file so a crash mid-write keeps the previous checkpoint. Leaves the data dirty.
+     */
+    private static void writeCheckpoint() {
+        CompoundTag tag = new CompoundTag();
+        tag.put("data", savedData.save(new CompoundTag()));
+        NbtUtils.addCurrentDataVersion(tag);
+        Path file = savedDataFile.toPath();
+        pendingWrite = CompletableFuture.runAsync(() -> {
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                NbtIo.writeCompressed(tag, temporary.toFile());
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                SteveMod.LOGGER.warn("Could not write the build checkpoint to {}", file, e);
+            }
+        }, CHECKPOINT_WRITER);
+    }
+
+    /**
+     * Wait for a checkpoint still being written, then mark the data dirty so the save the server makes
+     * while stopping lands after it with the latest state (called when the server starts stopping)
+     */
+    public static void flush() {
+        pendingWrite.join();
+        markChanged();
+    }
     
-    private static final Map<String, CollaborativeBuild> activeBuilds = new ConcurrentHashMap<>();
+    /**
+     * Checkpoints of every unfinished build, including ones still being restored
+     */
+    static ListTag checkpointBuilds() {
+        ListTag list = new ListTag();
+        for (CollaborativeBuild build : activeBuilds.values()) {
+            if (!build.isComplete()) {
+                list.add(build.checkpoint());
+            }
+        }
+        for (PendingRestore pending : pendingRestores) {
+            list.add(pending.checkpoint());
+        }
+        return list;
+    }
+    
+    private static void restore(PendingRestore pending) {
+        CompoundTag checkpoint = pending.checkpoint();
+        String structureId = checkpoint.getString("Id");
+        StructureTemplateLoader.LoadedTemplate template = pending.template().isCompletedExceptionally()
+            ? null : pending.template().join();
+        
+        List<Block> materials = new ArrayList<>();
+        ListTag materialTags = checkpoint.getList("Materials", 8); // 8 = TAG_String
+        for (int i = 0; i < materialTags.size(); i++) {
+            ResourceLocation id = ResourceLocation.tryParse(materialTags.getString(i));
+            Block block = id != null ? BuiltInRegistries.BLOCK.get(id) : Blocks.AIR;
+            if (block != Blocks.AIR) {
+                materials.add(block);
+            }
+        }
+        PlanSource source = new PlanSource(checkpoint.getString("Type"), checkpoint.getInt("Width"),
+            checkpoint.getInt("Height"), checkpoint.getInt("Depth"), materials);
+        BlockPos origin = BlockPos.of(checkpoint.getLong("Origin"));
+        BuildPlan plan = template != null
+            ? StructureGenerators.fromTemplate(template, origin)
+            : StructureGenerators.generate(source.structureType(), origin, source.width(), source.height(), source.depth(), materials);
+        
+        if (plan.size() != checkpoint.getInt("TotalBlocks")) {
+            SteveMod.LOGGER.warn("Dropping build '{}': its plan now has {} blocks instead of {} (template changed?)",
+                structureId, plan.size(), checkpoint.getInt("TotalBlocks"));
+            markChanged();
+            return;
+        }
+        
+        CollaborativeBuild build = new CollaborativeBuild(structureId, plan, origin, source);
+        ListTag sectionTags = checkpoint.getList("Sections", 10); // 10 = TAG_Compound
+        for (int i = 0; i < sectionTags.size(); i++) {
+            CompoundTag sectionTag = sectionTags.getCompound(i);
+            for (BuildSection section : build.sections) {
+                if (section.yLevel == sectionTag.getInt("Id")) {
+                    section.resume(sectionTag);
+                }
+            }
+        }
+        ListTag steves = checkpoint.getList("Participants", 8);
+        for (int i = 0; i < steves.size(); i++) {
+            build.participatingSteves.add(steves.getString(i));
+        }
+        
+        activeBuilds.put(structureId, build);
+        awaitingWorkers.add(build);
+        SteveMod.LOGGER.info("Restored collaborative build '{}' at {} ({}% complete)",
+            structureId, origin, build.getProgressPercentage());
+    }
+    
+    /**
+     * Give a restored build back to its idle Steves. Steve entities don't survive a restart: the first
+     * player to log in gets a fresh set (see ServerEventHandler), so recorded participants are matched by
+     * name, and each one that no longer exists is replaced by another idle Steve not on the build yet.
+     */
+    private static void resumeWork(CollaborativeBuild build) {
+        SteveManager manager = SteveMod.getSteveManager();
+        List<SteveEntity> workers = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String steveName : build.participatingSteves) {
+            SteveEntity steve = manager.getSteve(steveName);
+            if (steve != null) {
+                workers.add(steve);
+            } else {
+                missing.add(steveName);
+            }
+        }
+        int replacements = build.participatingSteves.isEmpty() ? Integer.MAX_VALUE : missing.size();
+        for (SteveEntity steve : manager.getAllSteves()) {
+            if (replacements == 0) {
+                break;
+            }
+            if (!workers.contains(steve) && steve.getActionExecutor().isIdle()) {
+                workers.add(steve);
+                replacements--;
+                if (!missing.isEmpty()) {
+                    String replaced = missing.remove(0);
+                    build.participatingSteves.remove(replaced);
+                    SteveMod.LOGGER.info("Steve '{}' takes over from '{}' on collaborative build '{}'",
+                        steve.getSteveName(), replaced, build.structureId);
+                }
+            }
+        }
+        for (SteveEntity steve : workers) {
+            if (steve.getActionExecutor().isIdle()) {
+                steve.getActionExecutor().assignTask(new Task("build", Map.of("structure", build.source.structureType())));
+                SteveMod.LOGGER.info("Steve '{}' resuming collaborative build '{}'", steve.getSteveName(), build.structureId);
+            }
+        }
+    }
     
     /**
      * Register a new collaborative build project
      */
-    public static CollaborativeBuild registerBuild(String structureType, List<BlockPlacement> buildPlan, BlockPos startPos) {
+    public static CollaborativeBuild registerBuild(PlanSource source, BuildPlan buildPlan, BlockPos startPos) {
+        String structureType = source.structureType();
         String structureId = structureType + "_" + System.currentTimeMillis();
-        CollaborativeBuild build = new CollaborativeBuild(structureId, buildPlan, startPos);
+        CollaborativeBuild build = new CollaborativeBuild(structureId, buildPlan, startPos, source);
         activeBuilds.put(structureId, build);
+        markChanged();
         
         SteveMod.LOGGER.info("Registered collaborative build '{}' at {} with {} blocks", 
             structureType, startPos, buildPlan.size());
@@ -187,12 +528,15 @@ public class CollaborativeBuildManager {
      * Get the next block for a Steve to place (each Steve works on their own section)
      * Returns null if Steve's section is complete
      */
-    public static BlockPlacement getNextBlock(CollaborativeBuild build, String steveName) {
+    public static BlockPlacement getNextBlock(CollaborativeBuild build, String steveName, Level level) {
         if (build.isComplete()) {
             return null;
         }
         
-        build.participatingSteves.add(steveName);
+        if (build.participatingSteves.add(steveName)) {
+            markChanged();
+        }
+        awaitingWorkers.remove(build);
         
         // Assign Steve to a section if not already assigned
         Integer sectionIndex = build.steveToSectionMap.get(steveName);
@@ -205,12 +549,12 @@ public class CollaborativeBuildManager {
         }
         
         BuildSection section = build.sections.get(sectionIndex);
-        BlockPlacement block = section.getNextBlock();
+        BlockPlacement block = section.getNextBlock(level);
         
         if (block == null) {
             if (sectionIndex != null) {
                 section = build.sections.get(sectionIndex);
-                block = section.getNextBlock();
+                block = section.getNextBlock(level);
                 if (block != null) {                }
             }
         }
@@ -244,8 +588,10 @@ public class CollaborativeBuildManager {
             BuildSection section = build.sections.get(i);
             if (!section.isComplete()) {
                 build.steveToSectionMap.put(steveName, i);
-                SteveMod.LOGGER.info("Steve '{}' helping with {} quadrant ({} blocks remaining)", 
-                    steveName, section.sectionName, section.getTotalBlocks() - section.getBlocksPlaced());
+                if (EventLog.admit(HELPING)) {
+                    EventLog.log(HELPING, "Steve '{}' helping with {} quadrant ({} blocks remaining)", 
+                        steveName, section.sectionName, section.getTotalBlocks() - section.getBlocksPlaced() - section.getBlocksSkipped());
+                }
                 return i;
             }
         }
@@ -267,6 +613,8 @@ public class CollaborativeBuildManager {
     public static void completeBuild(String structureId) {
         CollaborativeBuild build = activeBuilds.remove(structureId);
         if (build != null) {
+            awaitingWorkers.remove(build);
+            markChanged();
             SteveMod.LOGGER.info("Collaborative build '{}' completed by {} Steves", 
                 structureId, build.participatingSteves.size());
         }
@@ -288,7 +636,9 @@ public class CollaborativeBuildManager {
      * Clean up completed builds
      */
     public static void cleanupCompletedBuilds() {
-        activeBuilds.entrySet().removeIf(entry -> entry.getValue().isComplete());
+        if (activeBuilds.entrySet().removeIf(entry -> entry.getValue().isComplete())) {
+            markChanged();
+        }
     }
 }
 
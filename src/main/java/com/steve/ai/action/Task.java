@@ -1,14 +1,35 @@
 package com.steve.ai.action;
 
+import java.util.List;
 import java.util.Map;
 
 public class Task {
+    private final String id;
     private final String action;
     private final Map<String, Object> parameters;
+    private final List<String> dependsOn;
 
     public Task(String action, Map<String, Object> parameters) {
+        this(null, action, parameters, List.of());
+    }
+
+    /**
+     * @param id        plan-local id other tasks refer to, or null
+     * @param dependsOn ids of tasks that must finish before this one starts
+     */
+    public Task(String id, String action, Map<String, Object> parameters, List<String> dependsOn) {
+        this.id = id;
         this.action = action;
         this.parameters = parameters;
+        this.dependsOn = dependsOn;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<String> getDependsOn() {
+        return dependsOn;
     }
 
     public String getAction() {
@@ -52,7 +73,8 @@ public class Task {
 
     @Override
     public String toString() {
-        return "Task{action='" + action + "', parameters=" + parameters + "}";
+        return "Task{" + (id != null ? "id='" + id + "', " : "") + "action='" + action + "', parameters=" + parameters
+            + (dependsOn.isEmpty() ? "" : ", dependsOn=" + dependsOn) + "}";
     }
 }
 
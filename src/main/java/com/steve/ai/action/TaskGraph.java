@@ -0,0 +1,111 @@
+package com.steve.ai.action;
+
+import com.steve.ai.SteveMod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dependency handling for planned tasks (ids + dependsOn)
+ */
+public class TaskGraph {
+
+    /**
+     * Tasks sorted so each comes after everything it depends on, otherwise keeping the planner's order.
+     * References to ids that aren't in the list are ignored, so run {@link #withoutDependentsOfRemoved}
+     * first when tasks have been filtered out. Tasks caught in a dependency cycle are removed.
+     */
+    public static List<Task> order(List<Task> tasks) {
+        Set<String> ids = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getId() != null) {
+                ids.add(task.getId());
+            }
+        }
+
+        List<Task> pending = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            List<String> known = task.getDependsOn().stream()
+                .filter(dep -> ids.contains(dep) && !dep.equals(task.getId()))
+                .toList();
+            pending.add(known.size() == task.getDependsOn().size() ? task
+                : new Task(task.getId(), task.getAction(), task.getParameters(), known));
+        }
+
+        List<Task> ordered = new ArrayList<>(tasks.size());
+        Set<String> placed = new HashSet<>();
+        boolean progress = true;
+        while (!pending.isEmpty() && progress) {
+            progress = false;
+            Iterator<Task> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                if (placed.containsAll(task.getDependsOn())) {
+                    ordered.add(task);
+                    if (task.getId() != null) {
+                        placed.add(task.getId());
+                    }
+                    iterator.remove();
+                    progress = true;
+                }
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            SteveMod.LOGGER.warn("Dropping {} tasks with cyclic dependencies: {}", pending.size(), pending);
+        }
+        return ordered;
+    }
+
+    /**
+     * {@code kept} minus every task that directly or transitively depends on a task of {@code planned}
+     * that was left out of it, the same rule the executor applies when a task fails at runtime
+     */
+    public static List<Task> withoutDependentsOfRemoved(List<Task> planned, List<Task> kept) {
+        Set<Task> keptTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+        keptTasks.addAll(kept);
+        Set<String> dropped = new HashSet<>();
+        for (Task task : planned) {
+            if (!keptTasks.contains(task) && task.getId() != null) {
+                dropped.addAll(dependentsOf(planned, task.getId()));
+            }
+        }
+        if (dropped.isEmpty()) {
+            return kept;
+        }
+
+        List<Task> remaining = new ArrayList<>(kept.size());
+        for (Task task : kept) {
+            if (task.getId() == null || !dropped.contains(task.getId())) {
+                remaining.add(task);
+            }
+        }
+        SteveMod.LOGGER.warn("Dropping {} tasks that depend on invalid ones: {}", kept.size() - remaining.size(), dropped);
+        return remaining;
+    }
+
+    /**
+     * Ids of every task that directly or transitively depends on {@code id}
+     */
+    public static Set<String> dependentsOf(List<Task> tasks, String id) {
+        Set<String> dependents = new HashSet<>();
+        Set<String> frontier = Set.of(id);
+        while (!frontier.isEmpty()) {
+            Set<String> next = new HashSet<>();
+            for (Task task : tasks) {
+                if (task.getId() != null && !dependents.contains(task.getId())
+                        && task.getDependsOn().stream().anyMatch(frontier::contains)) {
+                    next.add(task.getId());
+                }
+            }
+            dependents.addAll(next);
+            frontier = next;
+        }
+        return dependents;
+    }
+}
@@ -0,0 +1,165 @@
+package com.steve.ai.action;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.entity.SteveManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs dependency-annotated plans across the whole team: a task is handed to an idle Steve as soon as
+ * everything it depends on has finished, so independent branches of a plan proceed in parallel.
+ * Ticked from {@link SteveManager#tick}; plans are submitted from planning threads, hence the locking.
+ */
+public class TeamCoordinator {
+
+    private static class TeamPlan {
+        final String goal;
+        final String commander;
+        final List<Task> tasks;  // dependency order
+        final Set<String> succeeded = new HashSet<>();
+        final Set<String> failed = new HashSet<>();  // failed, cancelled or skipped because a dependency failed
+        final Map<Task, SteveEntity> assigned = new IdentityHashMap<>();
+
+        TeamPlan(String goal, String commander, List<Task> tasks) {
+            this.goal = goal;
+            this.commander = commander;
+            this.tasks = tasks;
+        }
+
+        boolean isReady(Task task) {
+            return !assigned.containsKey(task) && !succeeded.contains(task.getId()) && !failed.contains(task.getId())
+                && succeeded.containsAll(task.getDependsOn());
+        }
+
+        boolean isDone() {
+            return succeeded.size() + failed.size() >= tasks.size();
+        }
+    }
+
+    private final SteveManager manager;
+    private final List<TeamPlan> plans = new ArrayList<>();
+
+    public TeamCoordinator(SteveManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Whether any Steve other than {@code steve} is free to take part in a plan
+     */
+    public boolean hasIdleHelpers(SteveEntity steve) {
+        for (SteveEntity other : manager.getAllSteves()) {
+            if (other != steve && other.getActionExecutor().isIdle()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Share a plan between all idle Steves, giving {@code commander} first pick.
+     * Tasks must already be in dependency order (see {@link TaskGraph#order}).
+     */
+    public synchronized void submit(SteveEntity commander, String goal, List<Task> tasks) {
+        plans.add(new TeamPlan(goal, commander.getSteveName(), new ArrayList<>(tasks)));
+        SteveMod.LOGGER.info("Team plan '{}' submitted by {} ({} tasks)", goal, commander.getSteveName(), tasks.size());
+    }
+
+    /**
+     * Called by an executor whenever one of its actions completes or is cancelled
+     */
+    public synchronized void onTaskFinished(SteveEntity steve, Task task, boolean success) {
+        for (TeamPlan plan : plans) {
+            if (plan.assigned.remove(task) != null) {
+                finish(plan, task, success, steve.getSteveName());
+                return;
+            }
+        }
+    }
+
+    public synchronized void tick() {
+        Iterator<TeamPlan> iterator = plans.iterator();
+        while (iterator.hasNext()) {
+            TeamPlan plan = iterator.next();
+            checkAssignments(plan);
+            dispatch(plan);
+            if (plan.isDone()) {
+                SteveMod.LOGGER.info("Team plan '{}' finished: {}/{} tasks succeeded",
+                    plan.goal, plan.succeeded.size(), plan.tasks.size());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Stop handing out tasks of any plan (e.g. when the player stops everyone)
+     */
+    public synchronized void clear() {
+        plans.clear();
+    }
+
+    /**
+     * Requeue tasks whose Steve disappeared; fail the ones a Steve dropped (stopped or given a new command)
+     */
+    private void checkAssignments(TeamPlan plan) {
+        for (Map.Entry<Task, SteveEntity> entry : new ArrayList<>(plan.assigned.entrySet())) {
+            Task task = entry.getKey();
+            SteveEntity steve = entry.getValue();
+            if (SteveManager.isGone(steve)) {
+                SteveMod.LOGGER.info("Steve '{}' left, reassigning {}", steve.getSteveName(), task);
+                plan.assigned.remove(task);
+            } else if (!steve.getActionExecutor().isWorkingOn(task)) {
+                plan.assigned.remove(task);
+                finish(plan, task, false, steve.getSteveName());
+            }
+        }
+    }
+
+    private void dispatch(TeamPlan plan) {
+        List<SteveEntity> idle = idleSteves(plan.commander);
+        for (Task task : plan.tasks) {
+            if (idle.isEmpty()) {
+                return;
+            }
+            if (plan.isReady(task)) {
+                SteveEntity steve = idle.remove(0);
+                plan.assigned.put(task, steve);
+                steve.getActionExecutor().assignTask(task);
+                SteveMod.LOGGER.info("Team plan '{}': {} -> {}", plan.goal, task, steve.getSteveName());
+            }
+        }
+    }
+
+    private void finish(TeamPlan plan, Task task, boolean success, String steveName) {
+        if (success) {
+            plan.succeeded.add(task.getId());
+            return;
+        }
+        plan.failed.add(task.getId());
+        Set<String> skipped = TaskGraph.dependentsOf(plan.tasks, task.getId());
+        skipped.removeAll(plan.succeeded);
+        plan.failed.addAll(skipped);
+        SteveMod.LOGGER.warn("Team plan '{}': {} failed ({}), skipping {} dependent tasks",
+            plan.goal, task, steveName, skipped.size());
+    }
+
+    private List<SteveEntity> idleSteves(String commander) {
+        List<SteveEntity> idle = new ArrayList<>();
+        for (SteveEntity steve : manager.getAllSteves()) {
+            if (steve.getActionExecutor().isIdle()) {
+                if (steve.getSteveName().equals(commander)) {
+                    idle.add(0, steve);
+                } else {
+                    idle.add(steve);
+                }
+            }
+        }
+        return idle;
+    }
+}
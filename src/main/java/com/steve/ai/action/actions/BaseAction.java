@@ -1,15 +1,26 @@
 package com.steve.ai.action.actions;
 
+import com.steve.ai.action.ActionResource;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 public abstract class BaseAction {
+    private static final Set<ActionResource> ALL_RESOURCES = EnumSet.allOf(ActionResource.class);
+    /** Target region of an action that edits blocks somewhere not known until it has started */
+    protected static final BoundingBox ANYWHERE = new BoundingBox(
+        Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
     protected final SteveEntity steve;
     protected final Task task;
     protected ActionResult result;
     protected boolean started = false;
     protected boolean cancelled = false;
+    protected long startTick;
 
     public BaseAction(SteveEntity steve, Task task) {
         this.steve = steve;
@@ -19,6 +30,7 @@ public abstract class BaseAction {
     public void start() {
         if (started) return;
         started = true;
+        startTick = steve.level().getGameTime();
         onStart();
     }
 
@@ -41,10 +53,64 @@ public abstract class BaseAction {
         return result;
     }
 
+    public Task getTask() {
+        return task;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getStartTick() {
+        return startTick;
+    }
+
+    /**
+     * Resources this action controls while running. Defaults to all of them, i.e. the action runs alone.
+     */
+    public Set<ActionResource> getRequiredResources() {
+        return ALL_RESOURCES;
+    }
+
+    /**
+     * Blocks this action may change, or null if it doesn't edit the world
+     */
+    public BoundingBox getTargetRegion() {
+        return null;
+    }
+
+    /**
+     * Whether the two actions can't run at the same time: they share a resource or edit overlapping regions
+     */
+    public boolean conflictsWith(BaseAction other) {
+        for (ActionResource resource : other.getRequiredResources()) {
+            if (getRequiredResources().contains(resource)) {
+                return true;
+            }
+        }
+        BoundingBox region = getTargetRegion();
+        BoundingBox otherRegion = other.getTargetRegion();
+        return region != null && otherRegion != null && region.intersects(otherRegion);
+    }
+
+    /**
+     * Whether this action may steer the Steve right now: it holds {@link ActionResource#MOVEMENT},
+     * or no other running action does. Actions without MOVEMENT only walk up to their target when it's free.
+     */
+    protected boolean canMove() {
+        return getRequiredResources().contains(ActionResource.MOVEMENT)
+            || !steve.getActionExecutor().isHeldByOther(ActionResource.MOVEMENT, this);
+    }
+
     protected abstract void onStart();
     protected abstract void onTick();
     protected abstract void onCancel();
     
     public abstract String getDescription();
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
 }
 
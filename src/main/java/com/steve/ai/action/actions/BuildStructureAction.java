@@ -6,40 +6,49 @@ import com.steve.ai.action.CollaborativeBuildManager;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
 import com.steve.ai.memory.StructureRegistry;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.BlockPlacementEvent;
+import com.steve.ai.structure.BuildPlan;
+import com.steve.ai.structure.StructureGenerators;
 import com.steve.ai.structure.StructureTemplateLoader;
+import com.steve.ai.util.EventLog;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.BlockParticleOption;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class BuildStructureAction extends BaseAction {
-    private static class BlockPlacement {
-        BlockPos pos;
-        Block block;
-        
-        BlockPlacement(BlockPos pos, Block block) {
-            this.pos = pos;
-            this.block = block;
-        }
-    }
-    
+    private static final EventLog.Key PLACED_BLOCK = EventLog.key("build.placed", EventLog.Level.DEBUG, 2);
+    private static final EventLog.Key TELEPORTED = EventLog.key("build.teleported", EventLog.Level.DEBUG, 2);
+    private static final EventLog.Key OUT_OF_BLOCKS = EventLog.key("build.outOfBlocks", EventLog.Level.DEBUG, 1);
+    private static final EventLog.Key BUILD_PROGRESS = EventLog.key("build.progress", EventLog.Level.INFO, 1);
+
     private String structureType;
-    private List<BlockPlacement> buildPlan;
+    private BuildPlan buildPlan;
     private int currentBlockIndex;
     private List<Block> buildMaterials;
     private int ticksRunning;
     private CollaborativeBuildManager.CollaborativeBuild collaborativeBuild; // For multi-Steve collaboration
     private boolean isCollaborative;
+    private CompletableFuture<StructureTemplateLoader.LoadedTemplate> pendingTemplate; // Decoding off-thread
+    private BlockPos buildOrigin;
+    private int width;
+    private int height;
+    private int depth;
     private static final int MAX_TICKS = 120000;
     private static final int BLOCKS_PER_TICK = 1;
     private static final double BUILD_SPEED_MULTIPLIER = 1.5;
@@ -91,9 +100,9 @@ public class BuildStructureAction extends BaseAction {
         }
         
         Object dimensionsParam = task.getParameter("dimensions");
-        int width = 9;  // Increased from 5
-        int height = 6; // Increased from 4
-        int depth = 9;  // Increased from 5
+        width = 9;  // Increased from 5
+        height = 6; // Increased from 4
+        depth = 9;  // Increased from 5
         
         if (dimensionsParam instanceof List) {
             List<?> dims = (List<?>) dimensionsParam;
@@ -147,13 +156,27 @@ public class BuildStructureAction extends BaseAction {
         
         SteveMod.LOGGER.info("Found ground at Y={} (Build starting at {})", groundPos.getY(), groundPos);
         
-        BlockPos clearPos = groundPos;
+        buildOrigin = groundPos;
         
-        buildPlan = tryLoadFromTemplate(structureType, clearPos);
+        if (steve.level() instanceof ServerLevel serverLevel) {
+            // Picked up in onTick once decoded, so a large template doesn't stall the server tick
+            pendingTemplate = StructureTemplateLoader.loadAsync(serverLevel, structureType);
+        } else {
+            startBuilding(null);
+        }
+    }
+
+    /**
+     * Set up the plan from the template, or procedurally if there is none, and join or register the collaborative build
+     */
+    private void startBuilding(StructureTemplateLoader.LoadedTemplate template) {
+        BlockPos clearPos = buildOrigin;
         
-        if (buildPlan == null) {
-            // Fall back to procedural generation            buildPlan = generateBuildPlan(structureType, clearPos, width, height, depth);
+        if (template == null) {
+            // Fall back to procedural generation
+            buildPlan = StructureGenerators.generate(structureType, clearPos, width, height, depth, buildMaterials);
         } else {
+            buildPlan = StructureGenerators.fromTemplate(template, clearPos);
             SteveMod.LOGGER.info("Loaded '{}' from NBT template with {} blocks", structureType, buildPlan.size());
         }
         
@@ -171,12 +194,8 @@ public class BuildStructureAction extends BaseAction {
             SteveMod.LOGGER.info("Steve '{}' JOINING existing {} collaborative build at {}", 
                 steve.getSteveName(), structureType, collaborativeBuild.startPos);
         } else {
-            List<CollaborativeBuildManager.BlockPlacement> collaborativeBlocks = new ArrayList<>();
-            for (BlockPlacement bp : buildPlan) {
-                collaborativeBlocks.add(new CollaborativeBuildManager.BlockPlacement(bp.pos, bp.block));
-            }
-            
-            collaborativeBuild = CollaborativeBuildManager.registerBuild(structureType, collaborativeBlocks, clearPos);
+            collaborativeBuild = CollaborativeBuildManager.registerBuild(
+                new CollaborativeBuildManager.PlanSource(structureType, width, height, depth, List.copyOf(buildMaterials)), buildPlan, clearPos);
             isCollaborative = true;
             SteveMod.LOGGER.info("Steve '{}' CREATED new {} collaborative build at {}", 
                 steve.getSteveName(), structureType, clearPos);
@@ -198,22 +217,47 @@ public class BuildStructureAction extends BaseAction {
             return;
         }
         
+        if (pendingTemplate != null) {
+            if (!pendingTemplate.isDone()) {
+                return;
+            }
+            StructureTemplateLoader.LoadedTemplate template = pendingTemplate.exceptionally(e -> {
+                SteveMod.LOGGER.error("Failed to load structure template '{}'", structureType, e);
+                return null;
+            }).join();
+            pendingTemplate = null;
+            startBuilding(template);
+            if (result != null) {
+                return;
+            }
+        }
+        
         if (isCollaborative && collaborativeBuild != null) {
             if (collaborativeBuild.isComplete()) {
                 CollaborativeBuildManager.completeBuild(collaborativeBuild.structureId);
                 steve.setFlying(false);
+                if (collaborativeBuild.getBlocksSkipped() > 0) {
+                    SteveMod.LOGGER.info("Build '{}' done, {} of {} blocks were already in place",
+                        collaborativeBuild.structureId, collaborativeBuild.getBlocksSkipped(), collaborativeBuild.getTotalBlocks());
+                }
                 result = ActionResult.success("Built " + structureType + " collaboratively!");
                 return;
             }
             
+            BlockPlacementEvent batch = new BlockPlacementEvent();
+            batch.begin();
+            int placed = 0;
+            int teleports = 0;
             for (int i = 0; i < BLOCKS_PER_TICK; i++) {
-                CollaborativeBuildManager.BlockPlacement placement = 
-                    CollaborativeBuildManager.getNextBlock(collaborativeBuild, steve.getSteveName());
+                StructureGenerators.BlockPlacement placement = 
+                    CollaborativeBuildManager.getNextBlock(collaborativeBuild, steve.getSteveName(), steve.level());
                 
                 if (placement == null) {
                     if (ticksRunning % 20 == 0) {
-                        SteveMod.LOGGER.info("Steve '{}' has no more blocks! Build {}% complete", 
-                            steve.getSteveName(), collaborativeBuild.getProgressPercentage());
+                        if (EventLog.admit(OUT_OF_BLOCKS)) {
+                            EventLog.log(OUT_OF_BLOCKS, "Steve '{}' has no more blocks! Build {}% complete", 
+                                steve.getSteveName(), collaborativeBuild.getProgressPercentage());
+                        }
                     }
                     break;
                 }
@@ -222,21 +266,30 @@ public class BuildStructureAction extends BaseAction {
                 double distance = Math.sqrt(steve.blockPosition().distSqr(pos));
                 if (distance > 5) {
                     steve.teleportTo(pos.getX() + 2, pos.getY(), pos.getZ() + 2);
-                    SteveMod.LOGGER.info("Steve '{}' teleported to block at {}", steve.getSteveName(), pos);
+                    teleports++;
+                    SteveMetrics.BUILD_TELEPORTS.inc();
+                    if (EventLog.admit(TELEPORTED)) {
+                        EventLog.log(TELEPORTED, "Steve '{}' teleported to block at {}", steve.getSteveName(), pos);
+                    }
                 }
                 
                 steve.getLookControl().setLookAt(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5);
                 
                 steve.swing(InteractionHand.MAIN_HAND, true);
                 
-                BlockState existingState = steve.level().getBlockState(pos);
-                
-                BlockState blockState = placement.block.defaultBlockState();
+                BlockState blockState = placement.state;
                 steve.level().setBlock(pos, blockState, 3);
+                if (placement.blockEntityTag != null) {
+                    applyBlockEntity(pos, placement.blockEntityTag);
+                }
+                SteveMetrics.BLOCKS_PLACED.inc();
+                placed++;
                 
-                SteveMod.LOGGER.info("Steve '{}' PLACED BLOCK at {} - Total: {}/{}", 
-                    steve.getSteveName(), pos, collaborativeBuild.getBlocksPlaced(), 
-                    collaborativeBuild.getTotalBlocks());
+                if (EventLog.admit(PLACED_BLOCK)) {
+                    EventLog.log(PLACED_BLOCK, "Steve '{}' placed block at {} - Total: {}/{}", 
+                        steve.getSteveName(), pos, collaborativeBuild.getBlocksPlaced(), 
+                        collaborativeBuild.getTotalBlocks());
+                }
                 
                 // Particles and sound
                 if (steve.level() instanceof ServerLevel serverLevel) {
@@ -251,15 +304,25 @@ public class BuildStructureAction extends BaseAction {
                         SoundSource.BLOCKS, 1.0f, soundType.getPitch());
                 }
             }
+            batch.end();
+            if (placed > 0 && batch.shouldCommit()) {
+                batch.steve = steve.getSteveName();
+                batch.structure = structureType;
+                batch.blocks = placed;
+                batch.teleports = teleports;
+                batch.commit();
+            }
             
             if (ticksRunning % 100 == 0 && collaborativeBuild.getBlocksPlaced() > 0) {
                 int percentComplete = collaborativeBuild.getProgressPercentage();
-                SteveMod.LOGGER.info("{} build progress: {}/{} ({}%) - {} Steves working", 
-                    structureType, 
-                    collaborativeBuild.getBlocksPlaced(), 
-                    collaborativeBuild.getTotalBlocks(), 
-                    percentComplete,
-                    collaborativeBuild.participatingSteves.size());
+                if (EventLog.admit(BUILD_PROGRESS)) {
+                    EventLog.log(BUILD_PROGRESS, "{} build progress: {}/{} ({}%) - {} Steves working", 
+                        structureType, 
+                        collaborativeBuild.getBlocksPlaced(), 
+                        collaborativeBuild.getTotalBlocks(), 
+                        percentComplete,
+                        collaborativeBuild.participatingSteves.size());
+                }
             }
         } else {
             steve.setFlying(false); // Disable flying on error
@@ -269,405 +332,45 @@ public class BuildStructureAction extends BaseAction {
 
     @Override
     protected void onCancel() {
+        if (pendingTemplate != null) {
+            pendingTemplate.cancel(false);
+            pendingTemplate = null;
+        }
         steve.setFlying(false); // Disable flying when cancelled
         steve.getNavigation().stop();
     }
 
+    /**
+     * The footprint of the plan being built, or anywhere until the site has been picked
+     */
     @Override
-    public String getDescription() {
-        return "Build " + structureType + " (" + currentBlockIndex + "/" + (buildPlan != null ? buildPlan.size() : 0) + ")";
-    }
-
-    private List<BlockPlacement> generateBuildPlan(String type, BlockPos start, int width, int height, int depth) {
-        return switch (type.toLowerCase()) {
-            case "house", "home" -> buildAdvancedHouse(start, width, height, depth);
-            case "castle", "catle", "fort" -> buildCastle(start, width, height, depth);
-            case "tower" -> buildAdvancedTower(start, width, height);
-            case "wall" -> buildWall(start, width, height);
-            case "platform" -> buildPlatform(start, width, depth);
-            case "barn", "shed" -> buildBarn(start, width, height, depth);
-            case "modern", "modern_house" -> buildModernHouse(start, width, height, depth);
-            case "box", "cube" -> buildBox(start, width, height, depth);
-            default -> {
-                SteveMod.LOGGER.warn("Unknown structure type '{}', building advanced house", type);
-                yield buildAdvancedHouse(start, Math.max(5, width), Math.max(4, height), Math.max(5, depth));
-            }
-        };
-    }
-    
-    private Block getMaterial(int index) {
-        return buildMaterials.get(index % buildMaterials.size());
-    }
-
-    private List<BlockPlacement> buildHouse(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block floorMaterial = getMaterial(0);
-        Block wallMaterial = getMaterial(1);
-        Block roofMaterial = getMaterial(2);
-        
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
-        }
-        
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial)); // Front wall
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial)); // Back wall
-            }
-            for (int z = 1; z < depth - 1; z++) {
-                blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial)); // Left wall
-                blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial)); // Right wall
-            }
-        }
-        
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, height, z), roofMaterial));
-            }
-        }
-        
-        return blocks;
-    }
-
-    private List<BlockPlacement> buildWall(BlockPos start, int width, int height) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), material));
-            }
+    public BoundingBox getTargetRegion() {
+        BuildPlan plan = collaborativeBuild != null ? collaborativeBuild.buildPlan : buildPlan;
+        if (plan == null || plan.isEmpty()) {
+            return ANYWHERE;
         }
-        return blocks;
+        return new BoundingBox(plan.getMinX(), plan.getMinY(), plan.getMinZ(), plan.getMaxX(), plan.getMaxY() - 1, plan.getMaxZ());
     }
 
-    private List<BlockPlacement> buildTower(BlockPos start, int width, int height) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        Block accentMaterial = getMaterial(1);
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < width; z++) {
-                    // Hollow tower with accent corners
-                    if (x == 0 || x == width - 1 || z == 0 || z == width - 1) {
-                        boolean isCorner = (x == 0 || x == width - 1) && (z == 0 || z == width - 1);
-                        Block blockToUse = isCorner ? accentMaterial : material;
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), blockToUse));
-                    }
-                }
-            }
-        }
-        return blocks;
-    }
-
-    private List<BlockPlacement> buildPlatform(BlockPos start, int width, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), material));
-            }
-        }
-        return blocks;
+    @Override
+    public String getDescription() {
+        return "Build " + structureType + " (" + currentBlockIndex + "/" + (buildPlan != null ? buildPlan.size() : 0) + ")";
     }
 
-    private List<BlockPlacement> buildBox(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, z), material));
-                }
-            }
-        }
-        return blocks;
-    }
-    
-    private List<BlockPlacement> buildAdvancedHouse(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block floorMaterial = getMaterial(0);
-        Block wallMaterial = getMaterial(1);
-        Block roofMaterial = getMaterial(2);
-        Block windowMaterial = Blocks.GLASS_PANE;
-        Block doorMaterial = Blocks.OAK_DOOR;
-        
-        if (roofMaterial == Blocks.GLASS || roofMaterial == Blocks.GLASS_PANE) {
-            roofMaterial = Blocks.OAK_PLANKS; // Force wood roof if glass was selected
-        }
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
-        }
-        for (int y = 1; y <= height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (x == width / 2 && y <= 2) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), doorMaterial));
-                } else if (y >= 2 && y <= height - 1 && (x == 2 || x == width - 3)) {
-                    // Windows on front wall (taller windows)
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial));
-                }
-                
-                // BACK WALL - Multiple windows
-                if (y >= 2 && y <= height - 1 && (x == 2 || x == width / 2 || x == width - 3)) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial));
-                }
-            }
-            for (int z = 1; z < depth - 1; z++) {
-                // Left and right walls with multiple windows
-                if (y >= 2 && y <= height - 1 && (z % 3 == 1)) {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), windowMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial));
-                }
-            }
-        }
-        int roofStartHeight = height + 1;
-        int roofLayers = Math.max(width, depth) / 2 + 1;
-        
-        for (int layer = 0; layer < roofLayers; layer++) {
-            int currentHeight = roofStartHeight + layer;
-            int inset = layer;
-            
-            for (int x = inset; x < width - inset; x++) {
-                for (int z = inset; z < depth - inset; z++) {
-                    if (x == inset || x == width - 1 - inset || 
-                        z == inset || z == depth - 1 - inset) {
-                        blocks.add(new BlockPlacement(start.offset(x, currentHeight, z), roofMaterial));
-                    }
-                }
-            }
-            
-            if (width - 2 * inset <= 1 || depth - 2 * inset <= 1) {
-                break;
-            }
-        }
-        
-        return blocks;
-    }
-    
-    private List<BlockPlacement> buildCastle(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block stoneMaterial = Blocks.STONE_BRICKS;
-        Block wallMaterial = Blocks.COBBLESTONE;
-        Block accentMaterial = getMaterial(2); // Use third material for accent
-        Block windowMaterial = Blocks.GLASS_PANE;
-        
-        for (int y = 0; y <= height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < depth; z++) {
-                    boolean isEdge = (x == 0 || x == width - 1 || z == 0 || z == depth - 1);
-                    boolean isCorner = (x <= 2 || x >= width - 3) && (z <= 2 || z >= depth - 3);
-                    
-                    if (y == 0) {
-                        // Solid stone floor
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), stoneMaterial));
-                    } else if (isEdge && !isCorner) {
-                        if (x == width / 2 && z == 0 && y <= 3) {
-                            if (y >= 1 && y <= 3 && x >= width / 2 - 1 && x <= width / 2 + 1) {
-                                blocks.add(new BlockPlacement(start.offset(x, y, 0), Blocks.AIR));
-                            }
-                        } else if (y % 4 == 2 && !isCorner) {
-                            // Arrow slit windows
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), windowMaterial));
-                        } else {
-                            // Thick stone walls
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                        }
-                    }
-                }
-            }
-        }
-        
-        int towerHeight = height + 6; // Much taller towers
-        int towerSize = 3;
-        int[][] corners = {{0, 0}, {width - towerSize, 0}, {0, depth - towerSize}, {width - towerSize, depth - towerSize}};
-        
-        for (int[] corner : corners) {
-            for (int y = 0; y <= towerHeight; y++) {
-                for (int dx = 0; dx < towerSize; dx++) {
-                    for (int dz = 0; dz < towerSize; dz++) {
-                        boolean isTowerEdge = (dx == 0 || dx == towerSize - 1 || dz == 0 || dz == towerSize - 1);
-                        
-                        if (y == 0 || isTowerEdge) {
-                            // Solid base and hollow center
-                            blocks.add(new BlockPlacement(start.offset(corner[0] + dx, y, corner[1] + dz), stoneMaterial));
-                        }
-                        
-                        // Windows on towers
-                        if (y % 5 == 3 && isTowerEdge && (dx == towerSize / 2 || dz == towerSize / 2)) {
-                            blocks.add(new BlockPlacement(start.offset(corner[0] + dx, y, corner[1] + dz), windowMaterial));
-                        }
-                    }
-                }
-            }
-            for (int dx = 0; dx < towerSize; dx++) {
-                for (int dz = 0; dz < towerSize; dz++) {
-                    if (dx % 2 == 0 || dz % 2 == 0) {
-                        blocks.add(new BlockPlacement(start.offset(corner[0] + dx, towerHeight + 1, corner[1] + dz), stoneMaterial));
-                    }
-                }
-            }
-        }
-        for (int x = 0; x < width; x += 2) {
-            blocks.add(new BlockPlacement(start.offset(x, height + 1, 0), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 2, 0), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 1, depth - 1), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 2, depth - 1), stoneMaterial));
-        }
-        for (int z = 0; z < depth; z += 2) {
-            blocks.add(new BlockPlacement(start.offset(0, height + 1, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(0, height + 2, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(width - 1, height + 1, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(width - 1, height + 2, z), stoneMaterial));
-        }
-        
-        return blocks;
-    }
-    
-    private List<BlockPlacement> buildModernHouse(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block wallMaterial = Blocks.QUARTZ_BLOCK;
-        Block floorMaterial = Blocks.SMOOTH_STONE;
-        Block glassMaterial = Blocks.GLASS;
-        Block roofMaterial = Blocks.DARK_OAK_PLANKS;
-        
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
-        }
-        
-        // Modern design with lots of glass
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                // Front - mostly glass
-                if (x % 2 == 0 || y > 1) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), glassMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial));
-                }
-                
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial));
-            }
-            
-            for (int z = 1; z < depth - 1; z++) {
-                // Side walls with some glass
-                if (z % 3 == 1 && y == 2) {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), glassMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), glassMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial));
-                }
-            }
-        }
-        
-        // Flat modern roof
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, height, z), roofMaterial));
-            }
-        }
-        
-        return blocks;
-    }
-    
-    private List<BlockPlacement> buildBarn(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block woodMaterial = Blocks.OAK_PLANKS;
-        Block logMaterial = Blocks.OAK_LOG;
-        Block roofMaterial = Blocks.SPRUCE_PLANKS;
-        
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), woodMaterial));
-            }
-        }
-        
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                boolean isSupport = (x == 0 || x == width - 1 || x == width / 2);
-                Block material = isSupport ? logMaterial : woodMaterial;
-                
-                // Large door opening in front
-                if (x >= width / 3 && x <= 2 * width / 3 && y <= 2) {
-                    continue; // Skip for large opening
-                }
-                
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), material));
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), material));
-            }
-            
-            for (int z = 1; z < depth - 1; z++) {
-                blocks.add(new BlockPlacement(start.offset(0, y, z), logMaterial));
-                blocks.add(new BlockPlacement(start.offset(width - 1, y, z), logMaterial));
-            }
-        }
-        
-        // Tall peaked roof
-        int roofPeakHeight = height + width / 2;
-        for (int x = 0; x < width; x++) {
-            int distFromCenter = Math.abs(x - width / 2);
-            int roofY = roofPeakHeight - distFromCenter;
-            
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, roofY, z), roofMaterial));
-            }
-        }
-        
-        return blocks;
-    }
-    
-    private List<BlockPlacement> buildAdvancedTower(BlockPos start, int width, int height) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block wallMaterial = Blocks.STONE_BRICKS;
-        Block accentMaterial = Blocks.CHISELED_STONE_BRICKS;
-        Block windowMaterial = Blocks.GLASS_PANE;
-        Block roofMaterial = Blocks.DARK_OAK_STAIRS;
-        
-        // Main tower body
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < width; z++) {
-                    boolean isEdge = (x == 0 || x == width - 1 || z == 0 || z == width - 1);
-                    boolean isCorner = (x == 0 || x == width - 1) && (z == 0 || z == width - 1);
-                    
-                    if (y == 0) {
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                    } else if (isEdge) {
-                        // Windows every few levels
-                        if (y % 3 == 2 && !isCorner && (x == width / 2 || z == width / 2)) {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), windowMaterial));
-                        } else if (isCorner) {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), accentMaterial));
-                        } else {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                        }
-                    }
-                }
-            }
-        }
-        
-        for (int i = 0; i < width / 2 + 1; i++) {
-            for (int x = i; x < width - i; x++) {
-                for (int z = i; z < width - i; z++) {
-                    if (x == i || x == width - 1 - i || z == i || z == width - 1 - i) {
-                        blocks.add(new BlockPlacement(start.offset(x, height + i, z), roofMaterial));
-                    }
-                }
-            }
+    /**
+     * Load a template's block entity data (chest contents, sign text...) into the block just placed
+     */
+    private void applyBlockEntity(BlockPos pos, CompoundTag blockEntityTag) {
+        BlockEntity blockEntity = steve.level().getBlockEntity(pos);
+        if (blockEntity == null) {
+            return;
         }
-        
-        return blocks;
+        CompoundTag tag = blockEntityTag.copy();
+        tag.putInt("x", pos.getX());
+        tag.putInt("y", pos.getY());
+        tag.putInt("z", pos.getZ());
+        blockEntity.load(tag);
+        blockEntity.setChanged();
     }
 
     private Block parseBlock(String blockName) {
@@ -845,30 +548,6 @@ public class BuildStructureAction extends BaseAction {
         return suitable;
     }
     
-    /**
-     * Try to load structure from NBT template file
-     * Returns null if no template found (falls back to procedural generation)
-     */
-    private List<BlockPlacement> tryLoadFromTemplate(String structureName, BlockPos startPos) {
-        if (!(steve.level() instanceof ServerLevel serverLevel)) {
-            return null;
-        }
-        
-        var template = StructureTemplateLoader.loadFromNBT(serverLevel, structureName);
-        if (template == null) {
-            return null;
-        }
-        
-        List<BlockPlacement> blocks = new ArrayList<>();
-        for (var templateBlock : template.blocks) {
-            BlockPos worldPos = startPos.offset(templateBlock.relativePos);
-            Block block = templateBlock.blockState.getBlock();
-            blocks.add(new BlockPlacement(worldPos, block));
-        }
-        
-        return blocks;
-    }
-    
     /**
      * Find the nearest player to build in front of
      */
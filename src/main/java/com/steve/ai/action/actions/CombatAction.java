@@ -1,16 +1,28 @@
 package com.steve.ai.action.actions;
 
+import com.steve.ai.action.ActionResource;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.util.EventLog;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.monster.Monster;
 import net.minecraft.world.phys.AABB;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Holds only {@link ActionResource#HANDS}: it chases its target while movement is free, and while a
+ * follow or pathfind has the legs it fights whatever comes within reach.
+ */
 public class CombatAction extends BaseAction {
+    private static final Set<ActionResource> RESOURCES = EnumSet.of(ActionResource.HANDS);
+    private static final EventLog.Key LOCKED_ON = EventLog.key("combat.target", EventLog.Level.DEBUG, 2);
+    private static final EventLog.Key UNSTUCK = EventLog.key("combat.unstuck", EventLog.Level.DEBUG, 1);
+
     private String targetType;
     private LivingEntity target;
     private int ticksRunning;
@@ -30,7 +42,9 @@ public class CombatAction extends BaseAction {
         ticksStuck = 0;
         
         // Make sure we're not flying (in case we were building)
-        steve.setFlying(false);
+        if (canMove()) {
+            steve.setFlying(false);
+        }
         
         steve.setInvulnerableBuilding(true);
         
@@ -48,8 +62,10 @@ public class CombatAction extends BaseAction {
         if (ticksRunning > MAX_TICKS) {
             // Combat complete - clean up and disable invulnerability
             steve.setInvulnerableBuilding(false);
-            steve.setSprinting(false);
-            steve.getNavigation().stop();
+            if (canMove()) {
+                steve.setSprinting(false);
+                steve.getNavigation().stop();
+            }
             com.steve.ai.SteveMod.LOGGER.info("Steve '{}' combat complete, invulnerability disabled", 
                 steve.getSteveName());
             result = ActionResult.success("Combat complete");
@@ -67,7 +83,25 @@ public class CombatAction extends BaseAction {
         }
         
         double distance = steve.distanceTo(target);
+        if (canMove()) {
+            chase(distance);
+        }
         
+        if (distance <= ATTACK_RANGE) {
+            steve.doHurtTarget(target);
+            steve.swing(net.minecraft.world.InteractionHand.MAIN_HAND, true);
+            
+            // Attack 3 times per second (every 6-7 ticks)
+            if (ticksRunning % 7 == 0) {
+                steve.doHurtTarget(target);
+            }
+        }
+    }
+
+    /**
+     * Sprint after the target, teleporting a little closer when stuck
+     */
+    private void chase(double distance) {
         steve.setSprinting(true);
         steve.getNavigation().moveTo(target, 2.5); // High speed multiplier for sprinting
         
@@ -89,37 +123,35 @@ public class CombatAction extends BaseAction {
                     steve.getZ() + (dz/dist) * moveAmount
                 );
                 ticksStuck = 0;
-                com.steve.ai.SteveMod.LOGGER.info("Steve '{}' was stuck, teleported closer to target", 
-                    steve.getSteveName());
+                if (EventLog.admit(UNSTUCK)) {
+                    EventLog.log(UNSTUCK, "Steve '{}' was stuck, teleported closer to target", steve.getSteveName());
+                }
             }
         } else {
             ticksStuck = 0;
         }
         lastX = currentX;
         lastZ = currentZ;
-        
-        if (distance <= ATTACK_RANGE) {
-            steve.doHurtTarget(target);
-            steve.swing(net.minecraft.world.InteractionHand.MAIN_HAND, true);
-            
-            // Attack 3 times per second (every 6-7 ticks)
-            if (ticksRunning % 7 == 0) {
-                steve.doHurtTarget(target);
-            }
-        }
     }
 
     @Override
     protected void onCancel() {
         steve.setInvulnerableBuilding(false);
-        steve.getNavigation().stop();
-        steve.setSprinting(false);
-        steve.setFlying(false);
+        if (canMove()) {
+            steve.getNavigation().stop();
+            steve.setSprinting(false);
+            steve.setFlying(false);
+        }
         target = null;
         com.steve.ai.SteveMod.LOGGER.info("Steve '{}' combat cancelled, invulnerability disabled", 
             steve.getSteveName());
     }
 
+    @Override
+    public Set<ActionResource> getRequiredResources() {
+        return RESOURCES;
+    }
+
     @Override
     public String getDescription() {
         return "Attack " + targetType;
@@ -144,8 +176,10 @@ public class CombatAction extends BaseAction {
         
         target = nearest;
         if (target != null) {
-            com.steve.ai.SteveMod.LOGGER.info("Steve '{}' locked onto: {} at {}m", 
-                steve.getSteveName(), target.getType().toString(), (int)nearestDistance);
+            if (EventLog.admit(LOCKED_ON)) {
+                EventLog.log(LOCKED_ON, "Steve '{}' locked onto: {} at {}m", 
+                    steve.getSteveName(), target.getType(), (int)nearestDistance);
+            }
         }
     }
 
@@ -1,10 +1,16 @@
 package com.steve.ai.action.actions;
 
+import com.steve.ai.action.ActionResource;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public class CraftItemAction extends BaseAction {
+    private static final Set<ActionResource> RESOURCES = EnumSet.of(ActionResource.HANDS);
+
     private String itemName;
     private int quantity;
     private int ticksRunning;
@@ -34,7 +40,12 @@ public class CraftItemAction extends BaseAction {
 
     @Override
     protected void onCancel() {
-        steve.getNavigation().stop();
+        // Doesn't hold MOVEMENT, so leave navigation to whatever action does
+    }
+
+    @Override
+    public Set<ActionResource> getRequiredResources() {
+        return RESOURCES;
     }
 
     @Override
@@ -1,13 +1,18 @@
 package com.steve.ai.action.actions;
 
+import com.steve.ai.action.ActionResource;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
 import net.minecraft.world.entity.player.Player;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class FollowPlayerAction extends BaseAction {
+    private static final Set<ActionResource> RESOURCES = EnumSet.of(ActionResource.MOVEMENT);
+
     private String playerName;
     private Player targetPlayer;
     private int ticksRunning;
@@ -59,6 +64,11 @@ public class FollowPlayerAction extends BaseAction {
         steve.getNavigation().stop();
     }
 
+    @Override
+    public Set<ActionResource> getRequiredResources() {
+        return RESOURCES;
+    }
+
     @Override
     public String getDescription() {
         return "Follow player " + playerName;
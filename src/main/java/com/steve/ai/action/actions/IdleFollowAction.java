@@ -4,6 +4,7 @@ import com.steve.ai.SteveMod;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.util.EventLog;
 import net.minecraft.world.entity.player.Player;
 
 import java.util.HashMap;
@@ -15,6 +16,8 @@ import java.util.List;
  * Teleports to player if too far away.
  */
 public class IdleFollowAction extends BaseAction {
+    private static final EventLog.Key TELEPORTED = EventLog.key("follow.teleported", EventLog.Level.DEBUG, 1);
+
     private Player targetPlayer;
     private int ticksSincePlayerSearch;
     private static final int PLAYER_SEARCH_INTERVAL = 100; // Search for new player every 5 seconds
@@ -80,8 +83,10 @@ public class IdleFollowAction extends BaseAction {
             steve.teleportTo(targetX, targetY, targetZ);
             steve.getNavigation().stop(); // Clear navigation after teleport
             
-            SteveMod.LOGGER.info("Steve '{}' teleported to player (was {} blocks away)", 
-                steve.getSteveName(), (int)distance);
+            if (EventLog.admit(TELEPORTED)) {
+                EventLog.log(TELEPORTED, "Steve '{}' teleported to player (was {} blocks away)", 
+                    steve.getSteveName(), (int)distance);
+            }
             
         } else if (distance > FOLLOW_DISTANCE) {
             // Too far, move closer (normal walking)
@@ -1,9 +1,12 @@
 package com.steve.ai.action.actions;
 
 import com.steve.ai.SteveMod;
+import com.steve.ai.action.ActionResource;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.util.EventLog;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.level.block.Block;
@@ -11,13 +14,23 @@ import net.minecraft.world.level.block.Blocks;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class MineBlockAction extends BaseAction {
+    // Teleports along its tunnel and swings a pickaxe
+    private static final Set<ActionResource> RESOURCES = EnumSet.of(ActionResource.MOVEMENT, ActionResource.HANDS);
+    private static final EventLog.Key MINED_ORE = EventLog.key("mine.mined", EventLog.Level.INFO, 2);
+    private static final EventLog.Key TUNNEL_STEP = EventLog.key("mine.tunnel", EventLog.Level.DEBUG, 2);
+    private static final EventLog.Key FOUND_ORE = EventLog.key("mine.found", EventLog.Level.DEBUG, 2);
+    private static final EventLog.Key PLACED_TORCH = EventLog.key("mine.torch", EventLog.Level.DEBUG, 1);
+
     private Block targetBlock;
     private int targetQuantity;
     private int minedCount;
@@ -35,6 +48,7 @@ public class MineBlockAction extends BaseAction {
     private static final int MIN_LIGHT_LEVEL = 8;
     private static final int MINING_DELAY = 10;
     private static final int MAX_MINING_RADIUS = 5;
+    private static final int SCAN_DISTANCE = 20; // How far ahead of the tunnel face ore is looked for
     
     // Ore depth mappings for intelligent mining
     private static final Map<String, Integer> ORE_DEPTHS = new HashMap<>() {{
@@ -178,12 +192,14 @@ public class MineBlockAction extends BaseAction {
             steve.swing(InteractionHand.MAIN_HAND, true);
             
             steve.level().destroyBlock(currentTarget, true);
+            SteveMetrics.BLOCKS_MINED.inc();
             minedCount++;
             ticksSinceLastMine = 0; // Reset delay timer
             
-            SteveMod.LOGGER.info("Steve '{}' moved to ore and mined {} at {} - Total: {}/{}", 
-                steve.getSteveName(), targetBlock.getName().getString(), currentTarget, 
-                minedCount, targetQuantity);
+            if (EventLog.admit(MINED_ORE)) {
+                EventLog.log(MINED_ORE, "Steve '{}' mined {} at {} - Total: {}/{}", 
+                    steve.getSteveName(), targetBlock, currentTarget, minedCount, targetQuantity);
+            }
             
             if (minedCount >= targetQuantity) {
                 steve.setFlying(false);
@@ -205,6 +221,24 @@ public class MineBlockAction extends BaseAction {
         steve.setItemInHand(InteractionHand.MAIN_HAND, net.minecraft.world.item.ItemStack.EMPTY);
     }
 
+    @Override
+    public Set<ActionResource> getRequiredResources() {
+        return RESOURCES;
+    }
+
+    /**
+     * The tunnel from its face to the end of the ore scan, one block above and below. Unknown until
+     * started, since the tunnel is laid out from where the player is looking.
+     */
+    @Override
+    public BoundingBox getTargetRegion() {
+        if (currentTunnelPos == null) {
+            return ANYWHERE;
+        }
+        BlockPos end = currentTunnelPos.offset(miningDirectionX * (SCAN_DISTANCE - 1), 0, miningDirectionZ * (SCAN_DISTANCE - 1));
+        return BoundingBox.fromCorners(currentTunnelPos.below(), end.above());
+    }
+
     @Override
     public String getDescription() {
         return "Mine " + targetQuantity + " " + targetBlock.getName().getString() + " (" + minedCount + " found)";
@@ -222,8 +256,10 @@ public class MineBlockAction extends BaseAction {
             
             if (torchPos != null && steve.level().getBlockState(torchPos).isAir()) {
                 steve.level().setBlock(torchPos, Blocks.TORCH.defaultBlockState(), 3);
-                SteveMod.LOGGER.info("Steve '{}' placed torch at {} (light level was {})", 
-                    steve.getSteveName(), torchPos, lightLevel);
+                if (EventLog.admit(PLACED_TORCH)) {
+                    EventLog.log(PLACED_TORCH, "Steve '{}' placed torch at {} (light level was {})", 
+                        steve.getSteveName(), torchPos, lightLevel);
+                }
                 
                 steve.swing(InteractionHand.MAIN_HAND, true);
             }
@@ -268,19 +304,24 @@ public class MineBlockAction extends BaseAction {
             steve.teleportTo(centerPos.getX() + 0.5, centerPos.getY(), centerPos.getZ() + 0.5);
             steve.swing(InteractionHand.MAIN_HAND, true);
             steve.level().destroyBlock(centerPos, true);
-            SteveMod.LOGGER.info("Steve '{}' mining tunnel at {}", steve.getSteveName(), centerPos);
+            SteveMetrics.BLOCKS_MINED.inc();
+            if (EventLog.admit(TUNNEL_STEP)) {
+                EventLog.log(TUNNEL_STEP, "Steve '{}' mining tunnel at {}", steve.getSteveName(), centerPos);
+            }
         }
         
         BlockState aboveState = steve.level().getBlockState(abovePos);
         if (!aboveState.isAir() && aboveState.getBlock() != Blocks.BEDROCK) {
             steve.swing(InteractionHand.MAIN_HAND, true);
             steve.level().destroyBlock(abovePos, true);
+            SteveMetrics.BLOCKS_MINED.inc();
         }
         
         BlockState belowState = steve.level().getBlockState(belowPos);
         if (!belowState.isAir() && belowState.getBlock() != Blocks.BEDROCK) {
             steve.swing(InteractionHand.MAIN_HAND, true);
             steve.level().destroyBlock(belowPos, true);
+            SteveMetrics.BLOCKS_MINED.inc();
         }
         
         currentTunnelPos = currentTunnelPos.offset(miningDirectionX, 0, miningDirectionZ);
@@ -295,7 +336,7 @@ public class MineBlockAction extends BaseAction {
     private void findNextBlock() {
         List<BlockPos> foundBlocks = new ArrayList<>();
         
-        for (int distance = 0; distance < 20; distance++) {
+        for (int distance = 0; distance < SCAN_DISTANCE; distance++) {
             BlockPos checkPos = currentTunnelPos.offset(miningDirectionX * distance, 0, miningDirectionZ * distance);
             
             for (int y = -1; y <= 1; y++) {
@@ -312,8 +353,10 @@ public class MineBlockAction extends BaseAction {
                 .orElse(null);
             
             if (currentTarget != null) {
-                SteveMod.LOGGER.info("Steve '{}' found {} ahead in tunnel at {}", 
-                    steve.getSteveName(), targetBlock.getName().getString(), currentTarget);
+                if (EventLog.admit(FOUND_ORE)) {
+                    EventLog.log(FOUND_ORE, "Steve '{}' found {} ahead in tunnel at {}", 
+                        steve.getSteveName(), targetBlock, currentTarget);
+                }
             }
         }
     }
@@ -327,7 +370,7 @@ public class MineBlockAction extends BaseAction {
             net.minecraft.world.item.Items.IRON_PICKAXE
         );
         steve.setItemInHand(net.minecraft.world.InteractionHand.MAIN_HAND, pickaxe);
-        SteveMod.LOGGER.info("Steve '{}' equipped iron pickaxe for mining", steve.getSteveName());
+        SteveMod.LOGGER.debug("Steve '{}' equipped iron pickaxe for mining", steve.getSteveName());
     }
 
     /**
@@ -1,11 +1,17 @@
 package com.steve.ai.action.actions;
 
+import com.steve.ai.action.ActionResource;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
 import net.minecraft.core.BlockPos;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public class PathfindAction extends BaseAction {
+    private static final Set<ActionResource> RESOURCES = EnumSet.of(ActionResource.MOVEMENT);
+
     private BlockPos targetPos;
     private int ticksRunning;
     private static final int MAX_TICKS = 600; // 30 seconds timeout
@@ -50,6 +56,11 @@ public class PathfindAction extends BaseAction {
         steve.getNavigation().stop();
     }
 
+    @Override
+    public Set<ActionResource> getRequiredResources() {
+        return RESOURCES;
+    }
+
     @Override
     public String getDescription() {
         return "Pathfind to " + targetPos;
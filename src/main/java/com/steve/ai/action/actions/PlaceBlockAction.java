@@ -1,5 +1,6 @@
 package com.steve.ai.action.actions;
 
+import com.steve.ai.action.ActionResource;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
@@ -9,8 +10,18 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Holds no resource: the block is set directly, and the Steve only walks over when movement is free.
+ * Two placements, or a placement and a mine or build, conflict only when their regions overlap.
+ */
 public class PlaceBlockAction extends BaseAction {
+    private static final Set<ActionResource> RESOURCES = EnumSet.noneOf(ActionResource.class);
+
     private Block blockToPlace;
     private BlockPos targetPos;
     private int ticksRunning;
@@ -41,6 +52,10 @@ public class PlaceBlockAction extends BaseAction {
 
     @Override
     protected void onTick() {
+        boolean inReach = steve.blockPosition().closerThan(targetPos, 5.0);
+        if (!inReach && !canMove()) {
+            return; // Another action is steering; the timeout starts once this one can walk over
+        }
         ticksRunning++;
         
         if (ticksRunning > MAX_TICKS) {
@@ -48,7 +63,7 @@ public class PlaceBlockAction extends BaseAction {
             return;
         }
         
-        if (!steve.blockPosition().closerThan(targetPos, 5.0)) {
+        if (!inReach) {
             steve.getNavigation().moveTo(targetPos.getX(), targetPos.getY(), targetPos.getZ(), 1.0);
             return;
         }
@@ -65,7 +80,19 @@ public class PlaceBlockAction extends BaseAction {
 
     @Override
     protected void onCancel() {
-        steve.getNavigation().stop();
+        if (canMove()) {
+            steve.getNavigation().stop();
+        }
+    }
+
+    @Override
+    public Set<ActionResource> getRequiredResources() {
+        return RESOURCES;
+    }
+
+    @Override
+    public BoundingBox getTargetRegion() {
+        return new BoundingBox(new BlockPos(task.getIntParameter("x", 0), task.getIntParameter("y", 0), task.getIntParameter("z", 0)));
     }
 
     @Override
@@ -1,39 +1,105 @@
 package com.steve.ai.agent;
 
+import com.steve.ai.SteveMod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class ConversationalMemory {
+    // HNSW graph settings for memory retrieval; keeps top-k lookups sub-linear as history grows
+    private static final int HNSW_M = 16;
+    private static final int HNSW_EF_CONSTRUCTION = 200;
+    private static final int HNSW_EF_SEARCH = 64;
+    private static final int DIMENSIONS = 384;
+    private static final int RESTORED_MESSAGES = 20;
+
+    // Context window: recent turns get 60% of the budget, summaries of older turns 20%, retrieval the rest
+    private static final int RECENT_SHARE_PERCENT = 60;
+    private static final int SUMMARY_SHARE_PERCENT = 20;
+    private static final int MAX_RAW_MESSAGES = 64;
+    private static final int SUMMARY_BLOCK = 4;
+    private static final int MAX_SUMMARIES = 64;
+    private static final int SNIPPET_TOKENS = 10;
+    private static final int RETRIEVED_MEMORIES = 4;
+    private static final int SECTION_HEADER_TOKENS = 8;
+
     private final List<ChatMessage> messages;
+    private final Deque<Summary> summaries = new ArrayDeque<>(); // oldest first
     private final int maxTokens;
     private final VectorStore vectorStore;
     
     public ConversationalMemory(int maxTokens) {
+        // Int8 codes keep recall within a percent of full floats at a quarter of the memory
+        this(maxTokens, new VectorStore(DIMENSIONS, 64, VectorStore.Quantization.INT8, false));
+    }
+
+    private ConversationalMemory(int maxTokens, VectorStore vectorStore) {
         this.messages = new ArrayList<>();
         this.maxTokens = maxTokens;
-        this.vectorStore = new VectorStore(384);
+        this.vectorStore = vectorStore;
+        this.vectorStore.enableHnsw(HNSW_M, HNSW_EF_CONSTRUCTION, HNSW_EF_SEARCH);
+    }
+
+    /**
+     * Long-term memory kept in {@code directory}; the latest turns are restored as recent messages
+     */
+    public static ConversationalMemory open(int maxTokens, Path directory) throws IOException {
+        ConversationalMemory memory = new ConversationalMemory(maxTokens,
+            VectorStore.open(directory, DIMENSIONS, VectorStore.Quantization.INT8));
+        for (VectorStore.EmbeddingEntry entry : memory.vectorStore.latest(RESTORED_MESSAGES)) {
+            Object role = entry.metadata.getOrDefault("role", "user");
+            Object timestamp = entry.metadata.getOrDefault("timestamp", 0L);
+            memory.addMessage(new ChatMessage(String.valueOf(role), entry.text, ((Number) timestamp).longValue()));
+        }
+        return memory;
+    }
+
+    public void close() throws IOException {
+        vectorStore.close();
     }
     
-    public void addUserMessage(String content) {
+    public synchronized void addUserMessage(String content) {
         ChatMessage message = new ChatMessage("user", content, System.currentTimeMillis());
-        messages.add(message);
+        addMessage(message);
         
-        vectorStore.addText(content, Map.of(
-            "role", "user",
-            "timestamp", message.timestamp
-        ));
+        remember(content, "user", message.timestamp);
     }
     
-    public void addAssistantMessage(String content) {
+    public synchronized void addAssistantMessage(String content) {
         ChatMessage message = new ChatMessage("assistant", content, System.currentTimeMillis());
-        messages.add(message);
+        addMessage(message);
         
-        vectorStore.addText(content, Map.of(
-            "role", "assistant",
-            "timestamp", message.timestamp
-        ));
+        remember(content, "assistant", message.timestamp);
+    }
+
+    /**
+     * Keep a bounded number of raw turns; the oldest block is rolled into a cached summary line.
+     * Full texts stay in the vector store, so rolled-up turns can still be retrieved when relevant.
+     */
+    private void addMessage(ChatMessage message) {
+        messages.add(message);
+        if (messages.size() <= MAX_RAW_MESSAGES) {
+            return;
+        }
+        List<ChatMessage> block = messages.subList(0, SUMMARY_BLOCK);
+        summaries.addLast(new Summary(summarize(block, 0, block.size())));
+        block.clear();
+        if (summaries.size() > MAX_SUMMARIES) {
+            summaries.removeFirst();
+        }
     }
     
-    public List<ChatMessage> getRecentMessages(int count) {
+    private void remember(String content, String role, long timestamp) {
+        try {
+            vectorStore.addText(content, Map.of("role", role, "timestamp", timestamp));
+        } catch (UncheckedIOException e) {
+            SteveMod.LOGGER.warn("Failed to write a {} message to long-term memory", role, e);
+        }
+    }
+
+    public synchronized List<ChatMessage> getRecentMessages(int count) {
         int size = messages.size();
         int start = Math.max(0, size - count);
         return new ArrayList<>(messages.subList(start, size));
@@ -43,9 +109,93 @@ public class ConversationalMemory {
         return vectorStore.similaritySearch(query, k);
     }
     
+    /**
+     * Conversation history within the token budget, without retrieval
+     */
     public String formatMessages() {
+        return formatContext(null);
+    }
+
+    /**
+     * Conversation context for a prompt, bounded by {@code maxTokens}: the newest turns verbatim, summaries of
+     * older turns, and stored memories relevant to {@code query} (skipped when null). Budget a section leaves
+     * unused flows to the next one.
+     */
+    public synchronized String formatContext(String query) {
+        int remaining = Math.max(0, maxTokens - SECTION_HEADER_TOKENS);
+
+        // Newest turns that fit the recent share, walking backwards
+        int recentBudget = maxTokens * RECENT_SHARE_PERCENT / 100;
+        int windowStart = messages.size();
+        int recentTokens = 0;
+        while (windowStart > 0) {
+            int cost = messages.get(windowStart - 1).tokens + 2; // role + separator
+            if (recentTokens + cost > recentBudget) {
+                break;
+            }
+            recentTokens += cost;
+            windowStart--;
+        }
+        remaining -= recentTokens;
+
+        // Summaries, newest first: raw turns that fell out of the window, then rolled-up blocks
+        List<String> summaryLines = new ArrayList<>();
+        int summaryBudget = remaining - (maxTokens * (100 - RECENT_SHARE_PERCENT - SUMMARY_SHARE_PERCENT) / 100);
+        if (windowStart > 0) {
+            String earlier = summarize(messages, Math.max(0, windowStart - SUMMARY_BLOCK), windowStart);
+            int cost = TokenEstimator.estimate(earlier) + 1;
+            if (cost <= summaryBudget) {
+                summaryLines.add(earlier);
+                summaryBudget -= cost;
+                remaining -= cost;
+            }
+        }
+        for (Iterator<Summary> it = summaries.descendingIterator(); it.hasNext(); ) {
+            Summary summary = it.next();
+            if (summary.tokens + 1 > summaryBudget) {
+                break;
+            }
+            summaryLines.add(summary.text);
+            summaryBudget -= summary.tokens + 1;
+            remaining -= summary.tokens + 1;
+        }
+
+        // Whatever is left goes to older memories that match the query
+        List<String> memoryLines = new ArrayList<>();
+        if (query != null && !query.isBlank() && remaining > SNIPPET_TOKENS && vectorStore.size() > 0) {
+            Set<String> shown = new HashSet<>();
+            for (int i = windowStart; i < messages.size(); i++) {
+                shown.add(messages.get(i).content);
+            }
+            for (VectorStore.EmbeddingEntry entry : vectorStore.similaritySearch(query, RETRIEVED_MEMORIES)) {
+                if (!shown.add(entry.text)) {
+                    continue;
+                }
+                String line = entry.metadata.getOrDefault("role", "memory") + ": " + entry.text;
+                int cost = TokenEstimator.estimate(line) + 1;
+                if (cost > remaining) {
+                    continue;
+                }
+                memoryLines.add(line);
+                remaining -= cost;
+            }
+        }
+
         StringBuilder formatted = new StringBuilder();
-        for (ChatMessage message : messages) {
+        if (!summaryLines.isEmpty()) {
+            formatted.append("Earlier (summarized):\n");
+            for (int i = summaryLines.size() - 1; i >= 0; i--) {
+                formatted.append("- ").append(summaryLines.get(i)).append("\n");
+            }
+        }
+        if (!memoryLines.isEmpty()) {
+            formatted.append("Relevant memories:\n");
+            for (String line : memoryLines) {
+                formatted.append("- ").append(line).append("\n");
+            }
+        }
+        for (int i = windowStart; i < messages.size(); i++) {
+            ChatMessage message = messages.get(i);
             formatted.append(message.role)
                     .append(": ")
                     .append(message.content)
@@ -53,20 +203,60 @@ public class ConversationalMemory {
         }
         return formatted.toString();
     }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * One line per block of turns built from each turn's cached snippet
+     */
+    private static String summarize(List<ChatMessage> turns, int from, int to) {
+        StringBuilder summary = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (summary.length() > 0) {
+                summary.append(" | ");
+            }
+            ChatMessage turn = turns.get(i);
+            summary.append(turn.role).append(": ").append(turn.snippet());
+        }
+        return summary.toString();
+    }
     
-    public void clear() {
+    public synchronized void clear() {
         messages.clear();
+        summaries.clear();
+    }
+
+    private static class Summary {
+        final String text;
+        final int tokens;
+
+        Summary(String text) {
+            this.text = text;
+            this.tokens = TokenEstimator.estimate(text);
+        }
     }
     
     public static class ChatMessage {
         public final String role;
         public final String content;
         public final long timestamp;
+        public final int tokens;
+        private String snippet;
         
         public ChatMessage(String role, String content, long timestamp) {
             this.role = role;
             this.content = content;
             this.timestamp = timestamp;
+            this.tokens = TokenEstimator.estimate(content);
+        }
+
+        String snippet() {
+            if (snippet == null) {
+                snippet = TokenEstimator.truncate(content, SNIPPET_TOKENS);
+            }
+            return snippet;
         }
     }
 }
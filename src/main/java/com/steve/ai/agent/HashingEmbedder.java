@@ -0,0 +1,225 @@
+package com.steve.ai.agent;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline text embedder: word unigrams, word bigrams and character trigrams are feature-hashed
+ * into a fixed number of signed buckets, weighted by TF-IDF and L2-normalized.
+ * Document frequencies are learned from every text passed to {@link #observe}, so weights adapt
+ * to the agent's own vocabulary. Texts sharing words or word fragments land close together,
+ * with no model files, network calls or GPU.
+ */
+public class HashingEmbedder {
+    private static final int TYPE_WORD = 0;
+    private static final int TYPE_BIGRAM = 1;
+    private static final int TYPE_TRIGRAM = 2;
+    private static final float[] TYPE_WEIGHTS = {1.0f, 0.7f, 0.35f};
+
+    private static final int DF_TABLE_BITS = 16;
+    private static final int DF_MASK = (1 << DF_TABLE_BITS) - 1;
+    private static final int CACHE_SIZE = 1024;
+
+    /** Ints of state: the document frequency table followed by the document count */
+    static final int STATE_INTS = (1 << DF_TABLE_BITS) + 1;
+    private static final int COUNT_SLOT = STATE_INTS - 1;
+
+    private final int dimensions;
+    private final IntBuffer state;
+    private int documentCount;
+    private int nextCacheReset;
+    private final Map<Long, float[]> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, float[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // Feature hashes for the text currently being processed
+    private long[] features = new long[256];
+
+    public HashingEmbedder(int dimensions) {
+        this(dimensions, IntBuffer.allocate(STATE_INTS));
+    }
+
+    /**
+     * Embedder whose frequencies live in (and persist through) the given buffer of {@link #STATE_INTS} ints
+     */
+    HashingEmbedder(int dimensions, IntBuffer state) {
+        this.dimensions = dimensions;
+        this.state = state;
+        this.documentCount = state.get(COUNT_SLOT);
+        this.nextCacheReset = Math.max(16, Integer.highestOneBit(Math.max(1, documentCount)) * 2);
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Count a text towards document frequencies. Call once per stored document, before embedding it.
+     */
+    public synchronized void observe(String text) {
+        int count = extractFeatures(text);
+        Arrays.sort(features, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || features[i] != features[i - 1]) {
+                int slot = dfSlot(features[i]);
+                state.put(slot, state.get(slot) + 1);
+            }
+        }
+        state.put(COUNT_SLOT, ++documentCount);
+
+        // IDF weights drift as the corpus grows; drop cached vectors each time it doubles
+        if (documentCount >= nextCacheReset) {
+            cache.clear();
+            nextCacheReset *= 2;
+        }
+    }
+
+    /**
+     * Embed one text into {@code out} (length = dimensions)
+     */
+    public synchronized void embed(String text, float[] out) {
+        embed(text, out, 0);
+    }
+
+    /**
+     * Embed many texts at once into a flat array, row i at {@code i * dimensions}
+     */
+    public synchronized void embedBatch(List<String> texts, float[] out) {
+        for (int i = 0; i < texts.size(); i++) {
+            embed(texts.get(i), out, i * dimensions);
+        }
+    }
+
+    private void embed(String text, float[] out, int offset) {
+        long key = textHash(text);
+        float[] cached = cache.get(key);
+        if (cached != null) {
+            System.arraycopy(cached, 0, out, offset, dimensions);
+            return;
+        }
+
+        Arrays.fill(out, offset, offset + dimensions, 0f);
+        int count = extractFeatures(text);
+        Arrays.sort(features, 0, count);
+
+        int runStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || features[i] != features[runStart]) {
+                long feature = features[runStart];
+                int termFrequency = i - runStart;
+                float weight = (float) ((1.0 + Math.log(termFrequency)) * idf(feature))
+                    * TYPE_WEIGHTS[(int) (feature & 3)];
+                int bucket = (int) Math.floorMod(feature >>> 2, (long) dimensions);
+                out[offset + bucket] += feature < 0 ? -weight : weight;
+                runStart = i;
+            }
+        }
+
+        float magnitude = 0;
+        for (int i = offset; i < offset + dimensions; i++) {
+            magnitude += out[i] * out[i];
+        }
+        if (magnitude > 0) {
+            float inverse = (float) (1.0 / Math.sqrt(magnitude));
+            for (int i = offset; i < offset + dimensions; i++) {
+                out[i] *= inverse;
+            }
+        }
+
+        cache.put(key, Arrays.copyOfRange(out, offset, offset + dimensions));
+    }
+
+    private double idf(long feature) {
+        return Math.log((documentCount + 1.0) / (state.get(dfSlot(feature)) + 1.0)) + 1.0;
+    }
+
+    /**
+     * Hash every feature of the text into {@link #features} without allocating substrings.
+     * Returns the number of features written.
+     */
+    private int extractFeatures(String text) {
+        int count = 0;
+        long previousWord = 0;
+        boolean hasPrevious = false;
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                break;
+            }
+
+            long word = hashChars(text, start, i, 0x9E3779B97F4A7C15L);
+            count = add(count, tag(word, TYPE_WORD));
+            if (hasPrevious) {
+                count = add(count, tag(mix(previousWord * 31 + word), TYPE_BIGRAM));
+            }
+            previousWord = word;
+            hasPrevious = true;
+
+            // Character trigrams over the word padded with boundary markers: "#iron#" -> #ir, iro, ron, on#
+            int padded = i - start + 2;
+            for (int g = 0; g + 3 <= padded; g++) {
+                long h = 0xC2B2AE3D27D4EB4FL;
+                for (int c = g; c < g + 3; c++) {
+                    char ch = (c == 0 || c == padded - 1) ? '#' : Character.toLowerCase(text.charAt(start + c - 1));
+                    h = (h ^ ch) * 0x100000001B3L;
+                }
+                count = add(count, tag(mix(h), TYPE_TRIGRAM));
+            }
+        }
+        return count;
+    }
+
+    private int add(int count, long feature) {
+        if (count == features.length) {
+            features = Arrays.copyOf(features, count * 2);
+        }
+        features[count] = feature;
+        return count + 1;
+    }
+
+    private static long hashChars(String text, int start, int end, long seed) {
+        long h = seed;
+        for (int i = start; i < end; i++) {
+            h = (h ^ Character.toLowerCase(text.charAt(i))) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long tag(long hash, int type) {
+        return (hash & ~3L) | type;
+    }
+
+    private static int dfSlot(long feature) {
+        return (int) (mix(feature) & DF_MASK);
+    }
+
+    private static long textHash(String text) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            h = (h ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h ^ text.length());
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,389 @@
+package com.steve.ai.agent;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Hierarchical Navigable Small World graph over {@link VectorStore} rows.
+ * Nodes are row numbers; vectors stay in the store and are scored through {@link Scorer}.
+ * Deleted rows are tombstoned: they still route searches but never show up in results.
+ * Not thread-safe on its own - the owning VectorStore serializes access.
+ */
+class HnswIndex {
+    interface Scorer {
+        /** Similarity between a stored row and a query vector (higher is closer) */
+        float score(int row, float[] query);
+
+        /** Similarity between two stored rows */
+        float similarity(int rowA, int rowB);
+    }
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private int efSearch;
+    private final double levelMultiplier;
+    private final Scorer scorer;
+    private final SplittableRandom random = new SplittableRandom(0x5EEDL);
+
+    // links[row][level] = {count, neighbour, neighbour, ...}; null for rows not in the graph
+    private int[][][] links = new int[64][][];
+    private final BitSet deleted = new BitSet();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int liveCount;
+
+    // Search scratch, reused across calls
+    private int[] visited = new int[64];
+    private int visitGeneration;
+    private final ScoreHeap candidates = new ScoreHeap(false);
+    private final ScoreHeap results = new ScoreHeap(true);
+    private int[] selectRows;
+    private float[] selectScores;
+    private final int[] pruneRows;
+    private final float[] pruneScores;
+
+    HnswIndex(int m, int efConstruction, int efSearch, Scorer scorer) {
+        this.m = Math.max(2, m);
+        this.maxM0 = this.m * 2;
+        this.efConstruction = Math.max(efConstruction, this.m);
+        this.efSearch = Math.max(1, efSearch);
+        this.levelMultiplier = 1.0 / Math.log(this.m);
+        this.scorer = scorer;
+        this.selectRows = new int[this.efConstruction];
+        this.selectScores = new float[this.efConstruction];
+        this.pruneRows = new int[maxM0 + 1];
+        this.pruneScores = new float[maxM0 + 1];
+    }
+
+    int getEfSearch() {
+        return efSearch;
+    }
+
+    void setEfSearch(int efSearch) {
+        this.efSearch = Math.max(1, efSearch);
+    }
+
+    int size() {
+        return liveCount;
+    }
+
+    /**
+     * Link a row into the graph. The row's vector must already be stored and is passed in as {@code vector}.
+     */
+    void insert(int row, float[] vector) {
+        if (row >= links.length) {
+            links = Arrays.copyOf(links, Math.max(row + 1, links.length * 2));
+        }
+        int level = randomLevel();
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[1 + maxLinks(l)];
+        }
+        links[row] = nodeLinks;
+        deleted.clear(row);
+        liveCount++;
+
+        if (entryPoint == -1) {
+            entryPoint = row;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedyClosest(vector, ep, l);
+        }
+
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            searchLayer(vector, ep, efConstruction, l);
+            int found = drainResults(selectRows, selectScores);
+            int[] own = nodeLinks[l];
+            own[0] = selectNeighbours(selectRows, selectScores, found, own, maxLinks(l));
+            for (int i = 1; i <= own[0]; i++) {
+                addLink(own[i], row, l);
+            }
+            ep = selectRows[0];
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = row;
+        }
+    }
+
+    void delete(int row) {
+        if (row < links.length && links[row] != null && !deleted.get(row)) {
+            deleted.set(row);
+            liveCount--;
+        }
+    }
+
+    /**
+     * Approximate top-k search. Writes rows/scores best-first and returns how many were found.
+     */
+    int search(float[] query, int k, int[] outRows, float[] outScores) {
+        if (entryPoint == -1 || liveCount == 0) {
+            return 0;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            ep = greedyClosest(query, ep, l);
+        }
+        searchLayer(query, ep, Math.max(efSearch, k), 0);
+
+        int found = drainResults(selectRows, selectScores);
+        int kept = 0;
+        for (int i = 0; i < found && kept < k; i++) {
+            if (!deleted.get(selectRows[i])) {
+                outRows[kept] = selectRows[i];
+                outScores[kept] = selectScores[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    private int randomLevel() {
+        double u = 1.0 - random.nextDouble(); // (0, 1]
+        return (int) Math.floor(-Math.log(u) * levelMultiplier);
+    }
+
+    private int greedyClosest(float[] query, int ep, int level) {
+        float best = scorer.score(ep, query);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[ep][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float score = scorer.score(neighbours[i], query);
+                if (score > best) {
+                    best = score;
+                    ep = neighbours[i];
+                    improved = true;
+                }
+            }
+        }
+        return ep;
+    }
+
+    /**
+     * Beam search on one layer; leaves the best {@code ef} nodes in {@link #results}.
+     */
+    private void searchLayer(float[] query, int ep, int ef, int level) {
+        nextVisitGeneration();
+        candidates.clear();
+        results.clear();
+
+        float epScore = scorer.score(ep, query);
+        visited[ep] = visitGeneration;
+        candidates.push(ep, epScore);
+        results.push(ep, epScore);
+
+        while (candidates.size() > 0) {
+            float candidateScore = candidates.peekScore();
+            int candidate = candidates.pop();
+            if (results.size() >= ef && candidateScore < results.peekScore()) {
+                break;
+            }
+
+            int[] neighbours = links[candidate][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (visited[neighbour] == visitGeneration) {
+                    continue;
+                }
+                visited[neighbour] = visitGeneration;
+
+                float score = scorer.score(neighbour, query);
+                if (results.size() < ef || score > results.peekScore()) {
+                    candidates.push(neighbour, score);
+                    results.push(neighbour, score);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Empty the result heap into arrays, best first
+     */
+    private int drainResults(int[] rows, float[] scores) {
+        int count = results.size();
+        if (rows.length < count) {
+            selectRows = rows = new int[count];
+            selectScores = scores = new float[count];
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            scores[i] = results.peekScore();
+            rows[i] = results.pop();
+        }
+        return count;
+    }
+
+    /**
+     * Neighbour selection heuristic from the HNSW paper: prefer candidates that are closer to the
+     * base node than to any already-selected neighbour, then top up with the closest leftovers.
+     * Candidates must be sorted best-first. Returns the number written into out[1..].
+     */
+    private int selectNeighbours(int[] rows, float[] scores, int count, int[] out, int max) {
+        int selected = 0;
+        for (int i = 0; i < count && selected < max; i++) {
+            int candidate = rows[i];
+            boolean diverse = true;
+            for (int j = 1; j <= selected; j++) {
+                if (scorer.similarity(candidate, out[j]) > scores[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                out[++selected] = candidate;
+            }
+        }
+        for (int i = 0; i < count && selected < max; i++) {
+            if (!contains(out, selected, rows[i])) {
+                out[++selected] = rows[i];
+            }
+        }
+        return selected;
+    }
+
+    private void addLink(int node, int newNeighbour, int level) {
+        int[] neighbours = links[node][level];
+        int max = maxLinks(level);
+        if (neighbours[0] < max) {
+            neighbours[++neighbours[0]] = newNeighbour;
+            return;
+        }
+
+        // Full: re-select among existing neighbours plus the new one
+        int count = 0;
+        for (int i = 1; i <= neighbours[0]; i++) {
+            count = insertSorted(pruneRows, pruneScores, count, neighbours[i], scorer.similarity(node, neighbours[i]));
+        }
+        count = insertSorted(pruneRows, pruneScores, count, newNeighbour, scorer.similarity(node, newNeighbour));
+        neighbours[0] = selectNeighbours(pruneRows, pruneScores, count, neighbours, max);
+    }
+
+    private static int insertSorted(int[] rows, float[] scores, int count, int row, float score) {
+        int i = count;
+        while (i > 0 && scores[i - 1] < score) {
+            rows[i] = rows[i - 1];
+            scores[i] = scores[i - 1];
+            i--;
+        }
+        rows[i] = row;
+        scores[i] = score;
+        return count + 1;
+    }
+
+    private static boolean contains(int[] out, int selected, int row) {
+        for (int j = 1; j <= selected; j++) {
+            if (out[j] == row) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void nextVisitGeneration() {
+        if (visited.length < links.length) {
+            visited = new int[links.length];
+            visitGeneration = 0;
+        }
+        if (++visitGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            visitGeneration = 1;
+        }
+    }
+
+    /**
+     * Binary heap of (row, score) pairs; min-heap keeps the worst on top, max-heap the best.
+     */
+    private static final class ScoreHeap {
+        private final boolean min;
+        private int[] rows = new int[32];
+        private float[] scores = new float[32];
+        private int size;
+
+        ScoreHeap(boolean min) {
+            this.min = min;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        float peekScore() {
+            return scores[0];
+        }
+
+        void push(int row, float score) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int index = size++;
+            rows[index] = row;
+            scores[index] = score;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!above(index, parent)) {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        int pop() {
+            int top = rows[0];
+            size--;
+            rows[0] = rows[size];
+            scores[0] = scores[size];
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    break;
+                }
+                int child = left;
+                if (left + 1 < size && above(left + 1, left)) {
+                    child = left + 1;
+                }
+                if (!above(child, index)) {
+                    break;
+                }
+                swap(index, child);
+                index = child;
+            }
+            return top;
+        }
+
+        private boolean above(int a, int b) {
+            return min ? scores[a] < scores[b] : scores[a] > scores[b];
+        }
+
+        private void swap(int a, int b) {
+            int row = rows[a];
+            rows[a] = rows[b];
+            rows[b] = row;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.steve.ai.agent;
+
+/**
+ * Vocabulary-free token count estimate, close enough to budget prompts without calling a tokenizer.
+ * BPE tokenizers average about four characters per token inside words, never merge across whitespace,
+ * and give most punctuation its own token.
+ */
+public class TokenEstimator {
+
+    public static int estimate(CharSequence text) {
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 3) / 4;
+    }
+
+    /**
+     * Cut text down to roughly {@code maxTokens}, on a word boundary where possible
+     */
+    public static String truncate(String text, int maxTokens) {
+        if (estimate(text) <= maxTokens) {
+            return text;
+        }
+        int end = Math.min(text.length(), maxTokens * 4);
+        while (end > 0 && estimate(text.subSequence(0, end)) > maxTokens) {
+            end -= Math.max(1, (end - maxTokens * 2) / 4);
+        }
+        int space = text.lastIndexOf(' ', end);
+        if (space > end / 2) {
+            end = space;
+        }
+        return text.substring(0, Math.max(0, end)) + "...";
+    }
+}
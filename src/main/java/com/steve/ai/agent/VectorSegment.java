@@ -0,0 +1,382 @@
+package com.steve.ai.agent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * On-disk home of a persistent {@link VectorStore}. Every array the store scans is a flat file mapped with
+ * {@link FileChannel#map}, so reopening costs a few mmap calls instead of a load pass, and the OS page cache
+ * holds the data rather than the Java heap. Texts and metadata go to an append-only log and are read back on demand.
+ *
+ * <p>A store directory holds numbered generations plus a {@code CURRENT} file naming the live one.
+ * Compaction writes live rows into the next generation and then flips {@code CURRENT}, so a crash mid-compaction
+ * leaves the old generation intact. Files inside a generation:
+ * <ul>
+ *   <li>{@code rows.idx} - header, then one long per row: the row's offset in meta.log, or {@code ~offset} once deleted</li>
+ *   <li>{@code vectors.f32} - row-major floats (stores that keep floats)</li>
+ *   <li>{@code codes.i8} / {@code scales.f32} - int8 codes and per-row scales (int8 stores)</li>
+ *   <li>{@code idf.i32} - the embedder's document frequencies, so new embeddings stay comparable to stored ones</li>
+ *   <li>{@code meta.log} - {@code [int length][id, text, metadata]} records</li>
+ * </ul>
+ */
+final class VectorSegment implements Closeable {
+    static final String VECTORS_FILE = "vectors.f32";
+    static final String CODES_FILE = "codes.i8";
+    static final String SCALES_FILE = "scales.f32";
+    static final String IDF_FILE = "idf.i32";
+
+    private static final String ROWS_FILE = "rows.idx";
+    private static final String META_FILE = "meta.log";
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final int MAGIC = 0x53564543; // "SVEC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int COUNT_OFFSET = 16;
+
+    /** Background work for persistent stores: compaction and HNSW catch-up after reopen */
+    static final ExecutorService MAINTENANCE = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Steve-VectorStore-Maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path root;
+    private final Path directory;
+    private final int generation;
+    private final Map<String, FileChannel> channels = new HashMap<>();
+    private final FileChannel metaChannel;
+    private ByteBuffer rows;
+    private long metaEnd;
+
+    private VectorSegment(Path root, int generation) throws IOException {
+        this.root = root;
+        this.generation = generation;
+        this.directory = root.resolve(Integer.toString(generation));
+        Files.createDirectories(directory);
+        this.metaChannel = channel(META_FILE);
+        this.metaEnd = metaChannel.size();
+    }
+
+    /**
+     * Open the live generation under {@code root}, creating an empty one if none exists
+     */
+    static VectorSegment open(Path root, int dimensions, VectorStore.Quantization quantization) throws IOException {
+        Path current = root.resolve(CURRENT_FILE);
+        int generation = Files.exists(current) ? Integer.parseInt(Files.readString(current).trim()) : 0;
+        VectorSegment segment = new VectorSegment(root, generation);
+        try {
+            segment.ensureRows(1);
+            segment.initHeader(dimensions, quantization);
+            if (!Files.exists(current)) {
+                segment.publish();
+            }
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            segment.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Start an empty generation after this one, for compaction. Not live until {@link #publish()}.
+     */
+    VectorSegment createNext(int dimensions, VectorStore.Quantization quantization) throws IOException {
+        VectorSegment next = new VectorSegment(root, generation + 1);
+        next.truncate();
+        next.ensureRows(1);
+        next.initHeader(dimensions, quantization);
+        return next;
+    }
+
+    int rowCount() {
+        return rows.getInt(COUNT_OFFSET);
+    }
+
+    void setRowCount(int count) {
+        rows.putInt(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Make sure rows.idx has room for {@code capacity} rows
+     */
+    void ensureRows(int capacity) throws IOException {
+        long bytes = HEADER_BYTES + (long) capacity * Long.BYTES;
+        if (rows == null || rows.capacity() < bytes) {
+            rows = map(ROWS_FILE, bytes);
+        }
+    }
+
+    /** Map {@code count} floats of a data file, growing the file if needed */
+    FloatBuffer floats(String file, int count) throws IOException {
+        return map(file, (long) count * Float.BYTES).asFloatBuffer();
+    }
+
+    /** Map {@code count} ints of a data file, growing the file if needed */
+    IntBuffer ints(String file, int count) throws IOException {
+        return map(file, (long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    /** Map {@code count} bytes of a data file, growing the file if needed */
+    ByteBuffer bytes(String file, int count) throws IOException {
+        return map(file, count);
+    }
+
+    boolean isDeleted(int row) {
+        return rows.getLong(rowOffset(row)) < 0;
+    }
+
+    long recordOffset(int row) {
+        long raw = rows.getLong(rowOffset(row));
+        return raw < 0 ? ~raw : raw;
+    }
+
+    void setRecordOffset(int row, long offset) {
+        rows.putLong(rowOffset(row), offset);
+    }
+
+    void markDeleted(int row) {
+        long raw = rows.getLong(rowOffset(row));
+        if (raw >= 0) {
+            rows.putLong(rowOffset(row), ~raw);
+        }
+    }
+
+    /**
+     * Append an id/text/metadata record to meta.log and return its offset
+     */
+    long appendRecord(String id, String text, Map<String, Object> metadata) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + text.length());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length, patched below
+        out.writeUTF(id);
+        writeLongString(out, text);
+        out.writeShort(metadata == null ? 0 : metadata.size());
+        if (metadata != null) {
+            for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        }
+        out.flush();
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.capacity() - Integer.BYTES);
+        long offset = metaEnd;
+        while (record.hasRemaining()) {
+            metaEnd += metaChannel.write(record, metaEnd);
+        }
+        return offset;
+    }
+
+    /**
+     * Copy one raw record from another segment's log onto the end of this one, returning its new offset
+     */
+    long transferRecord(VectorSegment source, long offset) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        source.readFully(length, offset);
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length.getInt(0));
+        source.readFully(record, offset);
+        record.flip();
+        long newOffset = metaEnd;
+        while (record.hasRemaining()) {
+            metaEnd += metaChannel.write(record, metaEnd);
+        }
+        return newOffset;
+    }
+
+    Record readRecord(long offset) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(length, offset);
+        ByteBuffer body = ByteBuffer.allocate(length.getInt(0));
+        readFully(body, offset + Integer.BYTES);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body.array()));
+        String id = in.readUTF();
+        String text = readLongString(in);
+        int entries = in.readUnsignedShort();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            String key = in.readUTF();
+            metadata.put(key, readValue(in));
+        }
+        return new Record(id, text, metadata);
+    }
+
+    /**
+     * Point CURRENT at this generation
+     */
+    void publish() throws IOException {
+        Path temp = root.resolve(CURRENT_FILE + ".tmp");
+        Files.writeString(temp, Integer.toString(generation));
+        Files.move(temp, root.resolve(CURRENT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Flush mapped pages and the metadata log to disk
+     */
+    void force() throws IOException {
+        for (FileChannel channel : channels.values()) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : channels.values()) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        channels.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Remove this generation's files after it has been superseded. Best effort: on Windows mapped files
+     * can't be deleted until the mappings are collected, so leftovers are retried on the next compaction.
+     */
+    void deleteFiles() {
+        try (var files = Files.list(root)) {
+            for (Path generationDir : (Iterable<Path>) files::iterator) {
+                String name = generationDir.getFileName().toString();
+                if (!name.chars().allMatch(Character::isDigit) || Integer.parseInt(name) > generation) {
+                    continue;
+                }
+                try (var contents = Files.list(generationDir)) {
+                    for (Path file : (Iterable<Path>) contents::iterator) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+                Files.deleteIfExists(generationDir);
+            }
+        } catch (IOException e) {
+            // Still mapped or locked; cleaned up next time
+        }
+    }
+
+    private void initHeader(int dimensions, VectorStore.Quantization quantization) throws IOException {
+        if (rows.getInt(0) == 0) {
+            rows.putInt(0, MAGIC);
+            rows.putInt(4, VERSION);
+            rows.putInt(8, dimensions);
+            rows.putInt(12, quantization.ordinal());
+            rows.putInt(COUNT_OFFSET, 0);
+            return;
+        }
+        if (rows.getInt(0) != MAGIC || rows.getInt(4) != VERSION) {
+            throw new IOException("Not a vector segment (or unsupported version): " + directory);
+        }
+        if (rows.getInt(8) != dimensions || rows.getInt(12) != quantization.ordinal()) {
+            throw new IOException("Segment " + directory + " was written with " + rows.getInt(8) + " dimensions, "
+                + VectorStore.Quantization.values()[rows.getInt(12)] + " quantization");
+        }
+    }
+
+    private void truncate() throws IOException {
+        for (String file : new String[]{ROWS_FILE, VECTORS_FILE, CODES_FILE, SCALES_FILE, IDF_FILE}) {
+            Files.deleteIfExists(directory.resolve(file));
+        }
+        metaChannel.truncate(0);
+        metaEnd = 0;
+    }
+
+    private ByteBuffer map(String file, long bytes) throws IOException {
+        return channel(file).map(FileChannel.MapMode.READ_WRITE, 0, Math.max(bytes, 1)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private FileChannel channel(String file) throws IOException {
+        FileChannel channel = channels.get(file);
+        if (channel == null) {
+            channel = FileChannel.open(directory.resolve(file),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channels.put(file, channel);
+        }
+        return channel;
+    }
+
+    private static int rowOffset(int row) {
+        return HEADER_BYTES + row * Long.BYTES;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (metaChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated record in " + directory.resolve(META_FILE));
+            }
+        }
+    }
+
+    // writeUTF caps at 64 KB; memories can be longer
+    private static void writeLongString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readLongString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Long || value instanceof Integer) {
+            out.writeByte('L');
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte('D');
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte('Z');
+            out.writeBoolean((Boolean) value);
+        } else {
+            out.writeByte('S');
+            writeLongString(out, String.valueOf(value));
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case 'L' -> in.readLong();
+            case 'D' -> in.readDouble();
+            case 'Z' -> in.readBoolean();
+            default -> readLongString(in);
+        };
+    }
+
+    static final class Record {
+        final String id;
+        final String text;
+        final Map<String, Object> metadata;
+
+        Record(String id, String text, Map<String, Object> metadata) {
+            this.id = id;
+            this.text = text;
+            this.metadata = metadata;
+        }
+    }
+}
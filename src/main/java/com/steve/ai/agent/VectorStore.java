@@ -1,82 +1,1042 @@
 package com.steve.ai.agent;
 
+import com.steve.ai.SteveMod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
 import java.util.*;
 
-// TODO: Will be replaced with real vector embeddings later
-// Currently uses deterministic random embeddings based on text hash
-// This is a placeholder implementation - semantic similarity doesn't actually work
-// Future: Integrate with sentence-transformers or OpenAI embeddings API for real semantic search
+/**
+ * Texts are embedded locally by {@link HashingEmbedder}. Embeddings live in one contiguous off-heap FloatBuffer (row i starts at i * dimensions),
+ * and searches keep a bounded min-heap of the best k rows instead of sorting the whole store.
+ * An optional HNSW graph ({@link #enableHnsw}) replaces the linear scan for large stores.
+ * Rows can be stored compressed ({@link Quantization}); queries stay in float and are scored
+ * asymmetrically against the codes, optionally re-ranking the best candidates with the full floats.
+ * Stores created with {@link #open} live in memory-mapped files ({@link VectorSegment}) and survive restarts.
+ */
 public class VectorStore {
-    private final Map<String, EmbeddingEntry> store;
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int PQ_SUBVECTOR_DIMS = 4;
+    private static final int PQ_CENTROIDS = 256;
+    private static final int PQ_TRAINING_ROWS = 1024;
+    private static final int PQ_KMEANS_ITERATIONS = 8;
+    private static final int RERANK_FACTOR = 4;
+    private static final int HNSW_BATCH_ROWS = 256;
+    private static final int COMPACT_MIN_DELETED = 1024;
+    private static final long MAX_BUFFER_BYTES = Integer.MAX_VALUE; // one direct or mapped buffer
+
+    public enum Quantization {
+        /** Full float rows, 4 bytes per dimension */
+        NONE,
+        /** One signed byte per dimension plus a per-row scale (~4x smaller) */
+        INT8,
+        /**
+         * One centroid id per 4-dimension subvector (~16x smaller); floats are kept until the codebooks are
+         * trained, in the background once 1024 rows exist or earlier through {@link VectorStore#trainQuantizer}
+         */
+        PRODUCT
+    }
+
     private final int dimensions;
-    
+    private HashingEmbedder embedder;
+    private final Quantization quantization;
+    private final boolean rerank;
+    private FloatBuffer vectors; // null once rows exist only as codes
+    private ByteBuffer codes;
+    private FloatBuffer scales;
+    private final int subspaces;
+    private float[] codebooks; // [subspace][centroid][PQ_SUBVECTOR_DIMS], flattened
+    private boolean pqTrainingQueued;
+    private float[] lookupTable;
+    private int capacity;
+    private int size;
+    private int deletedCount;
+    private String[] ids;
+    private String[] texts;
+    private Map<String, Object>[] metadata;
+    private final Map<String, Integer> rowsById;
+    private boolean idsIndexed = true; // false after reopen until remove() needs the id -> row map
+    private final BitSet deleted;
+    private VectorSegment segment;
+    private HnswIndex hnsw;
+    private int hnswRows; // rows [0, hnswRows) are linked into the graph
+    private int hnswM;
+    private int hnswEfConstruction;
+
+    // Scratch space reused by every search so queries don't allocate
+    private final float[] queryScratch;
+    private final float[] decodeScratch;
+    private int[] heapRows;
+    private float[] heapScores;
+
     public VectorStore(int dimensions) {
+        this(dimensions, DEFAULT_CAPACITY);
+    }
+
+    public VectorStore(int dimensions, int initialCapacity) {
+        this(dimensions, initialCapacity, Quantization.NONE, false);
+    }
+
+    /**
+     * @param quantization how rows are stored
+     * @param rerank       keep full floats alongside the codes and re-score the best candidates with them
+     *                     (better ranking, but no memory saving over {@link Quantization#NONE})
+     */
+    public VectorStore(int dimensions, int initialCapacity, Quantization quantization, boolean rerank) {
+        this(dimensions, initialCapacity, quantization, rerank, null);
+    }
+
+    private VectorStore(int dimensions, int initialCapacity, Quantization quantization, boolean rerank, VectorSegment segment) {
+        if (quantization == Quantization.PRODUCT && dimensions % PQ_SUBVECTOR_DIMS != 0) {
+            throw new IllegalArgumentException("Product quantization needs dimensions divisible by " + PQ_SUBVECTOR_DIMS);
+        }
         this.dimensions = dimensions;
-        this.store = new HashMap<>();
+        this.segment = segment;
+        this.quantization = quantization;
+        this.rerank = rerank && quantization != Quantization.NONE;
+        this.subspaces = dimensions / PQ_SUBVECTOR_DIMS;
+        this.rowsById = new HashMap<>();
+        this.deleted = new BitSet();
+        this.queryScratch = new float[dimensions];
+        this.decodeScratch = new float[dimensions];
+        this.heapRows = new int[16];
+        this.heapScores = new float[16];
+        allocate(Math.max(1, initialCapacity));
+        this.embedder = segment == null ? new HashingEmbedder(dimensions) : new HashingEmbedder(dimensions, mapEmbedderState(segment));
+    }
+
+    /**
+     * Open (or create) a persistent store in {@code directory}. Rows are used straight from the mapped files,
+     * so this returns without a load pass however large the store is. Product quantization is in-memory only,
+     * since its codebooks are trained per session.
+     */
+    public static VectorStore open(Path directory, int dimensions, Quantization quantization) throws IOException {
+        if (quantization == Quantization.PRODUCT) {
+            throw new IllegalArgumentException("Persistent stores support NONE and INT8 rows");
+        }
+        VectorSegment segment = VectorSegment.open(directory, dimensions, quantization);
+        try {
+            int rows = segment.rowCount();
+            VectorStore store = new VectorStore(dimensions, Math.max(DEFAULT_CAPACITY, rows), quantization, false, segment);
+            store.size = rows;
+            store.idsIndexed = rows == 0;
+            for (int row = 0; row < rows; row++) {
+                if (segment.isDeleted(row)) {
+                    store.deleted.set(row);
+                    store.deletedCount++;
+                }
+            }
+            return store;
+        } catch (UncheckedIOException e) {
+            segment.close();
+            throw e.getCause();
+        }
+    }
+
+    public boolean isPersistent() {
+        return segment != null;
+    }
+
+    /**
+     * Flush mapped rows and the metadata log to disk
+     */
+    public synchronized void flush() throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flush and release the files of a persistent store. The store must not be used afterwards.
+     */
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment.close();
+            segment = null;
+            hnsw = null;
+        }
     }
-    
-    public void addText(String text, Map<String, Object> metadata) {
+
+    public synchronized void addText(String text, Map<String, Object> metadata) {
+        embedder.observe(text);
+        embedder.embed(text, queryScratch);
+        appendRow(text, queryScratch, 0, metadata);
+    }
+
+    /**
+     * Add many texts in one pass; document frequencies are updated for the whole batch
+     * before anything is embedded, and embeddings are computed into one flat array.
+     */
+    public synchronized void addTexts(List<String> batch, List<Map<String, Object>> batchMetadata) {
+        for (String text : batch) {
+            embedder.observe(text);
+        }
+        float[] embeddings = new float[batch.size() * dimensions];
+        embedder.embedBatch(batch, embeddings);
+
+        ensureCapacity(size + batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            appendRow(batch.get(i), embeddings, i * dimensions, batchMetadata.get(i));
+        }
+    }
+
+    private void appendRow(String text, float[] embeddings, int offset, Map<String, Object> metadata) {
         String id = UUID.randomUUID().toString();
-        float[] embedding = generateEmbedding(text);
-        store.put(id, new EmbeddingEntry(id, text, embedding, metadata));
-    }
-    
-    public List<EmbeddingEntry> similaritySearch(String query, int k) {
-        float[] queryEmbedding = generateEmbedding(query);
-        
-        return store.values().stream()
-            .sorted((a, b) -> Float.compare(
-                cosineSimilarity(b.embedding, queryEmbedding),
-                cosineSimilarity(a.embedding, queryEmbedding)
-            ))
-            .limit(k)
-            .toList();
-    }
-    
-    // TODO: Replace with real embeddings - this is a placeholder using hash-based randomness
-    // Real implementation should use:
-    // - OpenAI embeddings API
-    // - Local sentence-transformers model via JNI
-    // - Pre-computed embedding database
-    private float[] generateEmbedding(String text) {
-        float[] embedding = new float[dimensions];
-        Random random = new Random(text.hashCode()); // Deterministic but not semantic!
+        ensureCapacity(size + 1);
+
+        int row = size;
+        if (segment != null) {
+            try {
+                segment.setRecordOffset(row, segment.appendRecord(id, text, metadata));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        size++;
+        if (vectors != null) {
+            vectors.put(row * dimensions, embeddings, offset, dimensions);
+        }
+        if (quantization == Quantization.INT8) {
+            encodeInt8(row, embeddings, offset);
+        } else if (codebooks != null) {
+            encodeProduct(row, embeddings, offset);
+        }
+        ids[row] = id;
+        texts[row] = text;
+        this.metadata[row] = metadata;
+        rowsById.put(id, row);
+        if (segment != null) {
+            segment.setRowCount(size); // last, so a crash never exposes a half-written row
+        }
+
+        if (hnsw != null && hnswRows == row) {
+            if (embeddings != queryScratch) {
+                System.arraycopy(embeddings, offset, queryScratch, 0, dimensions);
+            }
+            hnsw.insert(row, queryScratch);
+            hnswRows++;
+        }
+
+        if (quantization == Quantization.PRODUCT && codebooks == null && !pqTrainingQueued && size >= PQ_TRAINING_ROWS) {
+            trainInBackground();
+        }
+    }
+
+    /**
+     * Train the product quantizer now from the rows stored so far, instead of waiting for the
+     * background training that starts at {@value #PQ_TRAINING_ROWS} rows. No-op for other
+     * quantizations, an empty store, or once the codebooks exist.
+     */
+    public synchronized void trainQuantizer() {
+        if (quantization == Quantization.PRODUCT && codebooks == null && size > 0) {
+            int trainingRows = Math.min(size, PQ_TRAINING_ROWS);
+            installCodebooks(trainCodebooks(sampleTrainingRows(trainingRows), trainingRows));
+        }
+    }
+
+    /**
+     * k-means runs on the maintenance thread over a copy of the sampled rows, so the insert that
+     * crosses the threshold doesn't stall; rows keep arriving as floats and searches stay exact until
+     * the codebooks are installed.
+     */
+    private void trainInBackground() {
+        pqTrainingQueued = true;
+        int trainingRows = PQ_TRAINING_ROWS;
+        float[] sample = sampleTrainingRows(trainingRows);
+        VectorSegment.MAINTENANCE.execute(() -> {
+            float[] trained = trainCodebooks(sample, trainingRows);
+            synchronized (this) {
+                if (codebooks == null) {
+                    installCodebooks(trained);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove an entry by id. The row is tombstoned and skipped by searches.
+     */
+    public synchronized boolean remove(String id) {
+        indexIds();
+        Integer row = rowsById.remove(id);
+        if (row == null) {
+            return false;
+        }
+        deleted.set(row);
+        deletedCount++;
+        texts[row] = null;
+        metadata[row] = null;
+        if (hnsw != null && row < hnswRows) {
+            hnsw.delete(row);
+        }
+        if (segment != null) {
+            segment.markDeleted(row);
+            if (deletedCount >= COMPACT_MIN_DELETED && deletedCount > liveCount()) {
+                compactInBackground();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rewrite a persistent store's live rows into a fresh generation on the maintenance thread,
+     * dropping deleted rows and their log records. Searches wait while the rows are copied.
+     */
+    public void compactInBackground() {
+        VectorSegment.MAINTENANCE.execute(() -> {
+            try {
+                compact();
+            } catch (IOException | UncheckedIOException e) {
+                SteveMod.LOGGER.warn("Vector store compaction failed; keeping the current segment", e);
+            }
+        });
+    }
+
+    private synchronized void compact() throws IOException {
+        if (segment == null || deletedCount == 0) {
+            return;
+        }
+        int newCapacity = Math.max(DEFAULT_CAPACITY, liveCount());
+        String[] nextIds = new String[newCapacity];
+        String[] nextTexts = new String[newCapacity];
+        @SuppressWarnings("unchecked")
+        Map<String, Object>[] nextMetadata = new Map[newCapacity];
+        int live = 0;
+
+        VectorSegment next = segment.createNext(dimensions, quantization);
+        try {
+            next.ensureRows(newCapacity);
+            next.ints(VectorSegment.IDF_FILE, HashingEmbedder.STATE_INTS)
+                .put(0, segment.ints(VectorSegment.IDF_FILE, HashingEmbedder.STATE_INTS), 0, HashingEmbedder.STATE_INTS);
+            FloatBuffer nextVectors = vectors == null ? null : next.floats(VectorSegment.VECTORS_FILE, newCapacity * dimensions);
+            ByteBuffer nextCodes = null;
+            FloatBuffer nextScales = null;
+            if (quantization == Quantization.INT8) {
+                nextCodes = next.bytes(VectorSegment.CODES_FILE, newCapacity * dimensions);
+                nextScales = next.floats(VectorSegment.SCALES_FILE, newCapacity);
+            }
+
+            for (int row = 0; row < size; row++) {
+                if (deleted.get(row)) {
+                    continue;
+                }
+                next.setRecordOffset(live, next.transferRecord(segment, segment.recordOffset(row)));
+                if (nextVectors != null) {
+                    nextVectors.put(live * dimensions, vectors, row * dimensions, dimensions);
+                }
+                if (nextCodes != null) {
+                    nextCodes.put(live * dimensions, codes, row * dimensions, dimensions);
+                    nextScales.put(live, scales.get(row));
+                }
+                nextIds[live] = ids[row];
+                nextTexts[live] = texts[row];
+                nextMetadata[live] = metadata[row];
+                live++;
+            }
+            next.setRowCount(live);
+            next.force();
+            next.publish();
+        } catch (IOException | RuntimeException e) {
+            next.close();
+            throw e;
+        }
+
+        VectorSegment previous = segment;
+        int removed = deletedCount;
+        segment = next;
+        size = live;
+        deleted.clear();
+        deletedCount = 0;
+        ids = nextIds;
+        texts = nextTexts;
+        metadata = nextMetadata;
+        capacity = newCapacity;
+        mapSegment(newCapacity);
+        embedder = new HashingEmbedder(dimensions, mapEmbedderState(next));
+        rowsById.clear();
+        idsIndexed = false;
+        if (hnsw != null) {
+            enableHnsw(hnswM, hnswEfConstruction, hnsw.getEfSearch()); // row numbers changed
+        }
+
+        previous.close();
+        previous.deleteFiles();
+        SteveMod.LOGGER.info("Compacted vector store: dropped {} deleted rows, {} remain", removed, live);
+    }
+
+    /**
+     * Switch searches to an HNSW graph built over the current entries in the background; until it is
+     * complete, searches stay exact.
+     *
+     * @param m              links per node on upper layers (layer 0 gets 2 * m)
+     * @param efConstruction beam width while inserting; higher builds a better graph more slowly
+     * @param efSearch       beam width while querying; higher trades latency for recall
+     */
+    public synchronized void enableHnsw(int m, int efConstruction, int efSearch) {
+        hnswM = m;
+        hnswEfConstruction = efConstruction;
+        hnswRows = 0;
+        hnsw = new HnswIndex(m, efConstruction, efSearch, new HnswIndex.Scorer() {
+            @Override
+            public float score(int row, float[] query) {
+                return VectorStore.this.score(row, query);
+            }
+
+            @Override
+            public float similarity(int rowA, int rowB) {
+                if (quantization == Quantization.NONE) {
+                    return dotRows(rowA, rowB);
+                }
+                decodeRow(rowA, decodeScratch);
+                return VectorStore.this.score(rowB, decodeScratch);
+            }
+        });
+
+        // Always built on the maintenance thread, since this can run on the server thread when a
+        // Steve's memory is first opened; searches scan linearly until the graph has every row
+        if (size > 0) {
+            HnswIndex index = hnsw;
+            VectorSegment.MAINTENANCE.execute(() -> {
+                while (indexNextBatch(index)) {
+                    Thread.yield();
+                }
+            });
+        }
+    }
+
+    private synchronized boolean indexNextBatch(HnswIndex index) {
+        if (hnsw != index) {
+            return false; // replaced or disabled meanwhile
+        }
+        indexPendingRows(index, HNSW_BATCH_ROWS);
+        return hnswRows < size;
+    }
+
+    private void indexPendingRows(HnswIndex index, int maxRows) {
+        float[] vector = new float[dimensions];
+        int end = Math.min(size, hnswRows + maxRows);
+        for (; hnswRows < end; hnswRows++) {
+            decodeRow(hnswRows, vector);
+            index.insert(hnswRows, vector);
+            if (deleted.get(hnswRows)) {
+                index.delete(hnswRows);
+            }
+        }
+    }
+
+    private boolean hnswReady() {
+        return hnsw != null && hnswRows == size;
+    }
+
+    public synchronized void disableHnsw() {
+        hnsw = null;
+    }
+
+    public synchronized boolean isHnswEnabled() {
+        return hnsw != null;
+    }
+
+    public synchronized void setEfSearch(int efSearch) {
+        if (hnsw != null) {
+            hnsw.setEfSearch(efSearch);
+        }
+    }
+
+    /**
+     * Fraction of exact top-k neighbours the HNSW graph returns for the given queries (1.0 = perfect).
+     * Returns 1.0 when HNSW is disabled or still being built, since searches are exact.
+     */
+    public synchronized double measureRecall(List<String> queries, int k) {
+        if (!hnswReady() || queries.isEmpty()) {
+            return 1.0;
+        }
+        int limit = Math.min(k, liveCount());
+        if (limit <= 0) {
+            return 1.0;
+        }
+
+        int[] approximate = new int[limit];
+        float[] approximateScores = new float[limit];
+        int hits = 0;
+        int expected = 0;
+        for (String query : queries) {
+            embedder.embed(query, queryScratch);
+            int approxFound = hnsw.search(queryScratch, limit, approximate, approximateScores);
+            int exactFound = topK(queryScratch, limit);
+            for (int i = 0; i < exactFound; i++) {
+                for (int j = 0; j < approxFound; j++) {
+                    if (approximate[j] == heapRows[i]) {
+                        hits++;
+                        break;
+                    }
+                }
+            }
+            expected += exactFound;
+        }
+        return expected == 0 ? 1.0 : (double) hits / expected;
+    }
+
+    public synchronized List<EmbeddingEntry> similaritySearch(String query, int k) {
+        int limit = Math.min(k, liveCount());
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        embedder.embed(query, queryScratch);
+        boolean rescore = rerank && isCompressed();
+        int candidates = rescore ? Math.min(limit * RERANK_FACTOR, liveCount()) : limit;
+        int found;
+        if (hnswReady()) {
+            ensureHeapCapacity(candidates);
+            found = hnsw.search(queryScratch, candidates, heapRows, heapScores);
+        } else {
+            found = topK(queryScratch, candidates);
+            sortHeapDescending(found);
+        }
+        if (rescore) {
+            found = rerankExact(queryScratch, found, limit);
+        }
+
+        EmbeddingEntry[] results = new EmbeddingEntry[found];
+        for (int i = 0; i < found; i++) {
+            results[i] = toEntry(heapRows[i]);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * The most recently added live entries, oldest first
+     */
+    public synchronized List<EmbeddingEntry> latest(int count) {
+        LinkedList<EmbeddingEntry> entries = new LinkedList<>();
+        for (int row = size - 1; row >= 0 && entries.size() < count; row--) {
+            if (!deleted.get(row)) {
+                entries.addFirst(toEntry(row));
+            }
+        }
+        return entries;
+    }
+
+    public synchronized int size() {
+        return liveCount();
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public Quantization getQuantization() {
+        return quantization;
+    }
+
+    /**
+     * Bytes currently held for stored rows (floats, codes, scales and codebooks), excluding texts and metadata
+     */
+    public synchronized long getVectorMemoryBytes() {
+        long bytes = 0;
+        if (vectors != null) {
+            bytes += (long) size * dimensions * Float.BYTES;
+        }
+        if (quantization == Quantization.INT8) {
+            bytes += (long) size * (dimensions + Float.BYTES);
+        } else if (codebooks != null) {
+            bytes += (long) size * subspaces + (long) codebooks.length * Float.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Scan every row, keeping the k best scores in heapRows/heapScores. Returns how many were kept.
+     */
+    private int topK(float[] query, int k) {
+        ensureHeapCapacity(k);
+        boolean useLookupTable = codebooks != null;
+        if (useLookupTable) {
+            buildLookupTable(query);
+        }
+
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (deleted.get(row)) {
+                continue;
+            }
+            float score = useLookupTable ? lookupScore(row) : score(row, query);
+            if (count < k) {
+                heapRows[count] = row;
+                heapScores[count] = score;
+                siftUp(count++);
+            } else if (score > heapScores[0]) {
+                heapRows[0] = row;
+                heapScores[0] = score;
+                siftDown(0, count);
+            }
+        }
+        return count;
+    }
+
+    private int liveCount() {
+        return size - deletedCount;
+    }
+
+    private void ensureHeapCapacity(int k) {
+        if (heapRows.length < k) {
+            heapRows = new int[k];
+            heapScores = new float[k];
+        }
+    }
+
+    /**
+     * Re-score the first {@code found} candidates with full floats and keep the best {@code limit}, best first
+     */
+    private int rerankExact(float[] query, int found, int limit) {
+        for (int i = 0; i < found; i++) {
+            heapScores[i] = dot(heapRows[i], query);
+        }
+        for (int i = 1; i < found; i++) {
+            int j = i;
+            while (j > 0 && heapScores[j - 1] < heapScores[j]) {
+                swap(j - 1, j);
+                j--;
+            }
+        }
+        return Math.min(found, limit);
+    }
+
+    private boolean keepsFloats() {
+        return quantization == Quantization.NONE || rerank || (quantization == Quantization.PRODUCT && codebooks == null);
+    }
+
+    private boolean isCompressed() {
+        return quantization == Quantization.INT8 || codebooks != null;
+    }
+
+    /**
+     * Similarity of a stored row to a float query, using whatever representation the row has
+     */
+    private float score(int row, float[] query) {
+        if (quantization == Quantization.INT8) {
+            return int8Dot(row, query);
+        }
+        if (codebooks != null) {
+            return productDot(row, query);
+        }
+        return dot(row, query);
+    }
+
+    private void decodeRow(int row, float[] out) {
+        if (vectors != null) {
+            vectors.get(row * dimensions, out);
+        } else if (quantization == Quantization.INT8) {
+            int base = row * dimensions;
+            float scale = scales.get(row);
+            for (int i = 0; i < dimensions; i++) {
+                out[i] = codes.get(base + i) * scale;
+            }
+        } else {
+            int base = row * subspaces;
+            for (int s = 0; s < subspaces; s++) {
+                int centroid = codes.get(base + s) & 0xFF;
+                System.arraycopy(codebooks, centroidOffset(s, centroid), out, s * PQ_SUBVECTOR_DIMS, PQ_SUBVECTOR_DIMS);
+            }
+        }
+    }
 
+    private void encodeInt8(int row, float[] source, int offset) {
+        float maxAbs = 0;
         for (int i = 0; i < dimensions; i++) {
-            embedding[i] = random.nextFloat();
+            maxAbs = Math.max(maxAbs, Math.abs(source[offset + i]));
         }
+        float scale = maxAbs / 127f;
+        float inverse = maxAbs == 0 ? 0 : 127f / maxAbs;
+        int base = row * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            codes.put(base + i, (byte) Math.round(source[offset + i] * inverse));
+        }
+        scales.put(row, scale);
+    }
 
-        return normalize(embedding);
+    private float int8Dot(int row, float[] query) {
+        int base = row * dimensions;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < dimensions; i += 4) {
+            s0 += codes.get(base + i) * query[i];
+            s1 += codes.get(base + i + 1) * query[i + 1];
+            s2 += codes.get(base + i + 2) * query[i + 2];
+            s3 += codes.get(base + i + 3) * query[i + 3];
+        }
+        for (; i < dimensions; i++) {
+            s0 += codes.get(base + i) * query[i];
+        }
+        return ((s0 + s1) + (s2 + s3)) * scales.get(row);
     }
-    
-    private float[] normalize(float[] vector) {
-        float magnitude = 0;
-        for (float v : vector) {
-            magnitude += v * v;
+
+    /**
+     * {@code trainingRows} rows spread evenly over the store, copied out of the row buffer
+     */
+    private float[] sampleTrainingRows(int trainingRows) {
+        int stride = Math.max(1, size / trainingRows);
+        float[] sample = new float[trainingRows * dimensions];
+        for (int p = 0; p < trainingRows; p++) {
+            vectors.get(p * stride * dimensions, sample, p * dimensions, dimensions);
         }
-        magnitude = (float) Math.sqrt(magnitude);
-        
-        float[] normalized = new float[vector.length];
-        for (int i = 0; i < vector.length; i++) {
-            normalized[i] = vector[i] / magnitude;
+        return sample;
+    }
+
+    /**
+     * Learn one 256-centroid codebook per subvector with k-means over the sampled rows.
+     * Touches no store state, so it can run without the lock.
+     */
+    private float[] trainCodebooks(float[] sample, int trainingRows) {
+        float[] points = new float[trainingRows * PQ_SUBVECTOR_DIMS];
+        int[] assignment = new int[trainingRows];
+        float[] sums = new float[PQ_CENTROIDS * PQ_SUBVECTOR_DIMS];
+        int[] counts = new int[PQ_CENTROIDS];
+        float[] trained = new float[subspaces * PQ_CENTROIDS * PQ_SUBVECTOR_DIMS];
+
+        for (int s = 0; s < subspaces; s++) {
+            for (int p = 0; p < trainingRows; p++) {
+                System.arraycopy(sample, p * dimensions + s * PQ_SUBVECTOR_DIMS, points, p * PQ_SUBVECTOR_DIMS, PQ_SUBVECTOR_DIMS);
+            }
+            // Seed centroids with evenly spaced training points
+            int base = centroidOffset(s, 0);
+            for (int c = 0; c < PQ_CENTROIDS; c++) {
+                int p = (int) ((long) c * trainingRows / PQ_CENTROIDS);
+                System.arraycopy(points, p * PQ_SUBVECTOR_DIMS, trained, base + c * PQ_SUBVECTOR_DIMS, PQ_SUBVECTOR_DIMS);
+            }
+
+            for (int iteration = 0; iteration < PQ_KMEANS_ITERATIONS; iteration++) {
+                Arrays.fill(sums, 0f);
+                Arrays.fill(counts, 0);
+                for (int p = 0; p < trainingRows; p++) {
+                    int c = nearestCentroid(trained, base, points, p * PQ_SUBVECTOR_DIMS);
+                    assignment[p] = c;
+                    counts[c]++;
+                    for (int d = 0; d < PQ_SUBVECTOR_DIMS; d++) {
+                        sums[c * PQ_SUBVECTOR_DIMS + d] += points[p * PQ_SUBVECTOR_DIMS + d];
+                    }
+                }
+                for (int c = 0; c < PQ_CENTROIDS; c++) {
+                    if (counts[c] == 0) {
+                        continue; // Empty cluster keeps its old centroid
+                    }
+                    for (int d = 0; d < PQ_SUBVECTOR_DIMS; d++) {
+                        trained[base + c * PQ_SUBVECTOR_DIMS + d] = sums[c * PQ_SUBVECTOR_DIMS + d] / counts[c];
+                    }
+                }
+            }
         }
-        return normalized;
+        return trained;
     }
-    
-    private float cosineSimilarity(float[] a, float[] b) {
-        float dotProduct = 0;
-        for (int i = 0; i < a.length; i++) {
-            dotProduct += a[i] * b[i];
+
+    /**
+     * Encode every row with the trained codebooks; floats are released afterwards unless re-ranking needs them
+     */
+    private void installCodebooks(float[] trained) {
+        float[] row = new float[dimensions];
+        codebooks = trained;
+        lookupTable = new float[subspaces * PQ_CENTROIDS];
+        codes = ByteBuffer.allocateDirect(bufferBytes((long) capacity * subspaces));
+        for (int r = 0; r < size; r++) {
+            vectors.get(r * dimensions, row);
+            encodeProduct(r, row, 0);
+        }
+        if (!rerank) {
+            vectors = null;
         }
-        return dotProduct;
     }
-    
+
+    private void encodeProduct(int row, float[] source, int offset) {
+        int base = row * subspaces;
+        for (int s = 0; s < subspaces; s++) {
+            int centroid = nearestCentroid(codebooks, centroidOffset(s, 0), source, offset + s * PQ_SUBVECTOR_DIMS);
+            codes.put(base + s, (byte) centroid);
+        }
+    }
+
+    private static int nearestCentroid(float[] centroids, int base, float[] point, int offset) {
+        int best = 0;
+        float bestDistance = Float.MAX_VALUE;
+        for (int c = 0; c < PQ_CENTROIDS; c++) {
+            int at = base + c * PQ_SUBVECTOR_DIMS;
+            float distance = 0;
+            for (int d = 0; d < PQ_SUBVECTOR_DIMS; d++) {
+                float diff = centroids[at + d] - point[offset + d];
+                distance += diff * diff;
+            }
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private int centroidOffset(int subspace, int centroid) {
+        return (subspace * PQ_CENTROIDS + centroid) * PQ_SUBVECTOR_DIMS;
+    }
+
+    /**
+     * Asymmetric distance: query subvector dotted with each centroid, computed once per scan
+     */
+    private void buildLookupTable(float[] query) {
+        for (int s = 0; s < subspaces; s++) {
+            int q = s * PQ_SUBVECTOR_DIMS;
+            for (int c = 0; c < PQ_CENTROIDS; c++) {
+                int at = centroidOffset(s, c);
+                float sum = 0;
+                for (int d = 0; d < PQ_SUBVECTOR_DIMS; d++) {
+                    sum += codebooks[at + d] * query[q + d];
+                }
+                lookupTable[s * PQ_CENTROIDS + c] = sum;
+            }
+        }
+    }
+
+    private float lookupScore(int row) {
+        int base = row * subspaces;
+        float sum = 0;
+        for (int s = 0; s < subspaces; s++) {
+            sum += lookupTable[s * PQ_CENTROIDS + (codes.get(base + s) & 0xFF)];
+        }
+        return sum;
+    }
+
+    /**
+     * Per-row variant of the lookup-table score for graph traversal, where the query changes between calls
+     */
+    private float productDot(int row, float[] query) {
+        int base = row * subspaces;
+        float sum = 0;
+        for (int s = 0; s < subspaces; s++) {
+            int at = centroidOffset(s, codes.get(base + s) & 0xFF);
+            int q = s * PQ_SUBVECTOR_DIMS;
+            for (int d = 0; d < PQ_SUBVECTOR_DIMS; d++) {
+                sum += codebooks[at + d] * query[q + d];
+            }
+        }
+        return sum;
+    }
+
+    private float dot(int row, float[] query) {
+        int base = row * dimensions;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < dimensions; i += 4) {
+            s0 += vectors.get(base + i) * query[i];
+            s1 += vectors.get(base + i + 1) * query[i + 1];
+            s2 += vectors.get(base + i + 2) * query[i + 2];
+            s3 += vectors.get(base + i + 3) * query[i + 3];
+        }
+        for (; i < dimensions; i++) {
+            s0 += vectors.get(base + i) * query[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private float dotRows(int rowA, int rowB) {
+        int baseA = rowA * dimensions;
+        int baseB = rowB * dimensions;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += vectors.get(baseA + i) * vectors.get(baseB + i);
+        }
+        return sum;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heapScores[parent] <= heapScores[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int count) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= count) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < count && heapScores[right] < heapScores[left]) {
+                smallest = right;
+            }
+            if (heapScores[index] <= heapScores[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    /**
+     * In-place heap sort of the min-heap, leaving the best match at index 0
+     */
+    private void sortHeapDescending(int count) {
+        for (int end = count - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    private void swap(int a, int b) {
+        int row = heapRows[a];
+        heapRows[a] = heapRows[b];
+        heapRows[b] = row;
+        float score = heapScores[a];
+        heapScores[a] = heapScores[b];
+        heapScores[b] = score;
+    }
+
+    private EmbeddingEntry toEntry(int row) {
+        if (texts[row] == null && segment != null) {
+            loadRecord(row);
+        }
+        float[] embedding = new float[dimensions];
+        decodeRow(row, embedding);
+        return new EmbeddingEntry(ids[row], texts[row], embedding, metadata[row]);
+    }
+
+    /**
+     * Read a reopened row's id, text and metadata from the log
+     */
+    private void loadRecord(int row) {
+        try {
+            VectorSegment.Record record = segment.readRecord(segment.recordOffset(row));
+            ids[row] = record.id;
+            texts[row] = record.text;
+            metadata[row] = record.metadata;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Build the id -> row map for rows that were reopened from disk
+     */
+    private void indexIds() {
+        if (idsIndexed) {
+            return;
+        }
+        for (int row = 0; row < size; row++) {
+            if (!deleted.get(row)) {
+                if (ids[row] == null) {
+                    loadRecord(row);
+                }
+                rowsById.put(ids[row], row);
+            }
+        }
+        idsIndexed = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int newCapacity) {
+        if (newCapacity > maxRows()) {
+            throw new IllegalStateException("VectorStore can't hold " + newCapacity + " rows of " + dimensions
+                + " dimensions: at most " + maxRows() + " fit in one " + MAX_BUFFER_BYTES + "-byte buffer");
+        }
+        if (segment != null) {
+            mapSegment(newCapacity);
+        } else {
+            if (keepsFloats()) {
+                FloatBuffer grown = allocateFloats((long) newCapacity * dimensions);
+                if (vectors != null) {
+                    grown.put(0, vectors, 0, size * dimensions);
+                }
+                vectors = grown;
+            }
+            if (quantization == Quantization.INT8) {
+                ByteBuffer grownCodes = ByteBuffer.allocateDirect(bufferBytes((long) newCapacity * dimensions));
+                FloatBuffer grownScales = allocateFloats(newCapacity);
+                if (codes != null) {
+                    grownCodes.put(0, codes, 0, size * dimensions);
+                    grownScales.put(0, scales, 0, size);
+                }
+                codes = grownCodes;
+                scales = grownScales;
+            } else if (codebooks != null) {
+                ByteBuffer grownCodes = ByteBuffer.allocateDirect(bufferBytes((long) newCapacity * subspaces));
+                grownCodes.put(0, codes, 0, size * subspaces);
+                codes = grownCodes;
+            }
+        }
+        ids = ids == null ? new String[newCapacity] : Arrays.copyOf(ids, newCapacity);
+        texts = texts == null ? new String[newCapacity] : Arrays.copyOf(texts, newCapacity);
+        metadata = metadata == null ? new Map[newCapacity] : Arrays.copyOf(metadata, newCapacity);
+        capacity = newCapacity;
+    }
+
+    /**
+     * Point the row buffers at the segment's files, mapped large enough for {@code rows} rows.
+     * Growing a mapping keeps the file's contents, so nothing is copied.
+     */
+    private void mapSegment(int rows) {
+        try {
+            segment.ensureRows(rows);
+            if (keepsFloats()) {
+                vectors = segment.floats(VectorSegment.VECTORS_FILE, rows * dimensions);
+            }
+            if (quantization == Quantization.INT8) {
+                codes = segment.bytes(VectorSegment.CODES_FILE, rows * dimensions);
+                scales = segment.floats(VectorSegment.SCALES_FILE, rows);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static IntBuffer mapEmbedderState(VectorSegment segment) {
+        try {
+            return segment.ints(VectorSegment.IDF_FILE, HashingEmbedder.STATE_INTS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FloatBuffer allocateFloats(long count) {
+        return ByteBuffer.allocateDirect(bufferBytes(count * Float.BYTES)).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    private static int bufferBytes(long bytes) {
+        if (bytes > MAX_BUFFER_BYTES) {
+            throw new IllegalStateException("VectorStore buffer of " + bytes + " bytes exceeds the " + MAX_BUFFER_BYTES + "-byte limit");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Rows that fit before the widest row buffer (floats, else codes) reaches the buffer size limit
+     */
+    private int maxRows() {
+        long rowBytes = keepsFloats() ? (long) dimensions * Float.BYTES
+            : quantization == Quantization.INT8 ? dimensions : subspaces;
+        return (int) (MAX_BUFFER_BYTES / rowBytes);
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows > capacity) {
+            // Doubling stops at the limit, so only a store that is really full fails
+            allocate(Math.max(rows, (int) Math.min(capacity * 2L, maxRows())));
+        }
+    }
+
     public static class EmbeddingEntry {
         public final String id;
         public final String text;
         public final float[] embedding;
         public final Map<String, Object> metadata;
-        
+
         public EmbeddingEntry(String id, String text, float[] embedding, Map<String, Object> metadata) {
             this.id = id;
             this.text = text;
@@ -5,6 +5,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.steve.ai.SteveMod;
 import com.steve.ai.config.SteveConfig;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.LlmRequestEvent;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -13,6 +15,7 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 
 public class AnthropicClient {
+    private static final SteveMetrics.Provider METRICS = SteveMetrics.ANTHROPIC;
     private static final String ANTHROPIC_API_URL = "https://api.anthropic.com/v1/messages";
     private static final int MAX_RETRIES = 3;
     private static final int INITIAL_RETRY_DELAY_MS = 1000;
@@ -28,6 +31,10 @@ public class AnthropicClient {
     }
 
     public String sendRequest(String systemPrompt, String userPrompt) {
+        return METRICS.instrument(systemPrompt, userPrompt, event -> send(systemPrompt, userPrompt, event));
+    }
+
+    private String send(String systemPrompt, String userPrompt, LlmRequestEvent event) {
         if (apiKey == null || apiKey.isEmpty()) {
             SteveMod.LOGGER.error("Anthropic API key not configured!");
             return null;
@@ -47,6 +54,7 @@ public class AnthropicClient {
         for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
             try {
                 HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                event.status = response.statusCode();
 
                 if (response.statusCode() == 200) {
                     String responseBody = response.body();
@@ -54,7 +62,7 @@ public class AnthropicClient {
                         SteveMod.LOGGER.error("Anthropic API returned empty response");
                         return null;
                     }
-                    return parseResponse(responseBody);
+                    return parseResponse(responseBody, event);
                 }
 
                 if (response.statusCode() == 429 || response.statusCode() >= 500) {
@@ -62,6 +70,7 @@ public class AnthropicClient {
                         int delayMs = INITIAL_RETRY_DELAY_MS * (int) Math.pow(2, attempt);
                         SteveMod.LOGGER.warn("Anthropic API request failed with status {}, retrying in {}ms (attempt {}/{})",
                             response.statusCode(), delayMs, attempt + 1, MAX_RETRIES);
+                        METRICS.retries.inc();
                         Thread.sleep(delayMs);
                         continue;
                     }
@@ -80,6 +89,7 @@ public class AnthropicClient {
                     int delayMs = INITIAL_RETRY_DELAY_MS * (int) Math.pow(2, attempt);
                     SteveMod.LOGGER.warn("Error communicating with Anthropic API, retrying in {}ms (attempt {}/{})",
                         delayMs, attempt + 1, MAX_RETRIES, e);
+                    METRICS.retries.inc();
                     try {
                         Thread.sleep(delayMs);
                     } catch (InterruptedException ie) {
@@ -113,9 +123,14 @@ public class AnthropicClient {
         return body;
     }
 
-    private String parseResponse(String responseBody) {
+    private String parseResponse(String responseBody, LlmRequestEvent event) {
         try {
             JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
+            if (json.has("usage")) {
+                JsonObject usage = json.getAsJsonObject("usage");
+                event.inputTokens = usage.has("input_tokens") ? usage.get("input_tokens").getAsLong() : 0;
+                event.outputTokens = usage.has("output_tokens") ? usage.get("output_tokens").getAsLong() : 0;
+            }
             if (json.has("content") && json.get("content").isJsonArray()) {
                 JsonArray content = json.getAsJsonArray("content");
                 if (!content.isEmpty()) {
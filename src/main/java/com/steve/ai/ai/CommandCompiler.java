@@ -0,0 +1,116 @@
+package com.steve.ai.ai;
+
+import com.steve.ai.action.Task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Turns simple, unambiguous commands ("mine 10 iron", "follow me", "build a tower", "stop") into a plan
+ * without asking the LLM. Only whole-command matches against the names in {@link AIReferenceData}
+ * are accepted; anything else returns null and goes to the LLM.
+ */
+public final class CommandCompiler {
+    private static final int DEFAULT_MINE_QUANTITY = 8;
+    private static final List<String> DEFAULT_BUILD_BLOCKS = List.of("oak_planks", "cobblestone", "glass_pane");
+    private static final List<Integer> DEFAULT_BUILD_DIMENSIONS = List.of(9, 6, 9);
+
+    // Only explicit counts: "all", "some" and "the" have no fixed number, so those commands go to the LLM
+    private static final String QUANTITY = "(?:(\\d{1,4})\\s+)?";
+
+    private static final Pattern POLITENESS = Pattern.compile("^(?:please\\s+|can you\\s+|could you\\s+)|\\s+please$|[.!?]+$");
+    private static final Pattern STOP = Pattern.compile(
+        "(?:stop|halt|cancel|stand still|never ?mind)(?:\\s+(?:it|that|now|everything|what you'?re doing))?");
+    private static final Pattern FOLLOW = Pattern.compile("(?:follow|come with)\\s+(me|[a-z0-9_]{3,16})|come here");
+    private static final Pattern PATHFIND = Pattern.compile(
+        "(?:go|walk|move|come|travel)\\s+to\\s+(-?\\d+)[\\s,]+(-?\\d+)[\\s,]+(-?\\d+)");
+    private static final Pattern MINE = Pattern.compile(
+        "(?:mine|dig(?:\\s+up)?|get|collect|gather)\\s+" + QUANTITY
+            + "(" + alternation(AIReferenceData.ORES.stream().map(ore -> ore.replace("_ore", "")).toList()) + ")"
+            + "(?:s|\\s+ores?)?");
+    private static final Pattern ATTACK = Pattern.compile(
+        "(?:attack|kill|fight|hunt|slay)\\s+" + QUANTITY
+            + "(" + alternation(AIReferenceData.PASSIVE_ENTITIES) + "|" + alternation(AIReferenceData.HOSTILE_ENTITIES)
+            + "|hostile|monster|mob|enem(?:y|ie))s?");
+    private static final Pattern BUILD = Pattern.compile(
+        "(?:build|make|construct)\\s+(?:me\\s+)?(?:(?:a|an|the|another)\\s+)?([a-z_ ]{2,32})");
+
+    private CommandCompiler() {
+    }
+
+    /**
+     * A plan for {@code command} if it's one of the simple forms, or null when the LLM is needed
+     */
+    public static ResponseParser.ParsedResponse compile(String command) {
+        if (command == null) {
+            return null;
+        }
+        String text = POLITENESS.matcher(command.trim().toLowerCase().replaceAll("\\s+", " ")).replaceAll("").trim();
+
+        if (STOP.matcher(text).matches()) {
+            return plan("Stop", List.of());
+        }
+
+        Matcher matcher = FOLLOW.matcher(text);
+        if (matcher.matches()) {
+            String player = matcher.group(1) != null ? matcher.group(1) : "me";
+            return plan("Follow " + player, List.of(task("follow", Map.of("player", player))));
+        }
+
+        matcher = PATHFIND.matcher(text);
+        if (matcher.matches()) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("x", Integer.parseInt(matcher.group(1)));
+            parameters.put("y", Integer.parseInt(matcher.group(2)));
+            parameters.put("z", Integer.parseInt(matcher.group(3)));
+            return plan("Go to " + matcher.group(1) + " " + matcher.group(2) + " " + matcher.group(3),
+                List.of(task("pathfind", parameters)));
+        }
+
+        matcher = MINE.matcher(text);
+        if (matcher.matches()) {
+            String ore = matcher.group(2) + "_ore";
+            int quantity = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : DEFAULT_MINE_QUANTITY;
+            return plan("Mine " + ore, List.of(task("mine", Map.of("block", ore, "quantity", quantity))));
+        }
+
+        matcher = ATTACK.matcher(text);
+        if (matcher.matches()) {
+            String target = matcher.group(2);
+            if (!AIReferenceData.isValidAttackTarget(target)) {
+                target = "hostile";  // monster, mob, enemy
+            }
+            int quantity = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : 1;
+            return plan("Attack " + target, List.of(task("attack", Map.of("target", target, "quantity", quantity))));
+        }
+
+        matcher = BUILD.matcher(text);
+        if (matcher.matches()) {
+            String structure = matcher.group(1).trim().replace(' ', '_');
+            if (!AIReferenceData.isValidStructureName(structure)) {
+                return null;
+            }
+            return plan("Build " + structure, List.of(task("build", Map.of(
+                "structure", structure, "blocks", DEFAULT_BUILD_BLOCKS, "dimensions", DEFAULT_BUILD_DIMENSIONS))));
+        }
+
+        return null;
+    }
+
+    private static ResponseParser.ParsedResponse plan(String plan, List<Task> tasks) {
+        return new ResponseParser.ParsedResponse("Matched a simple command", plan, new ArrayList<>(tasks));
+    }
+
+    private static Task task(String action, Map<String, Object> parameters) {
+        return new Task("t1", action, new HashMap<>(parameters), List.of());
+    }
+
+    private static String alternation(List<String> names) {
+        return names.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+    }
+}
@@ -5,6 +5,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.steve.ai.SteveMod;
 import com.steve.ai.config.SteveConfig;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.LlmRequestEvent;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -19,6 +21,7 @@ import java.time.Duration;
  * Using gemini-2.5-flash with high token limit for thinking mode
  */
 public class GeminiClient {
+    private static final SteveMetrics.Provider METRICS = SteveMetrics.GEMINI;
     private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent";
     
     private final HttpClient client;
@@ -32,6 +35,10 @@ public class GeminiClient {
     }
 
     public String sendRequest(String systemPrompt, String userPrompt) {
+        return METRICS.instrument(systemPrompt, userPrompt, event -> send(systemPrompt, userPrompt, event));
+    }
+
+    private String send(String systemPrompt, String userPrompt, LlmRequestEvent event) {
         if (apiKey == null || apiKey.isEmpty()) {
             SteveMod.LOGGER.error("Gemini API key not configured!");
             return null;
@@ -49,6 +56,7 @@ public class GeminiClient {
 
         try {
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            event.status = response.statusCode();
             
             if (response.statusCode() != 200) {
                 SteveMod.LOGGER.error("Gemini API request failed: {}", response.statusCode());
@@ -62,7 +70,7 @@ public class GeminiClient {
                 return null;
             }
 
-            return parseResponse(responseBody);
+            return parseResponse(responseBody, event);
             
         } catch (Exception e) {
             SteveMod.LOGGER.error("Error communicating with Gemini API", e);
@@ -96,10 +104,16 @@ public class GeminiClient {
         return body;
     }
 
-    private String parseResponse(String responseBody) {
+    private String parseResponse(String responseBody, LlmRequestEvent event) {
         try {
             JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
             
+            if (json.has("usageMetadata")) {
+                JsonObject usage = json.getAsJsonObject("usageMetadata");
+                event.inputTokens = usage.has("promptTokenCount") ? usage.get("promptTokenCount").getAsLong() : 0;
+                event.outputTokens = usage.has("candidatesTokenCount") ? usage.get("candidatesTokenCount").getAsLong() : 0;
+            }
+            
             // Gemini response format: candidates[0].content.parts[0].text
             if (json.has("candidates") && json.getAsJsonArray("candidates").size() > 0) {
                 JsonObject firstCandidate = json.getAsJsonArray("candidates").get(0).getAsJsonObject();
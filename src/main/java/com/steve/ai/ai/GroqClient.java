@@ -5,6 +5,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.steve.ai.SteveMod;
 import com.steve.ai.config.SteveConfig;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.LlmRequestEvent;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -18,6 +20,7 @@ import java.time.Duration;
  * Speed: 0.5-2 seconds (vs Gemini's 10-30s)
  */
 public class GroqClient {
+    private static final SteveMetrics.Provider METRICS = SteveMetrics.GROQ;
     private static final String GROQ_API_URL = "https://api.groq.com/openai/v1/chat/completions";
     
     private final HttpClient client;
@@ -32,6 +35,10 @@ public class GroqClient {
     }
 
     public String sendRequest(String systemPrompt, String userPrompt) {
+        return METRICS.instrument(systemPrompt, userPrompt, event -> send(systemPrompt, userPrompt, event));
+    }
+
+    private String send(String systemPrompt, String userPrompt, LlmRequestEvent event) {
         if (apiKey == null || apiKey.isEmpty()) {
             SteveMod.LOGGER.error("Groq API key is not set in the config.");
             return null;
@@ -66,9 +73,15 @@ public class GroqClient {
 
         try {
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            event.status = response.statusCode();
 
             if (response.statusCode() == 200) {
                 JsonObject jsonResponse = JsonParser.parseString(response.body()).getAsJsonObject();
+                if (jsonResponse.has("usage")) {
+                    JsonObject usage = jsonResponse.getAsJsonObject("usage");
+                    event.inputTokens = usage.has("prompt_tokens") ? usage.get("prompt_tokens").getAsLong() : 0;
+                    event.outputTokens = usage.has("completion_tokens") ? usage.get("completion_tokens").getAsLong() : 0;
+                }
                 return jsonResponse.getAsJsonArray("choices").get(0).getAsJsonObject()
                     .getAsJsonObject("message").get("content").getAsString();
             } else {
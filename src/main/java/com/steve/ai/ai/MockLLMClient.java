@@ -0,0 +1,135 @@
+package com.steve.ai.ai;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.steve.ai.metrics.SteveMetrics;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline stand-in for the LLM providers (provider = "mock"): turns the player command into a fixed,
+ * deterministic plan by keyword, in the same JSON format the prompt asks real models for.
+ * Clauses joined by "then" depend on the previous one, clauses joined by "and" are independent.
+ * Used by the simulation harness; {@code -Dsteve.mockLatencyMs} adds a fixed delay per request.
+ */
+public class MockLLMClient {
+    private static final SteveMetrics.Provider METRICS = SteveMetrics.MOCK;
+    private static final Pattern COMMAND = Pattern.compile("=== PLAYER COMMAND ===\\n\"(.*)\"\\n");
+    private static final Pattern CLAUSES = Pattern.compile("\\s*(?:,|\\band then\\b|\\bthen\\b|\\band\\b)\\s*");
+    private static final Pattern COORDINATES = Pattern.compile("(-?\\d+)[\\s,]+(-?\\d+)[\\s,]+(-?\\d+)");
+
+    private final long latencyMs;
+
+    public MockLLMClient() {
+        this.latencyMs = Long.getLong("steve.mockLatencyMs", 0);
+    }
+
+    public String sendRequest(String systemPrompt, String userPrompt) {
+        return METRICS.instrument(systemPrompt, userPrompt, event -> {
+            event.status = 200;
+            return send(userPrompt);
+        });
+    }
+
+    private String send(String userPrompt) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Matcher matcher = COMMAND.matcher(userPrompt);
+        String command = matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : userPrompt.toLowerCase(Locale.ROOT);
+
+        JsonArray tasks = new JsonArray();
+        String previousId = null;
+        int position = 0;
+        Matcher separators = CLAUSES.matcher(command);
+        while (position <= command.length()) {
+            boolean found = separators.find();
+            int end = found ? separators.start() : command.length();
+            JsonObject task = planClause(command.substring(position, end));
+            if (task != null) {
+                String id = "t" + (tasks.size() + 1);
+                task.addProperty("id", id);
+                JsonArray dependsOn = new JsonArray();
+                if (previousId != null) {
+                    dependsOn.add(previousId);
+                }
+                task.add("dependsOn", dependsOn);
+                tasks.add(task);
+                previousId = found && separators.group().contains("then") ? id : null;
+            }
+            if (!found) {
+                break;
+            }
+            position = separators.end();
+        }
+
+        JsonObject response = new JsonObject();
+        response.addProperty("reasoning", "Mock plan");
+        response.addProperty("plan", tasks.isEmpty() ? "Nothing to do" : command);
+        response.add("tasks", tasks);
+        return response.toString();
+    }
+
+    private static JsonObject planClause(String clause) {
+        JsonObject parameters = new JsonObject();
+        String action;
+        Matcher coordinates = COORDINATES.matcher(clause);
+        if (coordinates.find()) {
+            action = "pathfind";
+            parameters.addProperty("x", Integer.parseInt(coordinates.group(1)));
+            parameters.addProperty("y", Integer.parseInt(coordinates.group(2)));
+            parameters.addProperty("z", Integer.parseInt(coordinates.group(3)));
+        } else if (clause.contains("build") || clause.contains("base") || clause.contains("house")) {
+            action = "build";
+            String structure = "tower";  // procedural, so valid without template files
+            for (String name : AIReferenceData.PROCEDURAL_STRUCTURES) {
+                if (clause.contains(name)) {
+                    structure = name;
+                    break;
+                }
+            }
+            parameters.addProperty("structure", structure);
+            JsonArray blocks = new JsonArray();
+            blocks.add("oak_planks");
+            blocks.add("cobblestone");
+            blocks.add("glass_pane");
+            parameters.add("blocks", blocks);
+            JsonArray dimensions = new JsonArray();
+            dimensions.add(5);
+            dimensions.add(5);
+            dimensions.add(5);
+            parameters.add("dimensions", dimensions);
+        } else if (clause.contains("mine") || clause.contains("dig") || clause.contains("gather")) {
+            action = "mine";
+            String ore = "iron_ore";
+            for (String name : AIReferenceData.ORES) {
+                if (clause.contains(name.replace("_ore", ""))) {
+                    ore = name;
+                    break;
+                }
+            }
+            parameters.addProperty("block", ore);
+            parameters.addProperty("quantity", 8);
+        } else if (clause.contains("attack") || clause.contains("kill") || clause.contains("fight")) {
+            action = "attack";
+            parameters.addProperty("target", "hostile");
+            parameters.addProperty("quantity", 1);
+        } else if (clause.contains("follow")) {
+            action = "follow";
+            parameters.addProperty("player", "me");
+        } else {
+            return null;
+        }
+        JsonObject task = new JsonObject();
+        task.addProperty("action", action);
+        task.add("parameters", parameters);
+        return task;
+    }
+}
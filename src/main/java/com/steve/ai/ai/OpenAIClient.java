@@ -5,6 +5,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.steve.ai.SteveMod;
 import com.steve.ai.config.SteveConfig;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.LlmRequestEvent;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -13,6 +15,7 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 
 public class OpenAIClient {
+    private static final SteveMetrics.Provider METRICS = SteveMetrics.OPENAI;
     private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
     private static final int MAX_RETRIES = 3;
     private static final int INITIAL_RETRY_DELAY_MS = 1000; // 1 second
@@ -28,6 +31,10 @@ public class OpenAIClient {
     }
 
     public String sendRequest(String systemPrompt, String userPrompt) {
+        return METRICS.instrument(systemPrompt, userPrompt, event -> send(systemPrompt, userPrompt, event));
+    }
+
+    private String send(String systemPrompt, String userPrompt, LlmRequestEvent event) {
         if (apiKey == null || apiKey.isEmpty()) {
             SteveMod.LOGGER.error("OpenAI API key not configured!");
             return null;
@@ -47,6 +54,7 @@ public class OpenAIClient {
         for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
             try {
                 HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                event.status = response.statusCode();
 
                 if (response.statusCode() == 200) {
                     String responseBody = response.body();
@@ -54,7 +62,7 @@ public class OpenAIClient {
                         SteveMod.LOGGER.error("OpenAI API returned empty response");
                         return null;
                     }
-                    return parseResponse(responseBody);
+                    return parseResponse(responseBody, event);
                 }
 
                 // Check if error is retryable (rate limit, server error)
@@ -63,6 +71,7 @@ public class OpenAIClient {
                         int delayMs = INITIAL_RETRY_DELAY_MS * (int) Math.pow(2, attempt);
                         SteveMod.LOGGER.warn("OpenAI API request failed with status {}, retrying in {}ms (attempt {}/{})",
                             response.statusCode(), delayMs, attempt + 1, MAX_RETRIES);
+                        METRICS.retries.inc();
                         Thread.sleep(delayMs);
                         continue;
                     }
@@ -82,6 +91,7 @@ public class OpenAIClient {
                     int delayMs = INITIAL_RETRY_DELAY_MS * (int) Math.pow(2, attempt);
                     SteveMod.LOGGER.warn("Error communicating with OpenAI API, retrying in {}ms (attempt {}/{})",
                         delayMs, attempt + 1, MAX_RETRIES, e);
+                    METRICS.retries.inc();
                     try {
                         Thread.sleep(delayMs);
                     } catch (InterruptedException ie) {
@@ -121,10 +131,16 @@ public class OpenAIClient {
         return body;
     }
 
-    private String parseResponse(String responseBody) {
+    private String parseResponse(String responseBody, LlmRequestEvent event) {
         try {
             JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
             
+            if (json.has("usage")) {
+                JsonObject usage = json.getAsJsonObject("usage");
+                event.inputTokens = usage.has("prompt_tokens") ? usage.get("prompt_tokens").getAsLong() : 0;
+                event.outputTokens = usage.has("completion_tokens") ? usage.get("completion_tokens").getAsLong() : 0;
+            }
+            
             if (json.has("choices") && json.getAsJsonArray("choices").size() > 0) {
                 JsonObject firstChoice = json.getAsJsonArray("choices").get(0).getAsJsonObject();
                 if (firstChoice.has("message")) {
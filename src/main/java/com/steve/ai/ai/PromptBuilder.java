@@ -6,6 +6,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.world.item.ItemStack;
 
 public class PromptBuilder {
+    private static final long STATISTICS_WINDOW_TICKS = 20 * 60 * 60;  // One real-time hour of play, not an in-game hour (1000 ticks)
     
     public static String buildSystemPrompt() {
         String templatesList = AIReferenceData.formatList(AIReferenceData.getAvailableStructures());
@@ -14,7 +15,7 @@ public class PromptBuilder {
             You are a Minecraft AI agent. Respond ONLY with valid JSON, no extra text.
 
             FORMAT (strict JSON):
-            {"reasoning": "brief thought", "plan": "action description", "tasks": [{"action": "type", "parameters": {...}}]}
+            {"reasoning": "brief thought", "plan": "action description", "tasks": [{"id": "t1", "action": "type", "parameters": {...}, "dependsOn": []}]}
 
             AVAILABLE ENTITIES:
             - Passive: %s
@@ -46,17 +47,21 @@ public class PromptBuilder {
             4. NO extra pathfind tasks unless explicitly requested.
             5. Keep reasoning under 15 words.
             6. MINING: Use ore IDs from the list above.
+            7. Give every task a short id. List in dependsOn the ids of tasks that must finish first; leave it empty when a task can start right away, so independent tasks are shared between all Steves.
 
             EXAMPLES (copy these formats exactly):
 
             Command: "kill 5 sheep"
-            {"reasoning": "Need sheep cleared", "plan": "Attack sheep", "tasks": [{"action": "attack", "parameters": {"target": "sheep", "quantity": 5}}]}
+            {"reasoning": "Need sheep cleared", "plan": "Attack sheep", "tasks": [{"id": "t1", "action": "attack", "parameters": {"target": "sheep", "quantity": 5}, "dependsOn": []}]}
 
             Command: "mine diamonds"
-            {"reasoning": "Collect diamond ore", "plan": "Mine diamonds", "tasks": [{"action": "mine", "parameters": {"block": "diamond_ore", "quantity": 10}}]}
+            {"reasoning": "Collect diamond ore", "plan": "Mine diamonds", "tasks": [{"id": "t1", "action": "mine", "parameters": {"block": "diamond_ore", "quantity": 10}, "dependsOn": []}]}
 
             Command: "build a house"
-            {"reasoning": "Build a basic house", "plan": "Construct house", "tasks": [{"action": "build", "parameters": {"structure": "house", "blocks": ["oak_planks", "cobblestone", "glass_pane"], "dimensions": [5, 5, 5]}}]}
+            {"reasoning": "Build a basic house", "plan": "Construct house", "tasks": [{"id": "t1", "action": "build", "parameters": {"structure": "house", "blocks": ["oak_planks", "cobblestone", "glass_pane"], "dimensions": [5, 5, 5]}, "dependsOn": []}]}
+
+            Command: "build a base and mine iron"
+            {"reasoning": "Two independent jobs", "plan": "Build house, mine iron", "tasks": [{"id": "t1", "action": "build", "parameters": {"structure": "house", "blocks": ["oak_planks", "cobblestone", "glass_pane"], "dimensions": [5, 5, 5]}, "dependsOn": []}, {"id": "t2", "action": "mine", "parameters": {"block": "iron_ore", "quantity": 8}, "dependsOn": []}]}
 
             CRITICAL: Output ONLY valid JSON. No markdown, no explanations, no line breaks in JSON.
             """.formatted(
@@ -78,6 +83,21 @@ public class PromptBuilder {
         prompt.append("Nearby Entities: ").append(worldKnowledge.getNearbyEntitiesSummary()).append("\n");
         prompt.append("Nearby Blocks: ").append(worldKnowledge.getNearbyBlocksSummary()).append("\n");
         prompt.append("Biome: ").append(worldKnowledge.getBiomeName()).append("\n");
+
+        // Success rates over the last hour of play instead of raw action strings
+        String statistics = steve.getMemory().getActionHistory()
+            .formatStatistics(steve.level().getGameTime() - STATISTICS_WINDOW_TICKS);
+        if (!statistics.isEmpty()) {
+            prompt.append("\n=== YOUR RECENT ACTIONS (last hour of play) ===\n");
+            prompt.append(statistics);
+        }
+
+        // Bounded by the configured context budget, so prompt size stays flat over long sessions
+        String history = steve.getMemory().getConversation().formatContext(command);
+        if (!history.isEmpty()) {
+            prompt.append("\n=== CONVERSATION SO FAR ===\n");
+            prompt.append(history);
+        }
         
         prompt.append("\n=== PLAYER COMMAND ===\n");
         prompt.append("\"").append(command).append("\"\n");
@@ -27,6 +27,7 @@ public class ResponseParser {
             String reasoning = json.has("reasoning") ? json.get("reasoning").getAsString() : "";
             String plan = json.has("plan") ? json.get("plan").getAsString() : "";
             List<Task> tasks = new ArrayList<>();
+            boolean annotated = false;
             
             if (json.has("tasks") && json.get("tasks").isJsonArray()) {
                 JsonArray tasksArray = json.getAsJsonArray("tasks");
@@ -34,7 +35,8 @@ public class ResponseParser {
                 for (JsonElement taskElement : tasksArray) {
                     if (taskElement.isJsonObject()) {
                         JsonObject taskObj = taskElement.getAsJsonObject();
-                        Task task = parseTask(taskObj);
+                        annotated |= taskObj.has("id") || taskObj.has("dependsOn");
+                        Task task = parseTask(taskObj, tasks.size());
                         if (task != null) {
                             tasks.add(task);
                         }
@@ -42,6 +44,11 @@ public class ResponseParser {
                 }
             }
             
+            // A plain list without ids or dependencies means "one after another"
+            if (!annotated) {
+                tasks = chain(tasks);
+            }
+            
             if (!reasoning.isEmpty()) {            }
             
             return new ParsedResponse(reasoning, plan, tasks);
@@ -79,12 +86,27 @@ public class ResponseParser {
         return cleaned;
     }
 
-    private static Task parseTask(JsonObject taskObj) {
+    private static Task parseTask(JsonObject taskObj, int index) {
         if (!taskObj.has("action")) {
             return null;
         }
         
         String action = taskObj.get("action").getAsString();
+        String id = taskObj.has("id") && taskObj.get("id").isJsonPrimitive()
+            ? taskObj.get("id").getAsString() : "t" + (index + 1);
+        List<String> dependsOn = new ArrayList<>();
+        if (taskObj.has("dependsOn")) {
+            JsonElement deps = taskObj.get("dependsOn");
+            if (deps.isJsonArray()) {
+                for (JsonElement dep : deps.getAsJsonArray()) {
+                    if (dep.isJsonPrimitive()) {
+                        dependsOn.add(dep.getAsString());
+                    }
+                }
+            } else if (deps.isJsonPrimitive()) {
+                dependsOn.add(deps.getAsString());
+            }
+        }
         Map<String, Object> parameters = new HashMap<>();
         
         if (taskObj.has("parameters") && taskObj.get("parameters").isJsonObject()) {
@@ -117,7 +139,17 @@ public class ResponseParser {
             }
         }
         
-        return new Task(action, parameters);
+        return new Task(id, action, parameters, dependsOn);
+    }
+
+    private static List<Task> chain(List<Task> tasks) {
+        List<Task> chained = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            chained.add(i == 0 ? task
+                : new Task(task.getId(), task.getAction(), task.getParameters(), List.of(tasks.get(i - 1).getId())));
+        }
+        return chained;
     }
 
     public static class ParsedResponse {
@@ -2,55 +2,128 @@ package com.steve.ai.ai;
 
 import com.steve.ai.SteveMod;
 import com.steve.ai.action.Task;
+import com.steve.ai.action.TaskGraph;
 import com.steve.ai.config.SteveConfig;
 import com.steve.ai.entity.SteveEntity;
 import com.steve.ai.memory.WorldKnowledge;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.PlanParseEvent;
+import com.steve.ai.trace.PlanTrace;
+import com.steve.ai.trace.TraceRecord;
 
 import java.util.List;
 
 public class TaskPlanner {
+    private static volatile String providerOverride;
+
     private final OpenAIClient openAIClient;
     private final GeminiClient geminiClient;
     private final GroqClient groqClient;
     private final AnthropicClient anthropicClient;
+    private final MockLLMClient mockClient;
 
     public TaskPlanner() {
         this.openAIClient = new OpenAIClient();
         this.geminiClient = new GeminiClient();
         this.groqClient = new GroqClient();
         this.anthropicClient = new AnthropicClient();
+        this.mockClient = new MockLLMClient();
+    }
+
+    /**
+     * Provider every planner uses in place of {@code aiProvider}, for this session only; never written
+     * to the config, so a run that dies halfway leaves the server's settings untouched. Null clears it.
+     */
+    public static void overrideProvider(String provider) {
+        providerOverride = provider;
     }
 
     public ResponseParser.ParsedResponse planTasks(SteveEntity steve, String command) {
+        long start = System.nanoTime();
+        long gameTick = steve.level().getGameTime();
+        ResponseParser.ParsedResponse compiled = CommandCompiler.compile(command);
+        if (compiled != null) {
+            SteveMetrics.PLANS_LOCAL.inc();
+            SteveMod.LOGGER.info("Compiled '{}' locally for Steve '{}' ({}% of commands served without the LLM)",
+                command, steve.getSteveName(), Math.round(SteveMetrics.localPlanShare() * 100));
+            PlanTrace.record(TraceRecord.Kind.COMMAND, steve.getSteveName(), gameTick, command, "local", null, 0,
+                System.nanoTime() - start, compiled.getTasks());
+            return compiled;
+        }
+
+        SteveMetrics.PLANS_LLM.inc();
+        return requestPlan(steve, command, start, gameTick, TraceRecord.Kind.COMMAND);
+    }
+
+    /**
+     * Plan from a prompt the mod generated rather than one a player typed (e.g. a contingency for a
+     * running action). Always asks the LLM and is left out of the plan metrics, so those only describe
+     * player commands; traced as generated, so a replay answers it but doesn't re-issue it.
+     */
+    public ResponseParser.ParsedResponse planGenerated(SteveEntity steve, String prompt) {
+        return requestPlan(steve, prompt, System.nanoTime(), steve.level().getGameTime(), TraceRecord.Kind.GENERATED);
+    }
+
+    private ResponseParser.ParsedResponse requestPlan(SteveEntity steve, String command, long start, long gameTick,
+                                                      TraceRecord.Kind kind) {
+        boolean counted = kind == TraceRecord.Kind.COMMAND;
         try {
             String systemPrompt = PromptBuilder.buildSystemPrompt();
             WorldKnowledge worldKnowledge = new WorldKnowledge(steve);
             String userPrompt = PromptBuilder.buildUserPrompt(steve, command, worldKnowledge);
             
-            String provider = SteveConfig.AI_PROVIDER.get().toLowerCase();
-            SteveMod.LOGGER.info("Requesting AI plan for Steve '{}' using {}: {}", steve.getSteveName(), provider, command);
+            String override = providerOverride;
+            String configured = override != null ? override : SteveConfig.AI_PROVIDER.get().toLowerCase();
+            SteveMod.LOGGER.info("Requesting AI plan for Steve '{}' using {}: {}", steve.getSteveName(), configured, command);
             
-            String response = getAIResponse(provider, systemPrompt, userPrompt);
+            long requestStart = System.nanoTime();
+            Answer answer = PlanTrace.isReplaying()
+                ? new Answer(configured, PlanTrace.replayResponse(steve.getSteveName(), command))
+                : getAIResponse(configured, systemPrompt, userPrompt);
+            long llmNanos = System.nanoTime() - requestStart;
+            String provider = answer.provider();  // Groq when the fallback answered
+            String response = answer.text();
             
             if (response == null) {
                 SteveMod.LOGGER.error("Failed to get AI response for command: {}", command);
+                if (counted) {
+                    SteveMetrics.PLAN_FAILURES.inc();
+                }
+                PlanTrace.record(kind, steve.getSteveName(), gameTick, command, provider, null, llmNanos,
+                    System.nanoTime() - start, List.of());
                 return null;
             }
 
+            PlanParseEvent parseEvent = new PlanParseEvent();
+            parseEvent.begin();
             ResponseParser.ParsedResponse parsedResponse = ResponseParser.parseAIResponse(response);
             
             if (parsedResponse == null) {
                 SteveMod.LOGGER.error("Failed to parse AI response");
+                commitParseEvent(parseEvent, steve, response, 0, 0);
+                if (counted) {
+                    SteveMetrics.PLAN_FAILURES.inc();
+                }
+                PlanTrace.record(kind, steve.getSteveName(), gameTick, command, provider, response, llmNanos,
+                    System.nanoTime() - start, List.of());
                 return null;
             }
             
-            List<Task> validatedTasks = validateAndFilterTasks(parsedResponse.getTasks());
+            // Tasks that need a filtered-out task go with it, as they would if it failed while running
+            List<Task> validatedTasks = TaskGraph.order(TaskGraph.withoutDependentsOfRemoved(
+                parsedResponse.getTasks(), validateAndFilterTasks(parsedResponse.getTasks())));
+            commitParseEvent(parseEvent, steve, response, parsedResponse.getTasks().size(), validatedTasks.size());
             if (validatedTasks.size() != parsedResponse.getTasks().size()) {
                 SteveMod.LOGGER.warn("Filtered invalid tasks ({} -> {})",
                     parsedResponse.getTasks().size(), validatedTasks.size());
             }
 
             SteveMod.LOGGER.info("Plan: {} ({} tasks)", parsedResponse.getPlan(), validatedTasks.size());
+            if (counted) {
+                SteveMetrics.provider(provider).planLatency.recordSince(start);
+            }
+            PlanTrace.record(kind, steve.getSteveName(), gameTick, command, provider, response, llmNanos,
+                System.nanoTime() - start, validatedTasks);
 
             return new ResponseParser.ParsedResponse(
                 parsedResponse.getReasoning(),
@@ -60,31 +133,56 @@ public class TaskPlanner {
             
         } catch (Exception e) {
             SteveMod.LOGGER.error("Error planning tasks", e);
+            if (counted) {
+                SteveMetrics.PLAN_FAILURES.inc();
+            }
             return null;
         }
     }
 
-    private String getAIResponse(String provider, String systemPrompt, String userPrompt) {
+    private static void commitParseEvent(PlanParseEvent event, SteveEntity steve, String response, int parsed, int valid) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.steve = steve.getSteveName();
+            event.responseLength = response.length();
+            event.parsedTasks = parsed;
+            event.validTasks = valid;
+            event.commit();
+        }
+    }
+
+    /**
+     * Response text (null on failure) and the provider that produced it
+     */
+    private record Answer(String provider, String text) {
+    }
+
+    private Answer getAIResponse(String provider, String systemPrompt, String userPrompt) {
         String response = switch (provider) {
             case "groq" -> groqClient.sendRequest(systemPrompt, userPrompt);
             case "gemini" -> geminiClient.sendRequest(systemPrompt, userPrompt);
             case "openai" -> openAIClient.sendRequest(systemPrompt, userPrompt);
             case "anthropic" -> anthropicClient.sendRequest(systemPrompt, userPrompt);
+            case "mock" -> mockClient.sendRequest(systemPrompt, userPrompt);
             default -> {
                 SteveMod.LOGGER.warn("Unknown AI provider '{}', using Groq", provider);
+                provider = "groq";
                 yield groqClient.sendRequest(systemPrompt, userPrompt);
             }
         };
         
-        if (response == null && !provider.equals("groq")) {
+        if (response == null && !provider.equals("groq") && !provider.equals("mock")) {
             SteveMod.LOGGER.warn("{} failed, trying Groq as fallback", provider);
-            response = groqClient.sendRequest(systemPrompt, userPrompt);
+            return new Answer("groq", groqClient.sendRequest(systemPrompt, userPrompt));
         }
         
-        return response;
+        return new Answer(provider, response);
     }
 
-    public boolean validateTask(Task task) {
+    /**
+     * Static and config-free, so plans can be checked (and benchmarked) without a provider client
+     */
+    public static boolean validateTask(Task task) {
         String action = task.getAction();
         
         return switch (action) {
@@ -103,13 +201,13 @@ public class TaskPlanner {
         };
     }
 
-    public List<Task> validateAndFilterTasks(List<Task> tasks) {
+    public static List<Task> validateAndFilterTasks(List<Task> tasks) {
         return tasks.stream()
-            .filter(this::validateTask)
+            .filter(TaskPlanner::validateTask)
             .toList();
     }
 
-    private boolean isValidBuildTask(Task task) {
+    private static boolean isValidBuildTask(Task task) {
         if (!task.hasParameters("structure", "blocks", "dimensions")) {
             return false;
         }
@@ -127,7 +225,7 @@ public class TaskPlanner {
         return false;
     }
 
-    private boolean isValidAttackTask(Task task) {
+    private static boolean isValidAttackTask(Task task) {
         if (!task.hasParameters("target")) {
             return false;
         }
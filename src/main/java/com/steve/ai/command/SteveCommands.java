@@ -6,12 +6,21 @@ import com.mojang.brigadier.context.CommandContext;
 import com.steve.ai.SteveMod;
 import com.steve.ai.entity.SteveEntity;
 import com.steve.ai.entity.SteveManager;
+import com.steve.ai.metrics.Histogram;
+import com.steve.ai.metrics.SteveMetrics;
+import com.steve.ai.profiling.Profiler;
+import com.steve.ai.trace.PlanTrace;
+import com.steve.ai.trace.TraceReplayer;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.phys.Vec3;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 public class SteveCommands {
     
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
@@ -24,6 +33,20 @@ public class SteveCommands {
                     .executes(SteveCommands::removeSteve)))
             .then(Commands.literal("list")
                 .executes(SteveCommands::listSteves))
+            .then(Commands.literal("metrics")
+                .executes(SteveCommands::showMetrics))
+            .then(Commands.literal("profile")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("start")
+                    .executes(SteveCommands::startProfile))
+                .then(Commands.literal("stop")
+                    .executes(SteveCommands::stopProfile)))
+            .then(Commands.literal("trace")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("replay")
+                    .executes(SteveCommands::replayTrace))
+                .then(Commands.literal("stop")
+                    .executes(SteveCommands::stopTraceReplay)))
             .then(Commands.literal("stop")
                 .then(Commands.argument("name", StringArgumentType.string())
                     .executes(SteveCommands::stopSteve)))
@@ -92,6 +115,92 @@ public class SteveCommands {
         return 1;
     }
 
+    private static int showMetrics(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        List<String> lines = new ArrayList<>();
+
+        long local = SteveMetrics.PLANS_LOCAL.get();
+        long llm = SteveMetrics.PLANS_LLM.get();
+        lines.add(String.format("Plans: %d local, %d LLM (%.0f%% local), %d failed",
+            local, llm, SteveMetrics.localPlanShare() * 100, SteveMetrics.PLAN_FAILURES.get()));
+
+        for (String name : List.of("groq", "openai", "gemini", "anthropic", "mock")) {
+            SteveMetrics.Provider provider = SteveMetrics.provider(name);
+            long requests = provider.requests.get();
+            if (requests == 0) {
+                continue;
+            }
+            lines.add(String.format("%s: %d requests (%d failed, %d retries), p50 %.0fms, p95 %.0fms, %d/%d tokens in/out",
+                name, requests, provider.failures.get(), provider.retries.get(),
+                provider.latency.quantileSeconds(0.5) * 1000, provider.latency.quantileSeconds(0.95) * 1000,
+                provider.inputTokens.get(), provider.outputTokens.get()));
+        }
+
+        lines.add("Blocks: " + SteveMetrics.BLOCKS_PLACED.get() + " placed, " + SteveMetrics.BLOCKS_MINED.get() + " mined");
+
+        for (String name : SteveMod.getSteveManager().getSteveNames()) {
+            Histogram tickCost = SteveMetrics.tickCost(name);
+            lines.add(String.format("%s tick: p95 %.0fus over %d ticks",
+                name, tickCost.quantileSeconds(0.95) * 1e6, tickCost.getCount()));
+        }
+
+        for (String line : lines) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private static int startProfile(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            if (Profiler.start()) {
+                source.sendSuccess(() -> Component.literal("Flight recording started; /steve profile stop to save it"), true);
+            } else {
+                source.sendFailure(Component.literal("A recording is already running"));
+            }
+        } catch (Exception e) {
+            SteveMod.LOGGER.error("Could not start a flight recording", e);
+            source.sendFailure(Component.literal("Could not start a flight recording: " + e.getMessage()));
+        }
+        return 1;
+    }
+
+    private static int stopProfile(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            Path file = Profiler.stop(source.getServer().getServerDirectory().toPath().resolve("steve-profiles"));
+            if (file != null) {
+                source.sendSuccess(() -> Component.literal("Flight recording saved to " + file), true);
+            } else {
+                source.sendFailure(Component.literal("No recording is running"));
+            }
+        } catch (Exception e) {
+            SteveMod.LOGGER.error("Could not save the flight recording", e);
+            source.sendFailure(Component.literal("Could not save the flight recording: " + e.getMessage()));
+        }
+        return 1;
+    }
+
+    private static int replayTrace(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        if (!PlanTrace.isReplaying()) {
+            source.sendFailure(Component.literal("Set trace.mode = \"replay\" and restart the server to load a trace"));
+            return 0;
+        }
+        if (!TraceReplayer.start(source.getLevel(), source.getPosition())) {
+            source.sendFailure(Component.literal(TraceReplayer.isRunning() ? "A replay is already running" : "The trace has no commands"));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.literal("Replaying " + PlanTrace.getReplayRecords().size() + " traced commands"), true);
+        return 1;
+    }
+
+    private static int stopTraceReplay(CommandContext<CommandSourceStack> context) {
+        TraceReplayer.stop();
+        context.getSource().sendSuccess(() -> Component.literal("Trace replay stopped"), true);
+        return 1;
+    }
+
     private static int stopSteve(CommandContext<CommandSourceStack> context) {
         String name = StringArgumentType.getString(context, "name");
         CommandSourceStack source = context.getSource();
@@ -15,6 +15,12 @@ public class SteveConfig {
     public static final ForgeConfigSpec.IntValue ACTION_TICK_DELAY;
     public static final ForgeConfigSpec.BooleanValue ENABLE_CHAT_RESPONSES;
     public static final ForgeConfigSpec.IntValue MAX_ACTIVE_STEVES;
+    public static final ForgeConfigSpec.IntValue CONTEXT_TOKENS;
+    public static final ForgeConfigSpec.BooleanValue SPECULATIVE_REPLANNING;
+    public static final ForgeConfigSpec.IntValue BUILD_CHECKPOINT_SECONDS;
+    public static final ForgeConfigSpec.IntValue METRICS_PORT;
+    public static final ForgeConfigSpec.ConfigValue<String> TRACE_MODE;
+    public static final ForgeConfigSpec.ConfigValue<String> TRACE_REPLAY_FILE;
 
     static {
         ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
@@ -22,7 +28,7 @@ public class SteveConfig {
         builder.comment("AI API Configuration").push("ai");
         
         AI_PROVIDER = builder
-            .comment("AI provider to use: 'groq' (FASTEST, FREE), 'openai', 'gemini', or 'anthropic'")
+            .comment("AI provider to use: 'groq' (FASTEST, FREE), 'openai', 'gemini', 'anthropic', or 'mock' (offline canned plans, for testing)")
             .define("provider", "groq");
         
         builder.pop();
@@ -66,8 +72,8 @@ public class SteveConfig {
         builder.comment("Steve Behavior Configuration").push("behavior");
         
         ACTION_TICK_DELAY = builder
-            .comment("Ticks between action checks (20 ticks = 1 second)")
-            .defineInRange("actionTickDelay", 20, 1, 100);
+            .comment("Minimum ticks between starting queued tasks (0 = start the next task as soon as nothing running conflicts with it)")
+            .defineInRange("actionTickDelay", 0, 0, 100);
         
         ENABLE_CHAT_RESPONSES = builder
             .comment("Allow Steves to respond in chat")
@@ -76,9 +82,41 @@ public class SteveConfig {
         MAX_ACTIVE_STEVES = builder
             .comment("Maximum number of Steves that can be active simultaneously")
             .defineInRange("maxActiveSteves", 10, 1, 50);
+
+        CONTEXT_TOKENS = builder
+            .comment("Token budget for conversation history sent with each plan request (0 = none)")
+            .defineInRange("contextTokens", 1024, 0, 16384);
+
+        SPECULATIVE_REPLANNING = builder
+            .comment("Plan a fallback in the background while each action runs, used immediately if it fails (one extra AI request per action)")
+            .define("speculativeReplanning", false);
+
+        BUILD_CHECKPOINT_SECONDS = builder
+            .comment("Seconds between checkpoints of unfinished collaborative builds, which resume after a restart")
+            .defineInRange("buildCheckpointSeconds", 5, 1, 300);
         
         builder.pop();
 
+        builder.comment("Diagnostics").push("metrics");
+
+        METRICS_PORT = builder
+            .comment("Serve Prometheus metrics at http://127.0.0.1:PORT/metrics (0 = off)")
+            .defineInRange("port", 0, 0, 65535);
+
+        builder.pop();
+
+        builder.comment("Command/plan tracing").push("trace");
+
+        TRACE_MODE = builder
+            .comment("'off', 'record' (write every planned command and LLM response to steve-traces/), or 'replay' (answer plans from replayFile instead of the AI provider; start with /steve trace replay)")
+            .define("mode", "off");
+
+        TRACE_REPLAY_FILE = builder
+            .comment("Trace to replay, relative to the server directory")
+            .define("replayFile", "steve-traces/replay.strace");
+
+        builder.pop();
+
         SPEC = builder.build();
     }
 }
@@ -1,7 +1,10 @@
 package com.steve.ai.entity;
 
 import com.steve.ai.SteveMod;
+import com.steve.ai.action.TeamCoordinator;
 import com.steve.ai.config.SteveConfig;
+import com.steve.ai.metrics.Metrics;
+import com.steve.ai.metrics.SteveMetrics;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.MobSpawnType;
 import net.minecraft.world.phys.Vec3;
@@ -12,10 +15,14 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SteveManager {
     private final Map<String, SteveEntity> activeSteves;
     private final Map<UUID, SteveEntity> stevesByUUID;
+    private final TeamCoordinator teamCoordinator;
+    private volatile int maxStevesOverride;  // 0 = use the config
 
     public SteveManager() {
         this.activeSteves = new ConcurrentHashMap<>();
         this.stevesByUUID = new ConcurrentHashMap<>();
+        this.teamCoordinator = new TeamCoordinator(this);
+        Metrics.gauge("steve_active", "Steves currently in the world", activeSteves::size);
     }
 
     public SteveEntity spawnSteve(ServerLevel level, Vec3 position, String name) {        SteveMod.LOGGER.info("Current active Steves: {}", activeSteves.size());
@@ -23,7 +30,7 @@ public class SteveManager {
         if (activeSteves.containsKey(name)) {
             SteveMod.LOGGER.warn("Steve name '{}' already exists", name);
             return null;
-        }        int maxSteves = SteveConfig.MAX_ACTIVE_STEVES.get();        if (activeSteves.size() >= maxSteves) {
+        }        int maxSteves = maxStevesOverride > 0 ? maxStevesOverride : SteveConfig.MAX_ACTIVE_STEVES.get();        if (activeSteves.size() >= maxSteves) {
             SteveMod.LOGGER.warn("Max Steve limit reached: {}", maxSteves);
             return null;
         }        SteveEntity steve;
@@ -76,7 +83,9 @@ public class SteveManager {
             steve.discard();
         }
         activeSteves.clear();
-        stevesByUUID.clear();    }
+        stevesByUUID.clear();
+        teamCoordinator.clear();
+    }
 
     public Collection<SteveEntity> getAllSteves() {
         return Collections.unmodifiableCollection(activeSteves.values());
@@ -86,23 +95,47 @@ public class SteveManager {
         return new ArrayList<>(activeSteves.keySet());
     }
 
+    public TeamCoordinator getTeamCoordinator() {
+        return teamCoordinator;
+    }
+
     public int getActiveCount() {
         return activeSteves.size();
     }
 
+    /**
+     * Spawn limit for this session only, in place of {@code maxActiveSteves}; never written to the config.
+     * 0 goes back to the configured limit.
+     */
+    public void overrideMaxSteves(int maxSteves) {
+        maxStevesOverride = maxSteves;
+    }
+
+    /**
+     * Dead or discarded for good. Not isRemoved() or isAlive(): both also count a Steve whose chunk was
+     * just unloaded, and it comes back with the chunk.
+     */
+    public static boolean isGone(SteveEntity steve) {
+        return steve.isDeadOrDying() || (steve.getRemovalReason() != null && steve.getRemovalReason().shouldDestroy());
+    }
+
     public void tick(ServerLevel level) {
+        long start = System.nanoTime();
         // Clean up dead or removed Steves
         Iterator<Map.Entry<String, SteveEntity>> iterator = activeSteves.entrySet().iterator();
         while (iterator.hasNext()) {
             Map.Entry<String, SteveEntity> entry = iterator.next();
             SteveEntity steve = entry.getValue();
             
-            if (!steve.isAlive() || steve.isRemoved()) {
+            if (isGone(steve)) {
                 iterator.remove();
                 stevesByUUID.remove(steve.getUUID());
                 SteveMod.LOGGER.info("Cleaned up Steve: {}", entry.getKey());
             }
         }
+
+        teamCoordinator.tick();
+        SteveMetrics.MANAGER_TICK.recordSince(start);
     }
 }
 
@@ -1,13 +1,23 @@
 package com.steve.ai.event;
 
 import com.steve.ai.SteveMod;
+import com.steve.ai.action.CollaborativeBuildManager;
+import com.steve.ai.config.SteveConfig;
 import com.steve.ai.entity.SteveEntity;
 import com.steve.ai.entity.SteveManager;
+import com.steve.ai.memory.AgentMemoryStore;
 import com.steve.ai.memory.StructureRegistry;
+import com.steve.ai.metrics.MetricsExporter;
+import com.steve.ai.trace.PlanTrace;
+import com.steve.ai.trace.TraceReplayer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
@@ -15,6 +25,41 @@ import net.minecraftforge.fml.common.Mod;
 public class ServerEventHandler {
     private static boolean stevesSpawned = false;
 
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        // Built structures are kept per world so spacing survives restarts
+        StructureRegistry.bind(event.getServer().overworld());
+        CollaborativeBuildManager.bind(event.getServer().overworld());
+        AgentMemoryStore.bind(event.getServer());
+        MetricsExporter.start(SteveConfig.METRICS_PORT.get());
+        PlanTrace.bind(event.getServer());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        // Before the world's final save, which has to write the builds' latest state
+        CollaborativeBuildManager.flush();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        StructureRegistry.unbind();
+        CollaborativeBuildManager.unbind();
+        AgentMemoryStore.unbind();
+        MetricsExporter.stop();
+        TraceReplayer.stop();
+        PlanTrace.unbind();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            SteveMod.getSteveManager().tick(event.getServer().overworld());
+            CollaborativeBuildManager.tick(event.getServer().overworld());
+            TraceReplayer.tick();
+        }
+    }
+
     @SubscribeEvent
     public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
         if (event.getEntity() instanceof ServerPlayer player) {
@@ -22,10 +67,8 @@ public class ServerEventHandler {
             SteveManager manager = SteveMod.getSteveManager();
             if (!stevesSpawned) {                manager.clearAllSteves();
                 
-                // Clear structure registry for fresh spatial awareness
-                StructureRegistry.clear();
-                
-                // Then, remove ALL SteveEntity instances from the world (including ones loaded from NBT)
+                // Then, remove ALL SteveEntity instances from the world (including ones loaded from NBT).
+                // Unfinished collaborative builds are handed to the new Steves by CollaborativeBuildManager.
                 int removedCount = 0;
                 for (var entity : level.getAllEntities()) {
                     if (entity instanceof SteveEntity) {
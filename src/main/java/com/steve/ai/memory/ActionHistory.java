@@ -0,0 +1,290 @@
+package com.steve.ai.memory;
+
+import com.steve.ai.action.Task;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-capacity ring buffer of finished actions, stored column-wise in primitive arrays.
+ * Appends are O(1) and overwrite the oldest record; iteration goes through a {@link Visitor}
+ * so queries don't allocate. Targets (block, mob, structure...) are interned into a small string table.
+ * Written on the server thread and read by planning threads building prompts, so access is synchronized.
+ */
+public class ActionHistory {
+    public static final String[] ACTION_TYPES = {"pathfind", "mine", "place", "craft", "attack", "follow", "gather", "build"};
+    public static final int OTHER_TYPE = ACTION_TYPES.length;
+
+    public static final byte SUCCESS = 0;
+    public static final byte FAILURE = 1;
+    public static final byte CANCELLED = 2;
+
+    public static final int NO_TARGET = -1;
+    private static final int MAX_TARGET_NAMES = 512;
+
+    public interface Visitor {
+        /** Return false to stop iterating */
+        boolean visit(int type, int target, byte result, long tick, int duration);
+    }
+
+    private final byte[] types;
+    private final int[] targets;
+    private final byte[] results;
+    private final long[] ticks;
+    private final int[] durations;
+    private int head; // next slot to write
+    private int count;
+
+    private final List<String> targetNames = new ArrayList<>();
+    private final Map<String, Integer> targetIds = new HashMap<>();
+
+    public ActionHistory(int capacity) {
+        this.types = new byte[capacity];
+        this.targets = new int[capacity];
+        this.results = new byte[capacity];
+        this.ticks = new long[capacity];
+        this.durations = new int[capacity];
+    }
+
+    public static int typeId(String action) {
+        for (int i = 0; i < ACTION_TYPES.length; i++) {
+            if (ACTION_TYPES[i].equals(action)) {
+                return i;
+            }
+        }
+        return OTHER_TYPE;
+    }
+
+    public static String typeName(int type) {
+        return type < ACTION_TYPES.length ? ACTION_TYPES[type] : "other";
+    }
+
+    /**
+     * The parameter an action is aimed at, or null for actions without one (pathfind)
+     */
+    public static String targetOf(Task task) {
+        return switch (task.getAction()) {
+            case "mine", "place" -> task.getStringParameter("block");
+            case "attack" -> task.getStringParameter("target");
+            case "build" -> task.getStringParameter("structure");
+            case "craft" -> task.getStringParameter("item");
+            case "gather" -> task.getStringParameter("resource");
+            case "follow" -> task.getStringParameter("player");
+            default -> null;
+        };
+    }
+
+    public synchronized void record(String action, String target, byte result, long tick, int duration) {
+        types[head] = (byte) typeId(action);
+        targets[head] = internTarget(target);
+        results[head] = result;
+        ticks[head] = tick;
+        durations[head] = duration;
+        head = (head + 1) % types.length;
+        if (count < types.length) {
+            count++;
+        }
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized String targetName(int target) {
+        return target == NO_TARGET ? null : targetNames.get(target);
+    }
+
+    /**
+     * Visit records newest first
+     */
+    public synchronized void forEachNewest(Visitor visitor) {
+        for (int i = 0; i < count; i++) {
+            int slot = Math.floorMod(head - 1 - i, types.length);
+            if (!visitor.visit(types[slot], targets[slot], results[slot], ticks[slot], durations[slot])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fraction of actions of this type finished at or after {@code sinceTick} that succeeded, or -1 if there were none
+     */
+    public synchronized double successRate(int type, long sinceTick) {
+        int total = 0;
+        int succeeded = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = Math.floorMod(head - 1 - i, types.length);
+            if (ticks[slot] < sinceTick) {
+                break;
+            }
+            if (types[slot] == type) {
+                total++;
+                if (results[slot] == SUCCESS) {
+                    succeeded++;
+                }
+            }
+        }
+        return total == 0 ? -1 : (double) succeeded / total;
+    }
+
+    /**
+     * One line per action type seen since {@code sinceTick}: attempts, successes and average duration,
+     * e.g. "mine: 5/6 succeeded, avg 14s"
+     */
+    public synchronized String formatStatistics(long sinceTick) {
+        int[] attempts = new int[OTHER_TYPE + 1];
+        int[] successes = new int[OTHER_TYPE + 1];
+        long[] totalTicks = new long[OTHER_TYPE + 1];
+        forEachNewest((type, target, result, tick, duration) -> {
+            if (tick < sinceTick) {
+                return false;
+            }
+            attempts[type]++;
+            totalTicks[type] += duration;
+            if (result == SUCCESS) {
+                successes[type]++;
+            }
+            return true;
+        });
+
+        StringBuilder stats = new StringBuilder();
+        for (int type = 0; type <= OTHER_TYPE; type++) {
+            if (attempts[type] == 0) {
+                continue;
+            }
+            stats.append(typeName(type)).append(": ")
+                .append(successes[type]).append('/').append(attempts[type]).append(" succeeded, avg ")
+                .append(totalTicks[type] / attempts[type] / 20).append("s\n");
+        }
+        return stats.toString();
+    }
+
+    /**
+     * Readable descriptions of the last {@code max} records, oldest first
+     */
+    public synchronized List<String> describeRecent(int max) {
+        String[] lines = new String[Math.min(max, count)];
+        int[] index = {lines.length};
+        forEachNewest((type, target, result, tick, duration) -> {
+            if (index[0] == 0) {
+                return false;
+            }
+            String name = targetName(target);
+            lines[--index[0]] = typeName(type) + (name != null ? " " + name : "")
+                + " (" + (result == SUCCESS ? "success" : result == CANCELLED ? "cancelled" : "failed")
+                + ", " + duration / 20 + "s)";
+            return true;
+        });
+        return Arrays.asList(lines);
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        count = 0;
+        targetNames.clear();
+        targetIds.clear();
+    }
+
+    /**
+     * Columns are written oldest first as primitive array tags
+     */
+    public synchronized void save(CompoundTag tag) {
+        byte[] savedTypes = new byte[count];
+        int[] savedTargets = new int[count];
+        byte[] savedResults = new byte[count];
+        long[] savedTicks = new long[count];
+        int[] savedDurations = new int[count];
+        for (int i = 0; i < count; i++) {
+            int slot = Math.floorMod(head - count + i, types.length);
+            savedTypes[i] = types[slot];
+            savedTargets[i] = targets[slot];
+            savedResults[i] = results[slot];
+            savedTicks[i] = ticks[slot];
+            savedDurations[i] = durations[slot];
+        }
+        tag.putByteArray("Types", savedTypes);
+        tag.putIntArray("Targets", savedTargets);
+        tag.putByteArray("Results", savedResults);
+        tag.putLongArray("Ticks", savedTicks);
+        tag.putIntArray("Durations", savedDurations);
+
+        ListTag names = new ListTag();
+        for (String name : targetNames) {
+            names.add(StringTag.valueOf(name));
+        }
+        tag.put("TargetNames", names);
+    }
+
+    public synchronized void load(CompoundTag tag) {
+        clear();
+        ListTag names = tag.getList("TargetNames", 8); // 8 = String type
+        for (int i = 0; i < names.size(); i++) {
+            targetIds.put(names.getString(i), i);
+            targetNames.add(names.getString(i));
+        }
+
+        byte[] savedTypes = tag.getByteArray("Types");
+        int[] savedTargets = tag.getIntArray("Targets");
+        byte[] savedResults = tag.getByteArray("Results");
+        long[] savedTicks = tag.getLongArray("Ticks");
+        int[] savedDurations = tag.getIntArray("Durations");
+        int saved = Math.min(Math.min(savedTypes.length, savedTargets.length),
+            Math.min(Math.min(savedResults.length, savedTicks.length), savedDurations.length));
+        for (int i = Math.max(0, saved - types.length); i < saved; i++) {
+            types[head] = savedTypes[i];
+            targets[head] = savedTargets[i] < targetNames.size() ? savedTargets[i] : NO_TARGET;
+            results[head] = savedResults[i];
+            ticks[head] = savedTicks[i];
+            durations[head] = savedDurations[i];
+            head = (head + 1) % types.length;
+            count = Math.min(count + 1, types.length);
+        }
+    }
+
+    private int internTarget(String target) {
+        if (target == null || target.isEmpty()) {
+            return NO_TARGET;
+        }
+        Integer id = targetIds.get(target);
+        if (id != null) {
+            return id;
+        }
+        if (targetNames.size() >= MAX_TARGET_NAMES) {
+            compactTargets();
+        }
+        id = targetNames.size();
+        targetNames.add(target);
+        targetIds.put(target, id);
+        return id;
+    }
+
+    /**
+     * Drop names no live record refers to and renumber the rest
+     */
+    private void compactTargets() {
+        int[] remap = new int[targetNames.size()];
+        Arrays.fill(remap, NO_TARGET);
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int slot = Math.floorMod(head - 1 - i, types.length);
+            int target = targets[slot];
+            if (target != NO_TARGET && remap[target] == NO_TARGET) {
+                remap[target] = kept.size();
+                kept.add(targetNames.get(target));
+            }
+            targets[slot] = target == NO_TARGET ? NO_TARGET : remap[target];
+        }
+        targetNames.clear();
+        targetIds.clear();
+        for (int i = 0; i < kept.size(); i++) {
+            targetNames.add(kept.get(i));
+            targetIds.put(kept.get(i), i);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.steve.ai.memory;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.agent.ConversationalMemory;
+import com.steve.ai.config.SteveConfig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Long-term conversational memory per Steve, stored under {@code <world>/steve/memory/<name>}.
+ * Each memory's files stay open while the world runs, so a Steve that is discarded and respawned
+ * under the same name picks up where it left off.
+ */
+public class AgentMemoryStore {
+    private static final Map<String, ConversationalMemory> openMemories = new HashMap<>();
+    private static Path memoryRoot;
+
+    /**
+     * Attach to a world's save directory (called when the server starts)
+     */
+    public static synchronized void bind(MinecraftServer server) {
+        memoryRoot = server.getWorldPath(LevelResource.ROOT).resolve("steve").resolve("memory");
+    }
+
+    /**
+     * Flush and close every open memory (called when the server stops)
+     */
+    public static synchronized void unbind() {
+        for (Map.Entry<String, ConversationalMemory> entry : openMemories.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                SteveMod.LOGGER.error("Failed to save long-term memory for '{}'", entry.getKey(), e);
+            }
+        }
+        openMemories.clear();
+        memoryRoot = null;
+    }
+
+    /**
+     * Persistent memory for the named Steve, or null when no world is bound or the files can't be opened
+     */
+    public static synchronized ConversationalMemory get(String steveName) {
+        ConversationalMemory memory = openMemories.get(steveName);
+        if (memory != null || memoryRoot == null) {
+            return memory;
+        }
+        try {
+            memory = ConversationalMemory.open(SteveConfig.CONTEXT_TOKENS.get(), memoryRoot.resolve(directoryName(steveName)));
+            openMemories.put(steveName, memory);
+            SteveMod.LOGGER.info("Opened long-term memory for Steve '{}'", steveName);
+        } catch (IOException | RuntimeException e) {
+            SteveMod.LOGGER.error("Failed to open long-term memory for '{}', using a temporary one", steveName, e);
+        }
+        return memory;
+    }
+
+    private static String directoryName(String steveName) {
+        return steveName.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
@@ -1,11 +1,10 @@
 package com.steve.ai.memory;
 
+import com.steve.ai.agent.ConversationalMemory;
+import com.steve.ai.config.SteveConfig;
 import com.steve.ai.entity.SteveEntity;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.StringTag;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
@@ -14,14 +13,15 @@ public class SteveMemory {
     private final SteveEntity steve;
     private String currentGoal;
     private final Queue<String> taskQueue;
-    private final LinkedList<String> recentActions;
-    private static final int MAX_RECENT_ACTIONS = 20;
+    private final ActionHistory actionHistory;
+    private static final int ACTION_HISTORY_SIZE = 256;
+    private volatile ConversationalMemory conversation;
 
     public SteveMemory(SteveEntity steve) {
         this.steve = steve;
         this.currentGoal = "";
         this.taskQueue = new LinkedList<>();
-        this.recentActions = new LinkedList<>();
+        this.actionHistory = new ActionHistory(ACTION_HISTORY_SIZE);
     }
 
     public String getCurrentGoal() {
@@ -32,23 +32,42 @@ public class SteveMemory {
         this.currentGoal = goal;
     }
 
-    public void addAction(String action) {
-        recentActions.addLast(action);
-        if (recentActions.size() > MAX_RECENT_ACTIONS) {
-            recentActions.removeFirst();
-        }
+    /**
+     * Record a finished action
+     *
+     * @param result   one of {@link ActionHistory#SUCCESS}, {@link ActionHistory#FAILURE}, {@link ActionHistory#CANCELLED}
+     * @param tick     game time when it finished
+     * @param duration ticks it ran for
+     */
+    public void recordAction(String action, String target, byte result, long tick, int duration) {
+        actionHistory.record(action, target, result, tick, duration);
+    }
+
+    public ActionHistory getActionHistory() {
+        return actionHistory;
     }
 
     public List<String> getRecentActions(int count) {
-        int size = Math.min(count, recentActions.size());
-        List<String> result = new ArrayList<>();
-        
-        int startIndex = Math.max(0, recentActions.size() - count);
-        for (int i = startIndex; i < recentActions.size(); i++) {
-            result.add(recentActions.get(i));
+        return actionHistory.describeRecent(count);
+    }
+
+    /**
+     * Commands and plans exchanged with this Steve. Opened lazily, because the Steve's name
+     * (which keys its files) is only known once it has been spawned or loaded. Planning threads
+     * and the server thread both call this, so the first open happens under a lock.
+     */
+    public ConversationalMemory getConversation() {
+        ConversationalMemory opened = conversation;
+        if (opened != null) {
+            return opened;
+        }
+        synchronized (this) {
+            if (conversation == null) {
+                ConversationalMemory stored = AgentMemoryStore.get(steve.getSteveName());
+                conversation = stored != null ? stored : new ConversationalMemory(SteveConfig.CONTEXT_TOKENS.get());
+            }
+            return conversation;
         }
-        
-        return result;
     }
 
     public void clearTaskQueue() {
@@ -59,11 +78,9 @@ public class SteveMemory {
     public void saveToNBT(CompoundTag tag) {
         tag.putString("CurrentGoal", currentGoal);
         
-        ListTag actionsList = new ListTag();
-        for (String action : recentActions) {
-            actionsList.add(StringTag.valueOf(action));
-        }
-        tag.put("RecentActions", actionsList);
+        CompoundTag historyTag = new CompoundTag();
+        actionHistory.save(historyTag);
+        tag.put("ActionHistory", historyTag);
     }
 
     public void loadFromNBT(CompoundTag tag) {
@@ -71,12 +88,9 @@ public class SteveMemory {
             currentGoal = tag.getString("CurrentGoal");
         }
         
-        if (tag.contains("RecentActions")) {
-            recentActions.clear();
-            ListTag actionsList = tag.getList("RecentActions", 8); // 8 = String type
-            for (int i = 0; i < actionsList.size(); i++) {
-                recentActions.add(actionsList.getString(i));
-            }
+        // Older saves kept free-text "RecentActions", which can't be turned into records; they are dropped
+        if (tag.contains("ActionHistory")) {
+            actionHistory.load(tag.getCompound("ActionHistory"));
         }
     }
 }
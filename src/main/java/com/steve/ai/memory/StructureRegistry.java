@@ -2,18 +2,31 @@ package com.steve.ai.memory;
 
 import com.steve.ai.SteveMod;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.phys.AABB;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Tracks all built structures to prevent overlapping builds
+ * Tracks all built structures to prevent overlapping builds.
+ * Structures are bucketed into a chunk-sized grid so conflict checks only look at nearby builds,
+ * and the registry is persisted per world through {@link StructureRegistryData}.
  */
 public class StructureRegistry {
     private static final List<BuiltStructure> structures = new ArrayList<>();
+    private static final Map<Long, List<BuiltStructure>> grid = new HashMap<>();
+    private static final ReadWriteLock lock = new ReentrantReadWriteLock();
     private static final int MIN_SPACING = 5; // Minimum blocks between structures
-    
+    private static final int CELL_SHIFT = 4; // 16x16 cells, same as chunks
+    private static final String DATA_NAME = SteveMod.MODID + "_structures";
+    private static StructureRegistryData savedData;
+
     public static class BuiltStructure {
         public final BlockPos position;
         public final int width;
@@ -21,36 +34,38 @@ public class StructureRegistry {
         public final int depth;
         public final String type;
         public final AABB bounds;
-        
+        private final int minX, minY, minZ;
+        private final int maxX, maxY, maxZ;
+
         public BuiltStructure(BlockPos pos, int width, int height, int depth, String type) {
             this.position = pos;
             this.width = width;
             this.height = height;
             this.depth = depth;
             this.type = type;
-            
-            this.bounds = new AABB(
-                pos.getX() - MIN_SPACING,
-                pos.getY() - MIN_SPACING,
-                pos.getZ() - MIN_SPACING,
-                pos.getX() + width + MIN_SPACING,
-                pos.getY() + height + MIN_SPACING,
-                pos.getZ() + depth + MIN_SPACING
-            );
+
+            this.minX = pos.getX() - MIN_SPACING;
+            this.minY = pos.getY() - MIN_SPACING;
+            this.minZ = pos.getZ() - MIN_SPACING;
+            this.maxX = pos.getX() + width + MIN_SPACING;
+            this.maxY = pos.getY() + height + MIN_SPACING;
+            this.maxZ = pos.getZ() + depth + MIN_SPACING;
+            this.bounds = new AABB(minX, minY, minZ, maxX, maxY, maxZ);
         }
-        
+
+        /**
+         * Same test as {@link AABB#intersects}, done on ints so conflict checks don't allocate
+         */
         public boolean intersects(BlockPos testPos, int testWidth, int testHeight, int testDepth) {
-            AABB testBounds = new AABB(
-                testPos.getX(),
-                testPos.getY(),
-                testPos.getZ(),
-                testPos.getX() + testWidth,
-                testPos.getY() + testHeight,
-                testPos.getZ() + testDepth
-            );
-            return bounds.intersects(testBounds);
+            return intersects(testPos.getX(), testPos.getY(), testPos.getZ(), testWidth, testHeight, testDepth);
         }
-        
+
+        private boolean intersects(int x, int y, int z, int testWidth, int testHeight, int testDepth) {
+            return minX < x + testWidth && maxX > x
+                && minY < y + testHeight && maxY > y
+                && minZ < z + testDepth && maxZ > z;
+        }
+
         public double distanceTo(BlockPos pos) {
             double dx = pos.getX() - position.getX();
             double dy = pos.getY() - position.getY();
@@ -58,28 +73,86 @@ public class StructureRegistry {
             return Math.sqrt(dx * dx + dy * dy + dz * dz);
         }
     }
-    
+
+    /**
+     * Attach the registry to a world's saved data (called when the server starts)
+     */
+    public static void bind(ServerLevel level) {
+        StructureRegistryData data = level.getDataStorage().computeIfAbsent(
+            StructureRegistryData::load, StructureRegistryData::new, DATA_NAME);
+
+        lock.writeLock().lock();
+        try {
+            clearIndex();
+            savedData = data;
+            for (BuiltStructure structure : data.getLoadedStructures()) {
+                index(structure);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        SteveMod.LOGGER.info("Loaded {} registered structures for this world", getCount());
+    }
+
+    /**
+     * Detach from the current world (called when the server stops)
+     */
+    public static void unbind() {
+        lock.writeLock().lock();
+        try {
+            clearIndex();
+            savedData = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     /**
      * Register a newly built structure
      */
     public static void register(BlockPos pos, int width, int height, int depth, String type) {
         BuiltStructure structure = new BuiltStructure(pos, width, height, depth, type);
-        structures.add(structure);
+        lock.writeLock().lock();
+        try {
+            index(structure);
+            if (savedData != null) {
+                savedData.setDirty();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
         SteveMod.LOGGER.info("Registered structure '{}' at {} ({}x{}x{})", type, pos, width, height, depth);
     }
-    
+
     /**
      * Check if a position would conflict with existing structures
      */
     public static boolean hasConflict(BlockPos pos, int width, int height, int depth) {
-        for (BuiltStructure structure : structures) {
-            if (structure.intersects(pos, width, height, depth)) {
-                return true;
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+
+        lock.readLock().lock();
+        try {
+            for (int cellX = x >> CELL_SHIFT; cellX <= (x + width) >> CELL_SHIFT; cellX++) {
+                for (int cellZ = z >> CELL_SHIFT; cellZ <= (z + depth) >> CELL_SHIFT; cellZ++) {
+                    List<BuiltStructure> cell = grid.get(ChunkPos.asLong(cellX, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (BuiltStructure structure : cell) {
+                        if (structure.intersects(x, y, z, width, height, depth)) {
+                            return true;
+                        }
+                    }
+                }
             }
+            return false;
+        } finally {
+            lock.readLock().unlock();
         }
-        return false;
     }
-    
+
     /**
      * Find a clear position near the original position for building
      * Searches in expanding circles around the original position
@@ -88,28 +161,29 @@ public class StructureRegistry {
     public static BlockPos findClearPosition(BlockPos originalPos, int width, int height, int depth) {
         if (!hasConflict(originalPos, width, height, depth)) {
             return originalPos;
-        }        int maxSearchRadius = 50; // Max 50 blocks away
+        }
+        int maxSearchRadius = 50; // Max 50 blocks away
         int searchStep = Math.max(width, depth) + MIN_SPACING; // Step by structure size + spacing
-        
+
         for (int radius = searchStep; radius < maxSearchRadius; radius += searchStep) {
             for (int angle = 0; angle < 360; angle += 30) { // Check every 30 degrees
                 double radians = Math.toRadians(angle);
                 int offsetX = (int) (Math.cos(radians) * radius);
                 int offsetZ = (int) (Math.sin(radians) * radius);
-                
+
                 BlockPos testPos = new BlockPos(
                     originalPos.getX() + offsetX,
                     originalPos.getY(),
                     originalPos.getZ() + offsetZ
                 );
-                
+
                 if (!hasConflict(testPos, width, height, depth)) {
                     SteveMod.LOGGER.info("Found clear position at {} ({}m away)", testPos, radius);
                     return testPos;
                 }
             }
         }
-        
+
         BlockPos fallbackPos = new BlockPos(
             originalPos.getX() + maxSearchRadius,
             originalPos.getY(),
@@ -118,47 +192,80 @@ public class StructureRegistry {
         SteveMod.LOGGER.warn("No clear position found, using fallback at {}", fallbackPos);
         return fallbackPos;
     }
-    
+
     /**
      * Get all registered structures
      */
     public static List<BuiltStructure> getAllStructures() {
-        return new ArrayList<>(structures);
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(structures);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
-    
+
     /**
      * Get the closest structure to a position
      */
     public static BuiltStructure getClosest(BlockPos pos) {
-        if (structures.isEmpty()) {
-            return null;
-        }
-        
-        BuiltStructure closest = structures.get(0);
-        double minDistance = closest.distanceTo(pos);
-        
-        for (BuiltStructure structure : structures) {
-            double distance = structure.distanceTo(pos);
-            if (distance < minDistance) {
-                minDistance = distance;
-                closest = structure;
+        lock.readLock().lock();
+        try {
+            BuiltStructure closest = null;
+            double minDistance = Double.MAX_VALUE;
+
+            for (BuiltStructure structure : structures) {
+                double distance = structure.distanceTo(pos);
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    closest = structure;
+                }
             }
+
+            return closest;
+        } finally {
+            lock.readLock().unlock();
         }
-        
-        return closest;
     }
-    
+
     /**
      * Clear all registered structures (useful for cleanup)
      */
     public static void clear() {
-        structures.clear();    }
-    
+        lock.writeLock().lock();
+        try {
+            clearIndex();
+            if (savedData != null) {
+                savedData.setDirty();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     /**
      * Get count of registered structures
      */
     public static int getCount() {
-        return structures.size();
+        lock.readLock().lock();
+        try {
+            return structures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
-}
 
+    private static void index(BuiltStructure structure) {
+        structures.add(structure);
+        for (int cellX = structure.minX >> CELL_SHIFT; cellX <= structure.maxX >> CELL_SHIFT; cellX++) {
+            for (int cellZ = structure.minZ >> CELL_SHIFT; cellZ <= structure.maxZ >> CELL_SHIFT; cellZ++) {
+                grid.computeIfAbsent(ChunkPos.asLong(cellX, cellZ), key -> new ArrayList<>()).add(structure);
+            }
+        }
+    }
+
+    private static void clearIndex() {
+        structures.clear();
+        grid.clear();
+    }
+}
@@ -0,0 +1,63 @@
+package com.steve.ai.memory;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-world persistence for {@link StructureRegistry}
+ */
+public class StructureRegistryData extends SavedData {
+    private final List<StructureRegistry.BuiltStructure> loadedStructures;
+
+    public StructureRegistryData() {
+        this.loadedStructures = new ArrayList<>();
+    }
+
+    private StructureRegistryData(List<StructureRegistry.BuiltStructure> loadedStructures) {
+        this.loadedStructures = loadedStructures;
+    }
+
+    public static StructureRegistryData load(CompoundTag tag) {
+        List<StructureRegistry.BuiltStructure> structures = new ArrayList<>();
+        ListTag list = tag.getList("Structures", 10); // 10 = TAG_Compound
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag entry = list.getCompound(i);
+            structures.add(new StructureRegistry.BuiltStructure(
+                BlockPos.of(entry.getLong("Pos")),
+                entry.getInt("Width"),
+                entry.getInt("Height"),
+                entry.getInt("Depth"),
+                entry.getString("Type")
+            ));
+        }
+        return new StructureRegistryData(structures);
+    }
+
+    /**
+     * Structures read from disk, indexed by the registry when it binds to this world
+     */
+    public List<StructureRegistry.BuiltStructure> getLoadedStructures() {
+        return loadedStructures;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        ListTag list = new ListTag();
+        for (StructureRegistry.BuiltStructure structure : StructureRegistry.getAllStructures()) {
+            CompoundTag entry = new CompoundTag();
+            entry.putLong("Pos", structure.position.asLong());
+            entry.putInt("Width", structure.width);
+            entry.putInt("Height", structure.height);
+            entry.putInt("Depth", structure.depth);
+            entry.putString("Type", structure.type);
+            list.add(entry);
+        }
+        tag.put("Structures", list);
+        return tag;
+    }
+}
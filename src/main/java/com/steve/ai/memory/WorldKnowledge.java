@@ -1,6 +1,7 @@
 package com.steve.ai.memory;
 
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.profiling.WorldScanEvent;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.world.entity.Entity;
@@ -27,9 +28,19 @@ public class WorldKnowledge {
     }
 
     private void scan() {
+        WorldScanEvent event = new WorldScanEvent();
+        event.begin();
         scanBiome();
         scanBlocks();
         scanEntities();
+        event.end();
+        if (event.shouldCommit()) {
+            event.steve = steve.getSteveName();
+            event.radius = scanRadius;
+            event.blockTypes = nearbyBlocks.size();
+            event.entities = nearbyEntities.size();
+            event.commit();
+        }
     }
 
     private void scanBiome() {
@@ -0,0 +1,136 @@
+package com.steve.ai.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: every power of two is split into 16
+ * sub-buckets, so any recorded value is known to within 1/16 (about 6%) over the whole long range.
+ * Recording is a couple of atomic increments into a fixed array, with no allocation.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final double unitSeconds;
+
+    /**
+     * @param unitSeconds how many seconds one recorded unit is, for exposition (e.g. 1e-6 for microseconds)
+     */
+    Histogram(double unitSeconds) {
+        this.unitSeconds = unitSeconds;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+    }
+
+    /**
+     * Record the time since {@code startNanos} (from {@link System#nanoTime()}) in this histogram's unit
+     */
+    public void recordSince(long startNanos) {
+        record((long) ((System.nanoTime() - startNanos) * 1e-9 / unitSeconds));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Sum of recorded values in seconds
+     */
+    public double getSumSeconds() {
+        return sum.sum() * unitSeconds;
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile} (0..1) value, in seconds; 0 when empty
+     */
+    public double quantileSeconds(double quantile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i) * unitSeconds;
+            }
+        }
+        return upperBound(BUCKETS - 1) * unitSeconds;
+    }
+
+    /**
+     * Prometheus histogram lines with a bucket per power of two up to the largest value seen
+     */
+    void writeText(StringBuilder out, String name, String labels) {
+        long[] snapshot = new long[BUCKETS];
+        int last = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            if (snapshot[i] != 0) {
+                last = i;
+            }
+        }
+
+        long cumulative = 0;
+        int bucket = 0;
+        int maxExponent = last < 0 ? 0 : 64 - Long.numberOfLeadingZeros(upperBound(last));
+        for (int exponent = 0; exponent <= maxExponent; exponent++) {
+            long bound = (1L << exponent) - 1;  // values are integers, so "< 2^e" is "<= 2^e - 1"
+            while (bucket < BUCKETS && upperBound(bucket) <= bound) {
+                cumulative += snapshot[bucket++];
+            }
+            out.append(name).append("_bucket").append(withLabel(labels, "le", format(bound * unitSeconds)))
+                .append(' ').append(cumulative).append('\n');
+        }
+        while (bucket < BUCKETS) {
+            cumulative += snapshot[bucket++];
+        }
+        out.append(name).append("_bucket").append(withLabel(labels, "le", "+Inf")).append(' ').append(cumulative).append('\n');
+        out.append(name).append("_sum").append(labels).append(' ').append(format(getSumSeconds())).append('\n');
+        out.append(name).append("_count").append(labels).append(' ').append(cumulative).append('\n');
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long bound = ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        return bound < 0 ? Long.MAX_VALUE : bound;
+    }
+
+    private static String withLabel(String labels, String key, String value) {
+        String label = key + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.steve.ai.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registry of every counter, gauge and histogram, rendered in the Prometheus text exposition format.
+ * Look metrics up once and keep the instance (see {@link SteveMetrics}); the lookups themselves allocate.
+ * Labels are given as alternating names and values: {@code counter("x_total", "help", "provider", "groq")}.
+ */
+public final class Metrics {
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private static final class Family {
+        final Type type;
+        final String help;
+        final Map<String, Object> series = new ConcurrentSkipListMap<>();  // rendered labels -> metric
+
+        Family(Type type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+
+    private static final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) register(name, Type.COUNTER, help, labels, Counter::new);
+    }
+
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, Type.GAUGE, help, labels, () -> value);
+    }
+
+    /**
+     * @param unitSeconds seconds per recorded unit (1e-3 to record milliseconds, 0.05 for game ticks...)
+     */
+    public static Histogram histogram(String name, String help, double unitSeconds, String... labels) {
+        return (Histogram) register(name, Type.HISTOGRAM, help, labels, () -> new Histogram(unitSeconds));
+    }
+
+    public static String writeText() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type.name().toLowerCase()).append('\n');
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                String labels = series.getKey();
+                switch (family.type) {
+                    case COUNTER -> out.append(name).append(labels).append(' ')
+                        .append(((Counter) series.getValue()).get()).append('\n');
+                    case GAUGE -> out.append(name).append(labels).append(' ')
+                        .append(Histogram.format(((DoubleSupplier) series.getValue()).getAsDouble())).append('\n');
+                    case HISTOGRAM -> ((Histogram) series.getValue()).writeText(out, name, labels);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static Object register(String name, Type type, String help, String[] labels,
+                                   Supplier<Object> factory) {
+        Family family = families.computeIfAbsent(name, key -> new Family(type, help));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family.series.computeIfAbsent(renderLabels(labels), key -> factory.get());
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder rendered = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                rendered.append(',');
+            }
+            rendered.append(labels[i]).append("=\"")
+                .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append('"');
+        }
+        return rendered.append('}').toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.steve.ai.metrics;
+
+import com.steve.ai.SteveMod;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@link Metrics#writeText()} at http://127.0.0.1:PORT/metrics for a local Prometheus scraper.
+ * Bound to loopback only and served from its own single thread, never the server thread.
+ */
+public final class MetricsExporter {
+    private static HttpServer server;
+
+    private MetricsExporter() {
+    }
+
+    /**
+     * Start serving on {@code port}; 0 leaves the exporter off
+     */
+    public static synchronized void start(int port) {
+        stop();
+        if (port <= 0) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", MetricsExporter::handle);
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Steve-Metrics-Exporter");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            SteveMod.LOGGER.info("Serving metrics at http://127.0.0.1:{}/metrics", port);
+        } catch (IOException e) {
+            SteveMod.LOGGER.error("Could not start the metrics exporter on port {}", port, e);
+            server = null;
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = Metrics.writeText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.steve.ai.metrics;
+
+import com.steve.ai.agent.TokenEstimator;
+import com.steve.ai.memory.ActionHistory;
+import com.steve.ai.profiling.LlmRequestEvent;
+
+import java.util.function.Function;
+
+/**
+ * The mod's metrics, registered once so hot paths only touch the returned instances
+ */
+public final class SteveMetrics {
+    public static final Counter PLANS_LOCAL = Metrics.counter("steve_plans_total",
+        "Commands planned, by where the plan came from", "source", "local");
+    public static final Counter PLANS_LLM = Metrics.counter("steve_plans_total",
+        "Commands planned, by where the plan came from", "source", "llm");
+    public static final Counter PLAN_FAILURES = Metrics.counter("steve_plan_failures_total",
+        "Commands that produced no usable plan");
+    public static final Counter BLOCKS_PLACED = Metrics.counter("steve_blocks_placed_total",
+        "Blocks placed by build actions");
+    public static final Counter BLOCKS_SKIPPED = Metrics.counter("steve_blocks_skipped_total",
+        "Planned blocks already in place, skipped by build actions");
+    public static final Counter BUILD_TELEPORTS = Metrics.counter("steve_build_teleports_total",
+        "Teleports to reach the next block in build actions");
+    public static final Counter BLOCKS_MINED = Metrics.counter("steve_blocks_mined_total",
+        "Blocks broken by mine actions");
+    public static final Histogram MANAGER_TICK = Metrics.histogram("steve_manager_tick_seconds",
+        "Time spent in SteveManager.tick per server tick", 1e-6);
+
+    private static final String[] RESULT_NAMES = {"success", "failure", "cancelled"};
+    private static final Histogram[] ACTION_DURATIONS = new Histogram[ActionHistory.OTHER_TYPE + 1];
+    private static final Counter[][] ACTION_RESULTS = new Counter[ActionHistory.OTHER_TYPE + 1][RESULT_NAMES.length];
+
+    static {
+        for (int type = 0; type <= ActionHistory.OTHER_TYPE; type++) {
+            String action = ActionHistory.typeName(type);
+            ACTION_DURATIONS[type] = Metrics.histogram("steve_action_duration_seconds",
+                "Game time from an action starting to finishing", 0.05, "action", action);
+            for (int result = 0; result < RESULT_NAMES.length; result++) {
+                ACTION_RESULTS[type][result] = Metrics.counter("steve_actions_total",
+                    "Finished actions by type and outcome", "action", action, "result", RESULT_NAMES[result]);
+            }
+        }
+        Metrics.gauge("steve_local_plan_ratio", "Share of commands compiled without the LLM", SteveMetrics::localPlanShare);
+    }
+
+    /**
+     * Counters and latency of one LLM provider's HTTP requests
+     */
+    public static final class Provider {
+        private final String name;
+        public final Counter requests;
+        public final Counter failures;
+        public final Counter retries;
+        public final Counter inputTokens;
+        public final Counter outputTokens;
+        public final Histogram latency;  // milliseconds
+        public final Histogram planLatency;  // milliseconds, prompt to parsed plan
+
+        private Provider(String name) {
+            this.name = name;
+            requests = Metrics.counter("steve_llm_requests_total", "HTTP requests sent to the provider", "provider", name);
+            failures = Metrics.counter("steve_llm_failures_total", "Requests that returned no usable text", "provider", name);
+            retries = Metrics.counter("steve_llm_retries_total", "Requests retried after an error or rate limit", "provider", name);
+            inputTokens = Metrics.counter("steve_llm_tokens_total", "Tokens reported by the provider", "provider", name, "kind", "input");
+            outputTokens = Metrics.counter("steve_llm_tokens_total", "Tokens reported by the provider", "provider", name, "kind", "output");
+            latency = Metrics.histogram("steve_llm_request_seconds", "Wall time of one provider call, retries included", 1e-3, "provider", name);
+            planLatency = Metrics.histogram("steve_plan_seconds", "Wall time to plan one command with the LLM", 1e-3, "provider", name);
+        }
+
+        public void recordTokens(long input, long output) {
+            inputTokens.add(input);
+            outputTokens.add(output);
+        }
+
+        /**
+         * Run one provider call with its request count, latency, failure count, tokens and JFR event.
+         * {@code send} fills in the event's status and any token counts the provider reports; when it
+         * reports none, they are estimated from the prompts and the response.
+         */
+        public String instrument(String systemPrompt, String userPrompt, Function<LlmRequestEvent, String> send) {
+            LlmRequestEvent event = new LlmRequestEvent();
+            event.begin();
+            long start = System.nanoTime();
+            requests.inc();
+            String response = send.apply(event);
+            latency.recordSince(start);
+            if (response == null) {
+                failures.inc();
+            } else if (event.inputTokens == 0 && event.outputTokens == 0) {
+                event.inputTokens = TokenEstimator.estimate(systemPrompt) + TokenEstimator.estimate(userPrompt);
+                event.outputTokens = TokenEstimator.estimate(response);
+            }
+            recordTokens(event.inputTokens, event.outputTokens);
+            event.end();
+            if (event.shouldCommit()) {
+                event.provider = name;
+                event.success = response != null;
+                event.commit();
+            }
+            return response;
+        }
+    }
+
+    public static final Provider GROQ = new Provider("groq");
+    public static final Provider OPENAI = new Provider("openai");
+    public static final Provider GEMINI = new Provider("gemini");
+    public static final Provider ANTHROPIC = new Provider("anthropic");
+    public static final Provider MOCK = new Provider("mock");
+
+    private SteveMetrics() {
+    }
+
+    public static Provider provider(String name) {
+        return switch (name) {
+            case "openai" -> OPENAI;
+            case "gemini" -> GEMINI;
+            case "anthropic" -> ANTHROPIC;
+            case "mock" -> MOCK;
+            default -> GROQ;
+        };
+    }
+
+    public static void recordAction(String action, byte result, int durationTicks) {
+        int type = ActionHistory.typeId(action);
+        ACTION_DURATIONS[type].record(durationTicks);
+        ACTION_RESULTS[type][result].inc();
+    }
+
+    /**
+     * Per-Steve cost of ActionExecutor.tick, in microseconds; keep the instance
+     */
+    public static Histogram tickCost(String steveName) {
+        return Metrics.histogram("steve_executor_tick_seconds", "Time spent in one Steve's ActionExecutor.tick", 1e-6,
+            "steve", steveName);
+    }
+
+    public static double localPlanShare() {
+        long local = PLANS_LOCAL.get();
+        long total = local + PLANS_LLM.get();
+        return total == 0 ? 0 : (double) local / total;
+    }
+}
@@ -0,0 +1,28 @@
+package com.steve.ai.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Steve's {@code ActionExecutor.tick}
+ */
+@Name("steve.AgentTick")
+@Label("Agent Tick")
+@Category({"Steve AI", "Agents"})
+@Description("One Steve's action executor tick")
+@StackTrace(false)
+public class AgentTickEvent extends Event {
+    @Label("Steve")
+    public String steve;
+
+    @Label("Actions")
+    @Description("Types of the actions running at the end of the tick")
+    public String actions;
+
+    @Label("Queued Tasks")
+    public int queuedTasks;
+}
@@ -0,0 +1,28 @@
+package com.steve.ai.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The blocks one Steve placed for a build in one tick
+ */
+@Name("steve.BlockPlacement")
+@Label("Block Placement Batch")
+@Category({"Steve AI", "World"})
+@StackTrace(false)
+public class BlockPlacementEvent extends Event {
+    @Label("Steve")
+    public String steve;
+
+    @Label("Structure")
+    public String structure;
+
+    @Label("Blocks")
+    public int blocks;
+
+    @Label("Teleports")
+    public int teleports;
+}
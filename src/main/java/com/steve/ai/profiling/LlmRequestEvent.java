@@ -0,0 +1,32 @@
+package com.steve.ai.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One provider call, retries included
+ */
+@Name("steve.LlmRequest")
+@Label("LLM Request")
+@Category({"Steve AI", "Planning"})
+@Description("One call to an LLM provider, retries included")
+public class LlmRequestEvent extends Event {
+    @Label("Provider")
+    public String provider;
+
+    @Label("HTTP Status")
+    @Description("Status of the last response, 0 if none arrived")
+    public int status;
+
+    @Label("Input Tokens")
+    public long inputTokens;
+
+    @Label("Output Tokens")
+    public long outputTokens;
+
+    @Label("Success")
+    public boolean success;
+}
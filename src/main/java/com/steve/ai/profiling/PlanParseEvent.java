@@ -0,0 +1,28 @@
+package com.steve.ai.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Turning an LLM response into validated, ordered tasks
+ */
+@Name("steve.PlanParse")
+@Label("Plan Parse")
+@Category({"Steve AI", "Planning"})
+@StackTrace(false)
+public class PlanParseEvent extends Event {
+    @Label("Steve")
+    public String steve;
+
+    @Label("Response Length")
+    public int responseLength;
+
+    @Label("Parsed Tasks")
+    public int parsedTasks;
+
+    @Label("Valid Tasks")
+    public int validTasks;
+}
@@ -0,0 +1,73 @@
+package com.steve.ai.profiling;
+
+import com.steve.ai.SteveMod;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * One Flight Recorder session at a time, started and dumped by {@code /steve profile start|stop}.
+ * Uses the JDK's "default" settings (low overhead, safe on a live server) plus the Steve events.
+ * While no recording runs, the events cost one {@code shouldCommit()} check each.
+ */
+public final class Profiler {
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+        AgentTickEvent.class, LlmRequestEvent.class, PlanParseEvent.class, BlockPlacementEvent.class, WorldScanEvent.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static Recording recording;
+
+    private Profiler() {
+    }
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Start recording; false if one is already running
+     */
+    public static synchronized boolean start() throws IOException, ParseException {
+        if (recording != null) {
+            return false;
+        }
+        Recording started = new Recording(Configuration.getConfiguration("default"));
+        started.setName("Steve AI");
+        for (Class<? extends Event> event : EVENTS) {
+            started.enable(event);
+        }
+        started.start();
+        recording = started;
+        SteveMod.LOGGER.info("Flight recording started");
+        return true;
+    }
+
+    /**
+     * Stop recording and write it to a timestamped .jfr file in {@code directory}; null if nothing was recording
+     */
+    public static synchronized Path stop(Path directory) throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        Recording stopped = recording;
+        recording = null;
+        try {
+            stopped.stop();
+            Files.createDirectories(directory);
+            Path file = directory.resolve("steve-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+            stopped.dump(file);
+            SteveMod.LOGGER.info("Flight recording written to {}", file);
+            return file;
+        } finally {
+            stopped.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.steve.ai.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The block, entity and biome scan done for each plan request
+ */
+@Name("steve.WorldScan")
+@Label("World Scan")
+@Category({"Steve AI", "World"})
+public class WorldScanEvent extends Event {
+    @Label("Steve")
+    public String steve;
+
+    @Label("Radius")
+    public int radius;
+
+    @Label("Block Types")
+    public int blockTypes;
+
+    @Label("Entities")
+    public int entities;
+}
@@ -0,0 +1,237 @@
+package com.steve.ai.simulation;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.ai.TaskPlanner;
+import com.steve.ai.config.SteveConfig;
+import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.entity.SteveManager;
+import com.steve.ai.metrics.Histogram;
+import com.steve.ai.metrics.Metrics;
+import com.steve.ai.metrics.SteveMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.phys.Vec3;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One headless throughput run: N Steves, each fed a scripted stream of commands planned by the mock
+ * provider, measured for a fixed number of ticks. Reports MSPT, blocks per second, plan latency
+ * percentiles and heap use to the log and appends a row to {@code steve-simulation.csv} in the server directory.
+ * Commands are planned on a pool of threads like chat commands are; the executor applies each plan on its
+ * next tick and reports busy until then, so an agent only gets its next command once the last one is queued.
+ */
+public class Simulation {
+    private static final long SEED = 42;
+    private static final int ORE_FIELD_RADIUS = 12;
+    private static final String CSV_HEADER = "agents,ticks,wall_s,mspt_mean,mspt_p95,mspt_max,placed_per_s,mined_per_s,"
+        + "plans,plan_p50_ms,plan_p95_ms,plan_p99_ms,heap_start_mb,heap_peak_mb,heap_end_mb\n";
+
+    // "{x} {y} {z}" is replaced with a spot near the Steve's spawn
+    private static final List<String> SCRIPT = List.of(
+        "build a base and mine iron",
+        "mine coal then build a tower",
+        "go to {x} {y} {z} then dig for iron",
+        "build a barn",
+        "gather coal and mine copper",
+        "build a castle then go to {x} {y} {z}"
+    );
+
+    private final GameTestHelper helper;
+    private final int agents;
+    private final int ticks;
+    private final List<SteveEntity> steves = new ArrayList<>();
+    private final List<AtomicBoolean> planning = new ArrayList<>();
+    private final int[] nextCommand;
+    private final Histogram planLatency;
+    private final Histogram tickTime;
+    private ExecutorService planners;
+
+    private long startNanos;
+    private long startPlaced;
+    private long startMined;
+    private long startHeap;
+    private long peakHeap;
+    private long plans;
+
+    private Simulation(GameTestHelper helper, int agents, int ticks) {
+        this.helper = helper;
+        this.agents = agents;
+        this.ticks = ticks;
+        this.nextCommand = new int[agents];
+        String label = String.valueOf(agents);
+        this.planLatency = Metrics.histogram("steve_simulation_plan_seconds",
+            "Wall time from handing a Steve a command to its plan being handed to the server thread", 1e-3, "agents", label);
+        this.tickTime = Metrics.histogram("steve_simulation_tick_seconds",
+            "Server tick time during a simulation run", 1e-6, "agents", label);
+    }
+
+    /**
+     * Run {@code agents} Steves for {@code ticks} ticks, then succeed the test with the report logged
+     */
+    public static void run(GameTestHelper helper, int agents, int ticks) {
+        Simulation simulation = new Simulation(helper, agents, ticks);
+        simulation.start();
+        helper.onEachTick(simulation::tick);
+        helper.runAtTickTime(ticks, () -> {
+            simulation.finish();
+            helper.succeed();
+        });
+    }
+
+    private void start() {
+        // In-memory overrides, cleared in finish(); the config file is never touched
+        SteveManager manager = SteveMod.getSteveManager();
+        TaskPlanner.overrideProvider("mock");
+        manager.overrideMaxSteves(Math.max(SteveConfig.MAX_ACTIVE_STEVES.get(), manager.getActiveCount() + agents));
+
+        layOreField();
+
+        for (int i = 0; i < agents; i++) {
+            Vec3 position = helper.absoluteVec(new Vec3(1.5 + (i % 8) * 2, 1, 1.5 + (i / 8) * 2));
+            SteveEntity steve = manager.spawnSteve(helper.getLevel(), position, "Sim" + agents + "_" + i);
+            if (steve == null) {
+                finish();
+                helper.fail("Could not spawn Steve " + i + " of " + agents);
+                return;
+            }
+            steves.add(steve);
+            planning.add(new AtomicBoolean());
+        }
+
+        planners = Executors.newFixedThreadPool(Math.min(agents, 16), runnable -> {
+            Thread thread = new Thread(runnable, "Steve-Simulation-Planner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        startPlaced = SteveMetrics.BLOCKS_PLACED.get();
+        startMined = SteveMetrics.BLOCKS_MINED.get();
+        startHeap = usedHeap();
+        peakHeap = startHeap;
+        startNanos = System.nanoTime();
+        SteveMod.LOGGER.info("Simulation started: {} Steves for {} ticks", agents, ticks);
+    }
+
+    /**
+     * Ore in a fixed pattern under the test area, so mining runs are repeatable
+     */
+    private void layOreField() {
+        ServerLevel level = helper.getLevel();
+        BlockPos origin = helper.absolutePos(BlockPos.ZERO);
+        Random random = new Random(SEED);
+        Block[] ores = {Blocks.IRON_ORE, Blocks.COAL_ORE, Blocks.COPPER_ORE};
+        for (int x = -ORE_FIELD_RADIUS; x <= ORE_FIELD_RADIUS; x++) {
+            for (int z = -ORE_FIELD_RADIUS; z <= ORE_FIELD_RADIUS; z++) {
+                for (int y = -4; y <= -2; y++) {
+                    Block block = random.nextInt(4) == 0 ? ores[random.nextInt(ores.length)] : Blocks.STONE;
+                    level.setBlock(origin.offset(x, y, z), block.defaultBlockState(), 2);
+                }
+            }
+        }
+    }
+
+    private void tick() {
+        if (planners == null) {
+            return;
+        }
+        MinecraftServer server = helper.getLevel().getServer();
+        tickTime.record(server.tickTimes[Math.floorMod(server.getTickCount() - 1, server.tickTimes.length)] / 1000);
+        peakHeap = Math.max(peakHeap, usedHeap());
+
+        for (int i = 0; i < steves.size(); i++) {
+            SteveEntity steve = steves.get(i);
+            AtomicBoolean busy = planning.get(i);
+            if (!busy.get() && steve.isAlive() && steve.getActionExecutor().isIdle()) {
+                String command = nextCommand(i, steve);
+                busy.set(true);
+                plans++;
+                planners.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        steve.getActionExecutor().processNaturalLanguageCommand(command);
+                    } finally {
+                        planLatency.recordSince(start);
+                        busy.set(false);
+                    }
+                });
+            }
+        }
+    }
+
+    private String nextCommand(int agent, SteveEntity steve) {
+        String command = SCRIPT.get((agent + nextCommand[agent]++) % SCRIPT.size());
+        BlockPos target = steve.blockPosition().offset(8 - agent % 16, 0, 8 - agent / 16 % 16);
+        return command
+            .replace("{x}", String.valueOf(target.getX()))
+            .replace("{y}", String.valueOf(target.getY()))
+            .replace("{z}", String.valueOf(target.getZ()));
+    }
+
+    private void finish() {
+        double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+        if (planners != null) {
+            planners.shutdownNow();
+            planners = null;
+        }
+        SteveManager manager = SteveMod.getSteveManager();
+        for (SteveEntity steve : steves) {
+            manager.removeSteve(steve.getSteveName());
+        }
+        TaskPlanner.overrideProvider(null);
+        manager.overrideMaxSteves(0);
+        if (steves.size() < agents) {
+            return;  // Failed to start, nothing to report
+        }
+
+        double msptMean = tickTime.getCount() == 0 ? 0 : tickTime.getSumSeconds() * 1000 / tickTime.getCount();
+        double placedPerSecond = (SteveMetrics.BLOCKS_PLACED.get() - startPlaced) / wallSeconds;
+        double minedPerSecond = (SteveMetrics.BLOCKS_MINED.get() - startMined) / wallSeconds;
+        String row = String.format(Locale.ROOT,
+            "%d,%d,%.1f,%.2f,%.2f,%.2f,%.1f,%.1f,%d,%.0f,%.0f,%.0f,%d,%d,%d%n",
+            agents, ticks, wallSeconds,
+            msptMean, tickTime.quantileSeconds(0.95) * 1000, tickTime.quantileSeconds(1.0) * 1000,
+            placedPerSecond, minedPerSecond,
+            plans, planLatency.quantileSeconds(0.5) * 1000, planLatency.quantileSeconds(0.95) * 1000,
+            planLatency.quantileSeconds(0.99) * 1000,
+            startHeap >> 20, peakHeap >> 20, usedHeap() >> 20);
+
+        SteveMod.LOGGER.info("Simulation with {} Steves: MSPT mean {} / p95 {} ms, {} placed/s, {} mined/s, "
+                + "{} plans (p50 {} / p95 {} ms), heap peak {} MB",
+            agents, String.format("%.2f", msptMean), String.format("%.2f", tickTime.quantileSeconds(0.95) * 1000),
+            String.format("%.1f", placedPerSecond), String.format("%.1f", minedPerSecond),
+            plans, Math.round(planLatency.quantileSeconds(0.5) * 1000), Math.round(planLatency.quantileSeconds(0.95) * 1000),
+            peakHeap >> 20);
+        writeRow(helper.getLevel().getServer().getServerDirectory().toPath().resolve("steve-simulation.csv"), row);
+    }
+
+    private static void writeRow(Path file, String row) {
+        try {
+            if (!Files.exists(file)) {
+                Files.writeString(file, CSV_HEADER, StandardCharsets.UTF_8);
+            }
+            Files.writeString(file, row, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            SteveMod.LOGGER.error("Could not write simulation results to {}", file, e);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,34 @@
+package com.steve.ai.simulation;
+
+import com.steve.ai.SteveMod;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+/**
+ * Throughput runs at 1, 10 and 50 Steves, one batch each so they run one after another.
+ * Run with {@code ./gradlew runGameTestServer}; results go to the log and run/gametest/steve-simulation.csv.
+ * {@code -Dsteve.simulation.ticks} changes the measured length (default 2400 ticks, two minutes of game time).
+ */
+@GameTestHolder(SteveMod.MODID)
+@PrefixGameTestTemplate(false)
+public class SimulationGameTests {
+    private static final int TIMEOUT_TICKS = 20 * 60 * 15;
+    private static final int TICKS = Math.min(Integer.getInteger("steve.simulation.ticks", 2400), TIMEOUT_TICKS - 20);
+
+    @GameTest(templateNamespace = "forge", template = "empty3x3x3", batch = "steve_simulation_1", timeoutTicks = TIMEOUT_TICKS)
+    public static void oneAgent(GameTestHelper helper) {
+        Simulation.run(helper, 1, TICKS);
+    }
+
+    @GameTest(templateNamespace = "forge", template = "empty3x3x3", batch = "steve_simulation_10", timeoutTicks = TIMEOUT_TICKS)
+    public static void tenAgents(GameTestHelper helper) {
+        Simulation.run(helper, 10, TICKS);
+    }
+
+    @GameTest(templateNamespace = "forge", template = "empty3x3x3", batch = "steve_simulation_50", timeoutTicks = TIMEOUT_TICKS)
+    public static void fiftyAgents(GameTestHelper helper) {
+        Simulation.run(helper, 50, TICKS);
+    }
+}
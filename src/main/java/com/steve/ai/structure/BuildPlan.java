@@ -0,0 +1,286 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.structure.StructureGenerators.BlockPlacement;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.AbstractBannerBlock;
+import net.minecraft.world.level.block.AmethystClusterBlock;
+import net.minecraft.world.level.block.BaseRailBlock;
+import net.minecraft.world.level.block.BasePressurePlateBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.BushBlock;
+import net.minecraft.world.level.block.CandleBlock;
+import net.minecraft.world.level.block.CarpetBlock;
+import net.minecraft.world.level.block.DiodeBlock;
+import net.minecraft.world.level.block.DoorBlock;
+import net.minecraft.world.level.block.FaceAttachedHorizontalDirectionalBlock;
+import net.minecraft.world.level.block.LadderBlock;
+import net.minecraft.world.level.block.LanternBlock;
+import net.minecraft.world.level.block.RedStoneWireBlock;
+import net.minecraft.world.level.block.SignBlock;
+import net.minecraft.world.level.block.SnowLayerBlock;
+import net.minecraft.world.level.block.TorchBlock;
+import net.minecraft.world.level.block.TripWireHookBlock;
+import net.minecraft.world.level.block.VineBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The blocks of a structure, generated on demand one layer (Y level) at a time from the bottom up.
+ * Only the layer being placed is ever materialized, so memory stays flat however large the structure is.
+ * Size and footprint are counted once up front by running the generator without allocating placements.
+ */
+public final class BuildPlan implements Iterable<BlockPlacement> {
+
+    /**
+     * Emits the blocks of layer {@code y} (relative to the plan origin) in placement order
+     */
+    @FunctionalInterface
+    public interface Layers {
+        void generate(int y, LayerSink sink);
+    }
+
+    @FunctionalInterface
+    public interface LayerSink {
+        void accept(int x, int z, BlockState state, CompoundTag blockEntityTag);
+
+        default void accept(int x, int z, Block block) {
+            accept(x, z, block.defaultBlockState(), null);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ColumnFilter {
+        boolean test(int x, int z);
+    }
+
+    private final BlockPos origin;
+    private final int layerCount;
+    private final Layers layers;
+    private int size;
+    private int minX = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int minZ = Integer.MAX_VALUE;
+    private int maxZ = Integer.MIN_VALUE;
+
+    /**
+     * @param layerCount number of layers from the origin up; layers past the generator's top may simply be empty
+     */
+    public BuildPlan(BlockPos origin, int layerCount, Layers layers) {
+        this.origin = origin.immutable();
+        this.layerCount = Math.max(0, layerCount);
+        this.layers = layers;
+        for (int y = 0; y < this.layerCount; y++) {
+            layers.generate(y, (x, z, state, blockEntityTag) -> {
+                size++;
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minZ = Math.min(minZ, z);
+                maxZ = Math.max(maxZ, z);
+            });
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public BlockPos getOrigin() {
+        return origin;
+    }
+
+    public int getMinY() {
+        return origin.getY();
+    }
+
+    /**
+     * Exclusive
+     */
+    public int getMaxY() {
+        return origin.getY() + layerCount;
+    }
+
+    public int getMinX() {
+        return origin.getX() + minX;
+    }
+
+    public int getMaxX() {
+        return origin.getX() + maxX;
+    }
+
+    public int getMinZ() {
+        return origin.getZ() + minZ;
+    }
+
+    public int getMaxZ() {
+        return origin.getZ() + maxZ;
+    }
+
+    /**
+     * Visit the blocks of world layer {@code y} in placement order, with world X/Z, without allocating placements
+     */
+    public void forEachInLayer(int y, LayerSink sink) {
+        int relativeY = y - origin.getY();
+        if (relativeY < 0 || relativeY >= layerCount) {
+            return;
+        }
+        int originX = origin.getX();
+        int originZ = origin.getZ();
+        layers.generate(relativeY, (x, z, state, blockEntityTag) -> sink.accept(originX + x, originZ + z, state, blockEntityTag));
+    }
+
+    /**
+     * The placements of world layer {@code y}
+     */
+    public List<BlockPlacement> layer(int y) {
+        return layer(y, (x, z) -> true);
+    }
+
+    /**
+     * The placements of world layer {@code y} in the columns {@code filter} accepts. Blocks that need
+     * a neighbour to stay in place (torches, doors, ladders...) come after the rest of the layer, so
+     * whatever they attach to is already there. Each of the two groups is walked along a Hilbert curve
+     * so consecutive blocks are next to each other wherever the layer allows.
+     */
+    public List<BlockPlacement> layer(int y, ColumnFilter filter) {
+        List<BlockPlacement> placements = new ArrayList<>();
+        List<BlockPlacement> attachables = new ArrayList<>();
+        forEachInLayer(y, (x, z, state, blockEntityTag) -> {
+            if (filter.test(x, z)) {
+                BlockPlacement placement = new BlockPlacement(new BlockPos(x, y, z), state, blockEntityTag);
+                (needsSupport(state) ? attachables : placements).add(placement);
+            }
+        });
+        List<BlockPlacement> ordered = hilbertOrder(placements);
+        ordered.addAll(hilbertOrder(attachables));
+        return ordered;
+    }
+
+    /**
+     * Stable sort along a Hilbert curve over the plan's footprint; placements at the same spot keep their
+     * generation order. The curve starts on a chunk boundary so it finishes one chunk before the next.
+     */
+    private List<BlockPlacement> hilbertOrder(List<BlockPlacement> placements) {
+        int count = placements.size();
+        if (count < 3) {
+            return new ArrayList<>(placements);
+        }
+        int curveX = getMinX() & ~15;
+        int curveZ = getMinZ() & ~15;
+        int extent = Math.max(getMaxX() - curveX, getMaxZ() - curveZ);
+        int side = Math.min(1 << 15, Integer.highestOneBit(Math.max(1, extent)) << 1);
+
+        // Curve index in the high bits, original position in the low bits
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            BlockPos pos = placements.get(i).pos;
+            int x = Math.min(side - 1, pos.getX() - curveX);
+            int z = Math.min(side - 1, pos.getZ() - curveZ);
+            keys[i] = hilbertIndex(side, x, z) << 32 | i;
+        }
+        Arrays.sort(keys);
+        List<BlockPlacement> ordered = new ArrayList<>(count);
+        for (long key : keys) {
+            ordered.add(placements.get((int) key));
+        }
+        return ordered;
+    }
+
+    /**
+     * Distance of (x, z) along the Hilbert curve filling a {@code side} x {@code side} square (side a power of two)
+     */
+    static long hilbertIndex(int side, int x, int z) {
+        long index = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int rz = (z & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ rz);
+            if (rz == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    z = side - 1 - z;
+                }
+                int t = x;
+                x = z;
+                z = t;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Whether the block pops off unless a neighbouring block holds it up
+     */
+    public static boolean needsSupport(BlockState state) {
+        Block block = state.getBlock();
+        return block instanceof TorchBlock
+            || block instanceof DoorBlock
+            || block instanceof LadderBlock
+            || block instanceof SignBlock
+            || block instanceof AbstractBannerBlock
+            || block instanceof FaceAttachedHorizontalDirectionalBlock
+            || block instanceof BasePressurePlateBlock
+            || block instanceof BaseRailBlock
+            || block instanceof CarpetBlock
+            || block instanceof BushBlock
+            || block instanceof VineBlock
+            || block instanceof RedStoneWireBlock
+            || block instanceof DiodeBlock
+            || block instanceof LanternBlock
+            || block instanceof TripWireHookBlock
+            || block instanceof SnowLayerBlock
+            || block instanceof CandleBlock
+            || block instanceof AmethystClusterBlock;
+    }
+
+    /**
+     * Bottom to top, generating each layer when the previous one is used up
+     */
+    @Override
+    public Iterator<BlockPlacement> iterator() {
+        return new Iterator<>() {
+            private int nextY = getMinY();
+            private Iterator<BlockPlacement> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && nextY < getMaxY()) {
+                    current = layer(nextY++).iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public BlockPlacement next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<BlockPlacement> spliterator() {
+        return Spliterators.spliterator(iterator(), size,
+            Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    public Stream<BlockPlacement> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
@@ -0,0 +1,119 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.SteveMod;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+
+/**
+ * Reads Litematica schematics (.litematic). Each region stores its blocks as a long array of
+ * palette ids bit-packed across word boundaries, in x, z, y order; regions are merged into one
+ * template positioned relative to their common minimum corner.
+ */
+final class LitematicaReader {
+    private LitematicaReader() {
+    }
+
+    static StructureTemplateLoader.LoadedTemplate read(CompoundTag nbt, String name) {
+        CompoundTag regions = nbt.getCompound("Regions");
+
+        // Region sizes may be negative, meaning the region extends the other way from its position
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (String regionName : regions.getAllKeys()) {
+            CompoundTag region = regions.getCompound(regionName);
+            int[] corner = regionCorner(region);
+            int[] size = regionSize(region);
+            minX = Math.min(minX, corner[0]);
+            minY = Math.min(minY, corner[1]);
+            minZ = Math.min(minZ, corner[2]);
+            maxX = Math.max(maxX, corner[0] + size[0]);
+            maxY = Math.max(maxY, corner[1] + size[1]);
+            maxZ = Math.max(maxZ, corner[2] + size[2]);
+        }
+
+        StructureTemplateLoader.TemplateBuilder builder = new StructureTemplateLoader.TemplateBuilder(name);
+        for (String regionName : regions.getAllKeys()) {
+            CompoundTag region = regions.getCompound(regionName);
+            int[] corner = regionCorner(region);
+            int[] size = regionSize(region);
+            int offsetX = corner[0] - minX;
+            int offsetY = corner[1] - minY;
+            int offsetZ = corner[2] - minZ;
+
+            ListTag paletteTag = region.getList("BlockStatePalette", 10);
+            int[] stateIds = new int[paletteTag.size()];
+            for (int i = 0; i < stateIds.length; i++) {
+                stateIds[i] = builder.stateId(StructureTemplateLoader.decodePaletteEntry(paletteTag.getCompound(i)));
+            }
+            if (stateIds.length == 0) {
+                continue;
+            }
+
+            long[] words = region.getLongArray("BlockStates");
+            int bits = Math.max(2, Integer.SIZE - Integer.numberOfLeadingZeros(stateIds.length - 1));
+            long mask = (1L << bits) - 1;
+            int volume = size[0] * size[1] * size[2];
+            if ((long) volume * bits > (long) words.length * Long.SIZE) {
+                SteveMod.LOGGER.warn("Region '{}' of '{}' has less block data than its size, skipping it", regionName, name);
+                continue;
+            }
+
+            int layerSize = size[0] * size[2];
+            for (int index = 0; index < volume; index++) {
+                long bit = (long) index * bits;
+                int word = (int) (bit >>> 6);
+                int offset = (int) (bit & 63);
+                long value = words[word] >>> offset;
+                if (offset + bits > Long.SIZE) {
+                    value |= words[word + 1] << (Long.SIZE - offset);
+                }
+                int id = (int) (value & mask);
+                if (id >= stateIds.length) {
+                    continue;
+                }
+                int y = index / layerSize;
+                int z = index % layerSize / size[0];
+                int x = index % size[0];
+                builder.add(offsetX + x, offsetY + y, offsetZ + z, stateIds[id]);
+            }
+
+            ListTag tileEntities = region.getList("TileEntities", 10);
+            for (int i = 0; i < tileEntities.size(); i++) {
+                CompoundTag tag = tileEntities.getCompound(i).copy();
+                int x = tag.getInt("x");
+                int y = tag.getInt("y");
+                int z = tag.getInt("z");
+                tag.remove("x");
+                tag.remove("y");
+                tag.remove("z");
+                builder.addBlockEntity(offsetX + x, offsetY + y, offsetZ + z, tag);
+            }
+        }
+
+        int width = Math.max(0, maxX - minX);
+        int height = Math.max(0, maxY - minY);
+        int depth = Math.max(0, maxZ - minZ);
+        StructureTemplateLoader.LoadedTemplate template = builder.build(width, height, depth);
+        SteveMod.LOGGER.info("Loaded {} blocks from Litematica schematic '{}' with {} regions ({}x{}x{})",
+            template.getBlockCount(), name, regions.size(), width, height, depth);
+        return template;
+    }
+
+    private static int[] regionSize(CompoundTag region) {
+        CompoundTag size = region.getCompound("Size");
+        return new int[]{Math.abs(size.getInt("x")), Math.abs(size.getInt("y")), Math.abs(size.getInt("z"))};
+    }
+
+    /**
+     * Minimum corner of the region
+     */
+    private static int[] regionCorner(CompoundTag region) {
+        CompoundTag position = region.getCompound("Position");
+        CompoundTag size = region.getCompound("Size");
+        return new int[]{
+            position.getInt("x") + Math.min(0, size.getInt("x") + 1),
+            position.getInt("y") + Math.min(0, size.getInt("y") + 1),
+            position.getInt("z") + Math.min(0, size.getInt("z") + 1)
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.steve.ai.structure;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.steve.ai.SteveMod;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads Sponge schematics (.schem, versions 1 to 3, as written by WorldEdit). Blocks are one byte array
+ * of varint palette ids in x, z, y order, decoded in a single pass straight into the packed template.
+ */
+final class SpongeSchematicReader {
+    // Palette key ("minecraft:oak_stairs[facing=east,half=bottom]") -> state, shared by every schematic
+    private static final Map<String, BlockState> paletteStates = new ConcurrentHashMap<>();
+
+    private SpongeSchematicReader() {
+    }
+
+    static StructureTemplateLoader.LoadedTemplate read(CompoundTag nbt, String name) {
+        // Version 3 nests everything in a "Schematic" compound and moves blocks into "Blocks"
+        CompoundTag schematic = nbt.contains("Schematic", 10) ? nbt.getCompound("Schematic") : nbt;
+        int version = schematic.getInt("Version");
+        int width = schematic.getShort("Width") & 0xFFFF;
+        int height = schematic.getShort("Height") & 0xFFFF;
+        int length = schematic.getShort("Length") & 0xFFFF;
+        CompoundTag blocks = version >= 3 ? schematic.getCompound("Blocks") : schematic;
+        CompoundTag paletteTag = blocks.getCompound("Palette");
+        byte[] data = blocks.getByteArray(version >= 3 ? "Data" : "BlockData");
+
+        StructureTemplateLoader.TemplateBuilder builder = new StructureTemplateLoader.TemplateBuilder(name);
+        int air = builder.stateId(Blocks.AIR.defaultBlockState());
+        int paletteSize = 0;
+        for (String key : paletteTag.getAllKeys()) {
+            paletteSize = Math.max(paletteSize, paletteTag.getInt(key) + 1);
+        }
+        int[] stateIds = new int[paletteSize];
+        for (String key : paletteTag.getAllKeys()) {
+            stateIds[paletteTag.getInt(key)] = builder.stateId(parseState(key));
+        }
+
+        int layerSize = width * length;
+        int index = 0;
+        int i = 0;
+        while (i < data.length && index < layerSize * height) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[i++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0 && i < data.length);
+            if ((b & 0x80) != 0) {
+                break; // data ends inside a varint; its low bits alone would be a different id
+            }
+
+            int y = index / layerSize;
+            int z = index % layerSize / width;
+            int x = index % width;
+            builder.add(x, y, z, value < stateIds.length ? stateIds[value] : air);
+            index++;
+        }
+
+        ListTag blockEntities = blocks.contains("BlockEntities", 9)
+            ? blocks.getList("BlockEntities", 10)
+            : blocks.getList("TileEntities", 10);
+        for (int j = 0; j < blockEntities.size(); j++) {
+            CompoundTag entry = blockEntities.getCompound(j);
+            int[] pos = entry.getIntArray("Pos");
+            if (pos.length < 3) {
+                continue;
+            }
+            // Version 3 keeps the block entity's own data in "Data", earlier versions inline it
+            CompoundTag tag = entry.contains("Data", 10) ? entry.getCompound("Data").copy() : entry.copy();
+            tag.remove("Pos");
+            tag.remove("Id");
+            tag.putString("id", entry.getString("Id"));
+            builder.addBlockEntity(pos[0], pos[1], pos[2], tag);
+        }
+
+        StructureTemplateLoader.LoadedTemplate template = builder.build(width, height, length);
+        SteveMod.LOGGER.info("Loaded {} blocks from Sponge schematic '{}' v{} ({}x{}x{})",
+            template.getBlockCount(), name, version, width, height, length);
+        return template;
+    }
+
+    private static BlockState parseState(String key) {
+        return paletteStates.computeIfAbsent(key, text -> {
+            try {
+                return BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), text, false).blockState();
+            } catch (CommandSyntaxException e) {
+                SteveMod.LOGGER.warn("Unknown block in schematic: {}", text);
+                return Blocks.AIR.defaultBlockState();
+            }
+        });
+    }
+}
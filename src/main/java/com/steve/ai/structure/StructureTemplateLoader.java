@@ -2,12 +2,13 @@ package com.steve.ai.structure;
 
 import com.steve.ai.SteveMod;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtUtils;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
 
@@ -16,63 +17,230 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 /**
- * Loads Minecraft structure templates from NBT files for sequential block-by-block placement
+ * Loads Minecraft structure templates from NBT files for sequential block-by-block placement.
+ * Files are read and decoded off the server thread, once per file version, into a packed
+ * layer-sorted form; callers get a future and pick the template up when it completes.
  */
 public class StructureTemplateLoader {
-    
-    public static class TemplateBlock {
-        public final BlockPos relativePos;
-        public final BlockState blockState;
-        
-        public TemplateBlock(BlockPos relativePos, BlockState blockState) {
-            this.relativePos = relativePos;
-            this.blockState = blockState;
-        }
+    // Block entries decoded per parallel task
+    private static final int DECODE_CHUNK = 4096;
+
+    // Vanilla structure NBT, Sponge schematics and Litematica schematics, in lookup order
+    private static final List<String> EXTENSIONS = List.of(".nbt", ".schem", ".litematic");
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Steve-Template-Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record CachedTemplate(long lastModified, CompletableFuture<LoadedTemplate> template) {
     }
-    
+
+    // Absolute path -> decode of the file as last seen on disk
+    private static final Map<String, CachedTemplate> cache = new ConcurrentHashMap<>();
+
+    // Palette entry (Name + Properties) -> decoded state, shared by every template
+    private static final Map<CompoundTag, BlockState> paletteStates = new ConcurrentHashMap<>();
+
+    /**
+     * A decoded template: block positions packed with {@link BlockPos#asLong}, palette indices and
+     * (sparse) block entity data, all sorted by Y so a layer is a contiguous range.
+     */
     public static class LoadedTemplate {
         public final String name;
-        public final List<TemplateBlock> blocks;
+        public final List<BlockState> palette;
         public final int width;
         public final int height;
         public final int depth;
-        
-        public LoadedTemplate(String name, List<TemplateBlock> blocks, int width, int height, int depth) {
+        private final long[] positions;
+        private final int[] states;
+        private final CompoundTag[] blockEntities;  // null when the template has none
+        private final int[] layerStarts;  // layer y is [layerStarts[y], layerStarts[y + 1])
+
+        private LoadedTemplate(String name, List<BlockState> palette, long[] positions, int[] states,
+                               CompoundTag[] blockEntities, int[] layerStarts, int width, int height, int depth) {
             this.name = name;
-            this.blocks = blocks;
+            this.palette = palette;
+            this.positions = positions;
+            this.states = states;
+            this.blockEntities = blockEntities;
+            this.layerStarts = layerStarts;
             this.width = width;
             this.height = height;
             this.depth = depth;
         }
+
+        /**
+         * Sort the first {@code count} decoded blocks into layers, dropping entries with a negative state
+         * (air or undecodable). {@code blockEntities} may be null.
+         */
+        static LoadedTemplate pack(String name, List<BlockState> palette, long[] positions, int[] states, int count,
+                                   CompoundTag[] blockEntities, int width, int height, int depth) {
+            int layers = 0;
+            for (int i = 0; i < count; i++) {
+                int y = BlockPos.getY(positions[i]);
+                if (states[i] >= 0 && y >= 0) {
+                    layers = Math.max(layers, y + 1);
+                }
+            }
+            int[] layerStarts = new int[layers + 1];
+            for (int i = 0; i < count; i++) {
+                int y = BlockPos.getY(positions[i]);
+                if (states[i] >= 0 && y >= 0) {
+                    layerStarts[y + 1]++;
+                }
+            }
+            for (int y = 0; y < layers; y++) {
+                layerStarts[y + 1] += layerStarts[y];
+            }
+            int[] next = Arrays.copyOf(layerStarts, layers);
+            long[] sortedPositions = new long[layerStarts[layers]];
+            int[] sortedStates = new int[layerStarts[layers]];
+            CompoundTag[] sortedBlockEntities = blockEntities != null ? new CompoundTag[layerStarts[layers]] : null;
+            for (int i = 0; i < count; i++) {
+                int y = BlockPos.getY(positions[i]);
+                if (states[i] >= 0 && y >= 0) {
+                    int slot = next[y]++;
+                    sortedPositions[slot] = positions[i];
+                    sortedStates[slot] = states[i];
+                    if (sortedBlockEntities != null) {
+                        sortedBlockEntities[slot] = blockEntities[i];
+                    }
+                }
+            }
+            return new LoadedTemplate(name, palette, sortedPositions, sortedStates, sortedBlockEntities, layerStarts,
+                width, height, depth);
+        }
+
+        public int getBlockCount() {
+            return positions.length;
+        }
+
+        public int getLayerCount() {
+            return layerStarts.length - 1;
+        }
+
+        public void forEachInLayer(int y, BuildPlan.LayerSink sink) {
+            if (y < 0 || y >= getLayerCount()) {
+                return;
+            }
+            for (int i = layerStarts[y]; i < layerStarts[y + 1]; i++) {
+                sink.accept(BlockPos.getX(positions[i]), BlockPos.getZ(positions[i]), palette.get(states[i]),
+                    blockEntities != null ? blockEntities[i] : null);
+            }
+        }
+    }
+    
+    /**
+     * Collects blocks one at a time into the packed arrays a {@link LoadedTemplate} is built from,
+     * for formats whose block data is a flat array rather than a list of compounds
+     */
+    static final class TemplateBuilder {
+        private final String name;
+        private final List<BlockState> palette = new ArrayList<>();
+        private final Map<BlockState, Integer> paletteIds = new HashMap<>();
+        private final Map<Long, CompoundTag> blockEntities = new HashMap<>();
+        private long[] positions = new long[4096];
+        private int[] states = new int[4096];
+        private int count;
+
+        TemplateBuilder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Palette id of a state, added on first use
+         */
+        int stateId(BlockState state) {
+            return paletteIds.computeIfAbsent(state, key -> {
+                palette.add(key);
+                return palette.size() - 1;
+            });
+        }
+
+        /**
+         * Add a block by palette id; air is skipped
+         */
+        void add(int x, int y, int z, int stateId) {
+            if (palette.get(stateId).isAir()) {
+                return;
+            }
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+                states = Arrays.copyOf(states, count * 2);
+            }
+            positions[count] = BlockPos.asLong(x, y, z);
+            states[count] = stateId;
+            count++;
+        }
+
+        void addBlockEntity(int x, int y, int z, CompoundTag tag) {
+            blockEntities.put(BlockPos.asLong(x, y, z), tag);
+        }
+
+        LoadedTemplate build(int width, int height, int depth) {
+            CompoundTag[] aligned = null;
+            if (!blockEntities.isEmpty()) {
+                aligned = new CompoundTag[count];
+                for (int i = 0; i < count; i++) {
+                    aligned[i] = blockEntities.get(positions[i]);
+                }
+            }
+            return LoadedTemplate.pack(name, palette, positions, states, count, aligned, width, height, depth);
+        }
     }
     
     /**
-     * Load a structure from an NBT file (either custom or Minecraft's native format)
+     * Load a structure from an NBT file (either custom or Minecraft's native format) off the server thread.
+     * Completes with null if there is no such structure or it can't be read.
      */
-    public static LoadedTemplate loadFromNBT(ServerLevel level, String structureName) {        File structuresDir = new File(System.getProperty("user.dir"), "structures");
+    public static CompletableFuture<LoadedTemplate> loadAsync(ServerLevel level, String structureName) {
+        return CompletableFuture.supplyAsync(() -> findTemplateFile(structureName), LOADER)
+            .thenCompose(file -> file != null
+                ? loadCached(file, structureName)
+                : CompletableFuture.completedFuture(loadFromStructureManager(level, structureName)));
+    }
+
+    private static File findTemplateFile(String structureName) {
+        File structuresDir = new File(System.getProperty("user.dir"), "structures");
         SteveMod.LOGGER.info("Structures directory: {}", structuresDir.getAbsolutePath());
         
-        File exactMatch = new File(structuresDir, structureName + ".nbt");
-        if (exactMatch.exists()) {
-            SteveMod.LOGGER.info("Found structure (exact match): {}", exactMatch.getName());
-            return loadFromFile(exactMatch, structureName);
+        for (String extension : EXTENSIONS) {
+            File exactMatch = new File(structuresDir, structureName + extension);
+            if (exactMatch.exists()) {
+                SteveMod.LOGGER.info("Found structure (exact match): {}", exactMatch.getName());
+                return exactMatch;
+            }
         }
         
         String withSpaces = structureName.replaceAll("(\\w)(\\p{Upper})", "$1 $2").toLowerCase();
-        File spacedMatch = new File(structuresDir, withSpaces + ".nbt");
-        if (spacedMatch.exists()) {
-            SteveMod.LOGGER.info("Found structure (spaced match): {}", spacedMatch.getName());
-            return loadFromFile(spacedMatch, structureName);
+        for (String extension : EXTENSIONS) {
+            File spacedMatch = new File(structuresDir, withSpaces + extension);
+            if (spacedMatch.exists()) {
+                SteveMod.LOGGER.info("Found structure (spaced match): {}", spacedMatch.getName());
+                return spacedMatch;
+            }
         }
         
         if (structuresDir.exists() && structuresDir.isDirectory()) {
             File[] files = structuresDir.listFiles((dir, name) -> {
-                if (!name.endsWith(".nbt")) return false;
+                String extension = extensionOf(name);
+                if (extension == null) return false;
                 
-                String nameWithoutExt = name.substring(0, name.length() - 4);
+                String nameWithoutExt = name.substring(0, name.length() - extension.length());
                 
                 // Normalize both strings: lowercase, remove spaces and underscores
                 String normalizedFile = nameWithoutExt.toLowerCase().replace(" ", "").replace("_", "");
@@ -83,10 +251,25 @@ public class StructureTemplateLoader {
             
             if (files != null && files.length > 0) {
                 SteveMod.LOGGER.info("Found structure (fuzzy match): {}", files[0].getName());
-                return loadFromFile(files[0], structureName);
+                return files[0];
             }
         }
-        
+        return null;
+    }
+
+    /**
+     * The decode of this file, started now unless one for the same modification time is cached
+     */
+    private static CompletableFuture<LoadedTemplate> loadCached(File file, String name) {
+        long lastModified = file.lastModified();
+        CachedTemplate cached = cache.compute(file.getAbsolutePath(), (path, existing) ->
+            existing != null && existing.lastModified() == lastModified
+                ? existing
+                : new CachedTemplate(lastModified, CompletableFuture.supplyAsync(() -> loadFromFile(file, name), LOADER)));
+        return cached.template();
+    }
+
+    private static LoadedTemplate loadFromStructureManager(ServerLevel level, String structureName) {
         try {
             ResourceLocation resourceLocation = new ResourceLocation("steve", structureName);
             var templateManager = level.getStructureManager();
@@ -102,85 +285,92 @@ public class StructureTemplateLoader {
     }
     
     /**
-     * Load from a custom NBT file
+     * Load from a structure file, choosing the reader by extension
      */
     private static LoadedTemplate loadFromFile(File file, String name) {
         try (InputStream inputStream = new FileInputStream(file)) {
             CompoundTag nbt = NbtIo.readCompressed(inputStream);
-            return parseNBTStructure(nbt, name);
-        } catch (IOException e) {
+            return switch (extensionOf(file.getName())) {
+                case ".schem" -> SpongeSchematicReader.read(nbt, name);
+                case ".litematic" -> LitematicaReader.read(nbt, name);
+                default -> parseNBTStructure(nbt, name);
+            };
+        } catch (IOException | RuntimeException e) {
             SteveMod.LOGGER.error("Failed to load structure from file: {}", file, e);
             return null;
         }
     }
     
     /**
-     * Load from Minecraft's native StructureTemplate
-     * Note: This is a simplified version that works with NBT directly
+     * Load from Minecraft's native StructureTemplate (data packs, the structure block's saves) by
+     * writing it back out in the vanilla NBT format
      */
     private static LoadedTemplate loadFromMinecraftTemplate(StructureTemplate template, String name) {
-        List<TemplateBlock> blocks = new ArrayList<>();
-        
-        var size = template.getSize();
-        int width = size.getX();
-        int height = size.getY();
-        int depth = size.getZ();
-        
-        // This method is here for future compatibility with Minecraft's template system
-        
-        SteveMod.LOGGER.warn("Direct template loading not fully implemented, please use NBT files directly");
-        return null;
+        return parseNBTStructure(template.save(new CompoundTag()), name);
     }
     
     /**
-     * Parse a structure from raw NBT data
+     * Parse a structure from raw NBT data (the vanilla structure block format).
+     * The block list is decoded in parallel chunks straight into packed arrays.
      */
-    private static LoadedTemplate parseNBTStructure(CompoundTag nbt, String name) {
-        List<TemplateBlock> blocks = new ArrayList<>();
-        
+    public static LoadedTemplate parseNBTStructure(CompoundTag nbt, String name) {
         var sizeList = nbt.getList("size", 3); // 3 = TAG_Int
         int width = sizeList.getInt(0);
         int height = sizeList.getInt(1);
         int depth = sizeList.getInt(2);
         
         var paletteList = nbt.getList("palette", 10); // 10 = TAG_Compound
+        if (paletteList.isEmpty() && nbt.contains("palettes", 9)) {
+            // Random-variant templates keep several palettes; build the first one
+            paletteList = nbt.getList("palettes", 9).getList(0);
+        }
         List<BlockState> palette = new ArrayList<>();
         
         for (int i = 0; i < paletteList.size(); i++) {
-            CompoundTag blockTag = paletteList.getCompound(i);
-            String blockName = blockTag.getString("Name");
-            
-            try {
-                ResourceLocation blockLocation = new ResourceLocation(blockName);
-                Block block = net.minecraft.core.registries.BuiltInRegistries.BLOCK.get(blockLocation);
-                palette.add(block.defaultBlockState());
-            } catch (Exception e) {
-                SteveMod.LOGGER.warn("Unknown block in structure: {}", blockName);
-                palette.add(Blocks.AIR.defaultBlockState());
-            }
+            palette.add(decodePaletteEntry(paletteList.getCompound(i)));
         }
         
-        var blocksList = nbt.getList("blocks", 10);
-        for (int i = 0; i < blocksList.size(); i++) {
-            CompoundTag blockTag = blocksList.getCompound(i);
-            
-            int paletteIndex = blockTag.getInt("state");
-            var posList = blockTag.getList("pos", 3);
-            
-            BlockPos pos = new BlockPos(
-                posList.getInt(0),
-                posList.getInt(1),
-                posList.getInt(2)
-            );
-            
-            BlockState state = palette.get(paletteIndex);
-            if (!state.isAir()) {
-                blocks.add(new TemplateBlock(pos, state));
+        ListTag blocksList = nbt.getList("blocks", 10);
+        int count = blocksList.size();
+        long[] positions = new long[count];
+        int[] states = new int[count];
+        CompoundTag[] blockEntities = new CompoundTag[count];
+        AtomicBoolean hasBlockEntities = new AtomicBoolean();
+        int chunks = (count + DECODE_CHUNK - 1) / DECODE_CHUNK;
+        IntStream chunkIndices = IntStream.range(0, chunks);
+        (chunks > 1 ? chunkIndices.parallel() : chunkIndices).forEach(chunk -> {
+            int end = Math.min(count, (chunk + 1) * DECODE_CHUNK);
+            for (int i = chunk * DECODE_CHUNK; i < end; i++) {
+                CompoundTag blockTag = blocksList.getCompound(i);
+                int paletteIndex = blockTag.getInt("state");
+                var posList = blockTag.getList("pos", 3);
+                positions[i] = BlockPos.asLong(posList.getInt(0), posList.getInt(1), posList.getInt(2));
+                boolean valid = paletteIndex >= 0 && paletteIndex < palette.size() && !palette.get(paletteIndex).isAir();
+                states[i] = valid ? paletteIndex : -1;
+                if (valid && blockTag.contains("nbt", 10)) {
+                    blockEntities[i] = blockTag.getCompound("nbt");
+                    hasBlockEntities.set(true);
+                }
             }
-        }
+        });
         
-        SteveMod.LOGGER.info("Loaded {} blocks from NBT '{}' ({}x{}x{})", blocks.size(), name, width, height, depth);
-        return new LoadedTemplate(name, blocks, width, height, depth);
+        LoadedTemplate template = LoadedTemplate.pack(name, palette, positions, states, count,
+            hasBlockEntities.get() ? blockEntities : null, width, height, depth);
+        SteveMod.LOGGER.info("Loaded {} blocks from NBT '{}' ({}x{}x{})", template.getBlockCount(), name, width, height, depth);
+        return template;
+    }
+    
+    /**
+     * Full state of a palette entry, properties included; air if the block doesn't exist
+     */
+    static BlockState decodePaletteEntry(CompoundTag entry) {
+        return paletteStates.computeIfAbsent(entry, tag -> {
+            BlockState state = NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), tag);
+            if (state.isAir() && !tag.getString("Name").endsWith("air")) {
+                SteveMod.LOGGER.warn("Unknown block in structure: {}", tag.getString("Name"));
+            }
+            return state;
+        });
     }
     
     /**
@@ -191,16 +381,24 @@ public class StructureTemplateLoader {
         
         File structuresDir = new File(System.getProperty("user.dir"), "structures");
         if (structuresDir.exists() && structuresDir.isDirectory()) {
-            File[] files = structuresDir.listFiles((dir, name) -> name.endsWith(".nbt"));
+            File[] files = structuresDir.listFiles((dir, name) -> extensionOf(name) != null);
             if (files != null) {
                 for (File file : files) {
-                    String name = file.getName().replace(".nbt", "");
-                    structures.add(name);
+                    String name = file.getName();
+                    structures.add(name.substring(0, name.length() - extensionOf(name).length()));
                 }
             }
         }
         
         return structures;
     }
+    
+    private static String extensionOf(String fileName) {
+        for (String extension : EXTENSIONS) {
+            if (fileName.endsWith(extension)) {
+                return extension;
+            }
+        }
+        return null;
+    }
 }
-
@@ -0,0 +1,75 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.structure.StructureGenerators.BlockPlacement;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a batch of placements against the world so only real changes get placed. States are read
+ * straight from the chunk sections, each looked up once per batch instead of going through
+ * {@code Level.getBlockState} for every block.
+ */
+public final class WorldDiff {
+    private WorldDiff() {
+    }
+
+    /**
+     * The placements that would change the world, in their original order. Dropped: blocks already in
+     * the planned state (unless they carry block entity data), and placements overwritten later in the
+     * same batch. Blocks in chunks that aren't loaded are always kept.
+     */
+    public static List<BlockPlacement> changedOnly(Level level, List<BlockPlacement> placements) {
+        Map<BlockPos, Integer> lastIndex = new HashMap<>(placements.size() * 2);
+        for (int i = 0; i < placements.size(); i++) {
+            lastIndex.put(placements.get(i).pos, i);
+        }
+
+        Map<Long, LevelChunkSection> sections = new HashMap<>();
+        List<BlockPlacement> changed = new ArrayList<>();
+        for (int i = 0; i < placements.size(); i++) {
+            BlockPlacement placement = placements.get(i);
+            if (lastIndex.get(placement.pos) != i) {
+                continue;
+            }
+            if (placement.blockEntityTag == null && stateAt(level, sections, placement.pos) == placement.state) {
+                continue;
+            }
+            changed.add(placement);
+        }
+        return changed;
+    }
+
+    /**
+     * Null if the chunk isn't loaded or the position is outside the world's height
+     */
+    private static BlockState stateAt(Level level, Map<Long, LevelChunkSection> sections, BlockPos pos) {
+        long key = SectionPos.asLong(SectionPos.blockToSectionCoord(pos.getX()),
+            SectionPos.blockToSectionCoord(pos.getY()), SectionPos.blockToSectionCoord(pos.getZ()));
+        LevelChunkSection section;
+        if (sections.containsKey(key)) {
+            section = sections.get(key);
+        } else {
+            section = lookUpSection(level, pos);
+            sections.put(key, section);
+        }
+        return section != null ? section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15) : null;
+    }
+
+    private static LevelChunkSection lookUpSection(Level level, BlockPos pos) {
+        if (level.isOutsideBuildHeight(pos)) {
+            return null;
+        }
+        LevelChunk chunk = level.getChunkSource().getChunkNow(
+            SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        return chunk != null ? chunk.getSection(level.getSectionIndex(pos.getY())) : null;
+    }
+}
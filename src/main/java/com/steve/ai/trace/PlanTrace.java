@@ -0,0 +1,195 @@
+package com.steve.ai.trace;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.action.Task;
+import com.steve.ai.config.SteveConfig;
+import net.minecraft.server.MinecraftServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command/plan trace of a session, controlled by {@code trace.mode}:
+ * "record" appends every planned command (with the raw LLM response and timings) to a new file under
+ * {@code <server>/steve-traces/}; "replay" loads {@code trace.replayFile} and answers plan requests with
+ * the recorded responses instead of calling a provider, so a session can be re-run offline
+ * (see {@link TraceReplayer}) and its throughput and tick cost compared across builds.
+ */
+public final class PlanTrace {
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static volatile Mode mode = Mode.OFF;
+    private static DataOutputStream out;
+    private static long startMillis;
+    private static List<TraceRecord> replayRecords = List.of();  // Commands to re-issue, generated prompts left out
+    // steve + '\0' + command -> recorded responses still to hand out, in recorded order
+    private static final Map<String, Deque<String>> replayResponses = new HashMap<>();
+
+    private PlanTrace() {
+    }
+
+    /**
+     * Start recording or load the replay file, depending on the config (called when the server starts)
+     */
+    public static synchronized void bind(MinecraftServer server) {
+        Mode configured = parseMode(SteveConfig.TRACE_MODE.get());
+        Path root = server.getServerDirectory().toPath();
+        try {
+            if (configured == Mode.RECORD) {
+                Path file = root.resolve("steve-traces").resolve("trace-" + LocalDateTime.now().format(FILE_TIME) + ".strace");
+                Files.createDirectories(file.getParent());
+                // Sync-flushed after every record, so a crashed server still leaves a readable trace
+                out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(file), 8192, true)));
+                startMillis = System.currentTimeMillis();
+                TraceFormat.writeHeader(out, startMillis);
+                out.flush();
+                SteveMod.LOGGER.info("Recording command trace to {}", file);
+            } else if (configured == Mode.REPLAY) {
+                Path file = root.resolve(SteveConfig.TRACE_REPLAY_FILE.get());
+                loadReplay(read(file));
+                SteveMod.LOGGER.info("Loaded {} traced commands from {} for replay", replayRecords.size(), file);
+            }
+            mode = configured;
+        } catch (IOException e) {
+            SteveMod.LOGGER.error("Could not start command trace ({}), tracing is off", configured, e);
+            closeOutput();
+            mode = Mode.OFF;
+        }
+    }
+
+    /**
+     * Close the recording (called when the server stops)
+     */
+    public static synchronized void unbind() {
+        closeOutput();
+        replayRecords = List.of();
+        replayResponses.clear();
+        mode = Mode.OFF;
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static boolean isReplaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    /**
+     * Append one planned command to the trace; does nothing unless recording
+     */
+    public static void record(TraceRecord.Kind kind, String steve, long gameTick, String command, String source,
+                              String response, long llmNanos, long planNanos, List<Task> tasks) {
+        if (mode != Mode.RECORD) {
+            return;
+        }
+        synchronized (PlanTrace.class) {
+            if (out == null) {
+                return;
+            }
+            TraceRecord record = new TraceRecord(System.currentTimeMillis() - startMillis, gameTick, kind, steve, command,
+                source, response, llmNanos, planNanos, List.copyOf(tasks));
+            try {
+                TraceFormat.write(out, record);
+                out.flush();
+            } catch (IOException e) {
+                SteveMod.LOGGER.error("Failed to write command trace, recording stopped", e);
+                closeOutput();
+                mode = Mode.OFF;
+            }
+        }
+    }
+
+    /**
+     * The recorded LLM response for this command, in place of a provider call. Falls back to the same
+     * command from any Steve; null when the trace has nothing left for it (or the recorded request failed).
+     */
+    public static synchronized String replayResponse(String steve, String command) {
+        Deque<String> responses = replayResponses.get(steve + '\0' + command);
+        if (responses == null || responses.isEmpty()) {
+            responses = null;
+            for (Map.Entry<String, Deque<String>> entry : replayResponses.entrySet()) {
+                if (entry.getKey().endsWith('\0' + command) && !entry.getValue().isEmpty()) {
+                    responses = entry.getValue();
+                    break;
+                }
+            }
+        }
+        if (responses == null) {
+            SteveMod.LOGGER.warn("No traced response for '{}' from Steve '{}'", command, steve);
+            return null;
+        }
+        String response = responses.poll();
+        return response.isEmpty() ? null : response;
+    }
+
+    public static synchronized List<TraceRecord> getReplayRecords() {
+        return replayRecords;
+    }
+
+    public static List<TraceRecord> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            TraceFormat.readHeader(in);
+            List<TraceRecord> records = new ArrayList<>();
+            try {
+                for (TraceRecord record = TraceFormat.read(in); record != null; record = TraceFormat.read(in)) {
+                    records.add(record);
+                }
+            } catch (IOException e) {
+                // A trace from a server that didn't stop cleanly has no gzip trailer; keep every complete record
+                SteveMod.LOGGER.warn("Trace {} ends early after {} records", file, records.size());
+            }
+            return records;
+        }
+    }
+
+    private static void loadReplay(List<TraceRecord> records) {
+        replayRecords = records.stream().filter(record -> record.kind() == TraceRecord.Kind.COMMAND).toList();
+        replayResponses.clear();
+        for (TraceRecord record : records) {
+            if (!"local".equals(record.source())) {
+                // Failed requests are replayed as failures; "" stands in for null in the deque
+                replayResponses.computeIfAbsent(record.steve() + '\0' + record.command(), key -> new ArrayDeque<>())
+                    .add(record.response() != null ? record.response() : "");
+            }
+        }
+    }
+
+    private static void closeOutput() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                SteveMod.LOGGER.error("Failed to close command trace", e);
+            }
+            out = null;
+        }
+    }
+
+    private static Mode parseMode(String value) {
+        return switch (value.trim().toLowerCase()) {
+            case "record" -> Mode.RECORD;
+            case "replay" -> Mode.REPLAY;
+            default -> Mode.OFF;
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package com.steve.ai.trace;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.steve.ai.action.Task;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of a trace file (gzip-compressed): a header of magic, version and start time, then one
+ * record per plan, each starting with its kind. Numbers are unsigned LEB128 varints, strings are a varint
+ * byte length plus UTF-8 (nullable strings store length + 1, with 0 meaning null). Task parameters are
+ * kept as JSON.
+ */
+final class TraceFormat {
+    static final int MAGIC = 0x53545243;  // "STRC"
+    static final int VERSION = 1;
+
+    private static final Gson GSON = new Gson();
+    private static final Type PARAMETERS = new TypeToken<Map<String, Object>>() {}.getType();
+
+    private TraceFormat() {
+    }
+
+    static void writeHeader(DataOutputStream out, long startMillis) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(startMillis);
+    }
+
+    /**
+     * Returns the start time stored in the header
+     */
+    static long readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a Steve trace file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+        return in.readLong();
+    }
+
+    static void write(DataOutputStream out, TraceRecord record) throws IOException {
+        writeVarLong(out, record.wallMillis());
+        writeVarLong(out, record.gameTick());
+        out.writeByte(record.kind().ordinal());
+        writeString(out, record.steve());
+        writeString(out, record.command());
+        writeString(out, record.source());
+        writeNullableString(out, record.response());
+        writeVarLong(out, record.llmNanos());
+        writeVarLong(out, record.planNanos());
+        writeVarLong(out, record.tasks().size());
+        for (Task task : record.tasks()) {
+            writeNullableString(out, task.getId());
+            writeString(out, task.getAction());
+            writeString(out, GSON.toJson(task.getParameters()));
+            writeVarLong(out, task.getDependsOn().size());
+            for (String dependency : task.getDependsOn()) {
+                writeString(out, dependency);
+            }
+        }
+    }
+
+    /**
+     * The next record, or null at the end of the file
+     */
+    static TraceRecord read(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        long wallMillis = readVarLong(in, first);
+        long gameTick = readVarLong(in);
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= TraceRecord.Kind.values().length) {
+            throw new IOException("Unknown trace record kind " + ordinal);
+        }
+        TraceRecord.Kind kind = TraceRecord.Kind.values()[ordinal];
+        String steve = readString(in);
+        String command = readString(in);
+        String source = readString(in);
+        String response = readNullableString(in);
+        long llmNanos = readVarLong(in);
+        long planNanos = readVarLong(in);
+        int taskCount = (int) readVarLong(in);
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            String id = readNullableString(in);
+            String action = readString(in);
+            Map<String, Object> parameters = GSON.fromJson(readString(in), PARAMETERS);
+            int dependencyCount = (int) readVarLong(in);
+            List<String> dependsOn = new ArrayList<>(dependencyCount);
+            for (int j = 0; j < dependencyCount; j++) {
+                dependsOn.add(readString(in));
+            }
+            tasks.add(new Task(id, action, parameters, dependsOn));
+        }
+        return new TraceRecord(wallMillis, gameTick, kind, steve, command, source, response, llmNanos, planNanos, tasks);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        return readVarLong(in, in.readUnsignedByte());
+    }
+
+    private static long readVarLong(DataInputStream in, int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        int b = first;
+        while ((b & 0x80) != 0) {
+            if (shift > 63) {
+                throw new IOException("Malformed varint in trace");
+            }
+            b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated trace record");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,28 @@
+package com.steve.ai.trace;
+
+import com.steve.ai.action.Task;
+
+import java.util.List;
+
+/**
+ * One planned command as captured by {@link PlanTrace}
+ *
+ * @param wallMillis milliseconds since the trace started
+ * @param gameTick   overworld game time when planning started
+ * @param kind       whether a player gave the command or the mod generated the prompt
+ * @param source     "local" for compiled commands, otherwise the provider that answered
+ * @param response   raw LLM response, null for local plans and failed requests
+ * @param llmNanos   time spent waiting for the provider (0 for local plans)
+ * @param planNanos  time from the command arriving to the plan being ready, parsing and validation included
+ * @param tasks      the validated tasks, empty if planning failed
+ */
+public record TraceRecord(long wallMillis, long gameTick, Kind kind, String steve, String command, String source,
+                          String response, long llmNanos, long planNanos, List<Task> tasks) {
+
+    public enum Kind {
+        /** Given to a Steve by a player (or a script); re-issued on replay */
+        COMMAND,
+        /** Prompt the mod generated itself, e.g. a contingency; only its response is replayed */
+        GENERATED
+    }
+}
@@ -0,0 +1,130 @@
+package com.steve.ai.trace;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.entity.SteveManager;
+import com.steve.ai.metrics.SteveMetrics;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-issues the commands of a loaded trace to Steves of the same names, at the same game-tick offsets
+ * they were first given, spawning any Steve that isn't around. The plans come back from
+ * {@link PlanTrace#replayResponse}, so the run is deterministic apart from the world itself.
+ * When every command has been given and every Steve is idle again, logs throughput and tick cost.
+ */
+public final class TraceReplayer {
+    private static final AtomicInteger planning = new AtomicInteger();  // dispatched commands still being planned
+    private static List<TraceRecord> records;
+    private static ServerLevel level;
+    private static Vec3 spawnPosition;
+    private static int next;
+    private static long startTick;
+    private static long startNanos;
+    private static long startPlaced;
+    private static long startMined;
+    private static long tickNanos;
+    private static long tickSamples;
+
+    private TraceReplayer() {
+    }
+
+    public static boolean isRunning() {
+        return records != null;
+    }
+
+    /**
+     * Start replaying the loaded trace; false if nothing is loaded (trace.mode isn't "replay") or a replay is running
+     */
+    public static boolean start(ServerLevel replayLevel, Vec3 spawnAt) {
+        List<TraceRecord> loaded = PlanTrace.getReplayRecords();
+        if (records != null || loaded.isEmpty()) {
+            return false;
+        }
+        records = loaded;
+        level = replayLevel;
+        spawnPosition = spawnAt;
+        next = 0;
+        startTick = replayLevel.getGameTime();
+        startNanos = System.nanoTime();
+        startPlaced = SteveMetrics.BLOCKS_PLACED.get();
+        startMined = SteveMetrics.BLOCKS_MINED.get();
+        tickNanos = 0;
+        tickSamples = 0;
+        SteveMod.LOGGER.info("Replaying {} traced commands", records.size());
+        return true;
+    }
+
+    public static void stop() {
+        records = null;
+        level = null;
+    }
+
+    /**
+     * Called every server tick
+     */
+    public static void tick() {
+        if (records == null) {
+            return;
+        }
+        MinecraftServer server = level.getServer();
+        tickNanos += server.tickTimes[Math.floorMod(server.getTickCount() - 1, server.tickTimes.length)];
+        tickSamples++;
+
+        SteveManager manager = SteveMod.getSteveManager();
+        long elapsed = level.getGameTime() - startTick;
+        long firstTick = records.get(0).gameTick();
+        while (next < records.size() && records.get(next).gameTick() - firstTick <= elapsed) {
+            dispatch(manager, records.get(next++));
+        }
+        if (next == records.size() && planning.get() == 0 && allIdle(manager)) {
+            report(elapsed);
+            stop();
+        }
+    }
+
+    private static void dispatch(SteveManager manager, TraceRecord record) {
+        SteveEntity steve = manager.getSteve(record.steve());
+        if (steve == null) {
+            steve = manager.spawnSteve(level, spawnPosition, record.steve());
+            if (steve == null) {
+                SteveMod.LOGGER.warn("Replay: could not spawn Steve '{}', skipping '{}'", record.steve(), record.command());
+                return;
+            }
+        }
+        SteveEntity target = steve;
+        planning.incrementAndGet();
+        new Thread(() -> {
+            try {
+                target.getActionExecutor().processNaturalLanguageCommand(record.command());
+            } finally {
+                planning.decrementAndGet();
+            }
+        }, "Steve-Trace-Replay").start();
+    }
+
+    private static boolean allIdle(SteveManager manager) {
+        for (SteveEntity steve : manager.getAllSteves()) {
+            if (!steve.getActionExecutor().isIdle()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void report(long elapsedTicks) {
+        TraceRecord last = records.get(records.size() - 1);
+        long recordedTicks = last.gameTick() - records.get(0).gameTick();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        double mspt = tickSamples == 0 ? 0 : tickNanos / 1e6 / tickSamples;
+        SteveMod.LOGGER.info("Replay finished: {} commands in {} ticks (last command at {} ticks when recorded), "
+                + "{} blocks placed and {} mined in {}s, {} MSPT on average",
+            records.size(), elapsedTicks, recordedTicks,
+            SteveMetrics.BLOCKS_PLACED.get() - startPlaced, SteveMetrics.BLOCKS_MINED.get() - startMined,
+            String.format("%.1f", seconds), String.format("%.2f", mspt));
+    }
+}
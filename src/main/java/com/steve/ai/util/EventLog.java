@@ -0,0 +1,164 @@
+package com.steve.ai.util;
+
+import com.steve.ai.SteveMod;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging for events raised from tick loops (blocks placed and mined, actions starting and finishing).
+ * Each event {@link Key} lets a few lines per second through, and the number it suppressed is appended to
+ * the next line it writes. Admitted events queue their format and their arguments as strings; a background
+ * thread formats and writes them, so the server thread never waits on appender I/O.
+ * Lifecycle messages (server start, commands, failures) should keep using {@code SteveMod.LOGGER}.
+ */
+public final class EventLog {
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    public enum Level { DEBUG, INFO, WARN }
+
+    /**
+     * A kind of event with its own level and rate limit; keep one per call site as a static final field
+     */
+    public static final class Key {
+        private final String name;
+        private final Level level;
+        private final int perSecond;
+        private long windowStart;
+        private int inWindow;
+        private int suppressed;
+
+        private Key(String name, Level level, int perSecond) {
+            this.name = name;
+            this.level = level;
+            this.perSecond = perSecond;
+        }
+
+        /**
+         * Count the event against this second's allowance; false if it should be suppressed
+         */
+        private synchronized boolean acquire() {
+            long now = System.nanoTime();
+            if (now - windowStart >= WINDOW_NANOS) {
+                windowStart = now;
+                inWindow = 0;
+            }
+            if (inWindow >= perSecond) {
+                suppressed++;
+                return false;
+            }
+            inWindow++;
+            return true;
+        }
+
+        /**
+         * The events suppressed since the last line written for this key
+         */
+        private synchronized int takeSuppressed() {
+            int skipped = suppressed;
+            suppressed = 0;
+            return skipped;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private record Entry(Level level, String format, Object[] args, int suppressed) {
+    }
+
+    private static final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+
+    static {
+        Thread writer = new Thread(EventLog::drain, "Steve-EventLog-Writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private EventLog() {
+    }
+
+    public static Key key(String name, Level level, int perSecond) {
+        return new Key(name, level, perSecond);
+    }
+
+    /**
+     * Count an event against its key's allowance. Check this before building the arguments, so a
+     * suppressed event costs neither boxing nor an array:
+     * {@code if (EventLog.admit(KEY)) EventLog.log(KEY, "...", a, b);}
+     */
+    public static boolean admit(Key key) {
+        return isEnabled(key.level) && key.acquire();
+    }
+
+    /**
+     * Queue an event that {@link #admit} let through. The arguments are turned into strings here, on the
+     * caller's thread, so the writer never reads entities or actions that the server thread is mutating.
+     */
+    public static void log(Key key, String format, Object... args) {
+        Object[] text = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            text[i] = snapshot(args[i]);
+        }
+        enqueue(key.level, format, text, key.takeSuppressed());
+    }
+
+    private static String snapshot(Object arg) {
+        try {
+            return String.valueOf(arg);
+        } catch (RuntimeException e) {
+            return "<" + arg.getClass().getSimpleName() + ": " + e + ">";
+        }
+    }
+
+    private static boolean isEnabled(Level level) {
+        return switch (level) {
+            case DEBUG -> SteveMod.LOGGER.isDebugEnabled();
+            case INFO -> SteveMod.LOGGER.isInfoEnabled();
+            case WARN -> SteveMod.LOGGER.isWarnEnabled();
+        };
+    }
+
+    private static void enqueue(Level level, String format, Object[] args, int suppressed) {
+        if (!queue.offer(new Entry(level, format, args, suppressed))) {
+            dropped.incrementAndGet();  // Never block the caller; the writer reports the loss
+        }
+    }
+
+    private static void drain() {
+        while (true) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            write(entry);
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                SteveMod.LOGGER.warn("Event log queue full, dropped {} events", lost);
+            }
+        }
+    }
+
+    private static void write(Entry entry) {
+        String format = entry.format;
+        Object[] args = entry.args;
+        if (entry.suppressed > 0) {
+            format += " (+{} similar suppressed)";
+            args = Arrays.copyOf(args, args.length + 1);
+            args[args.length - 1] = String.valueOf(entry.suppressed);
+        }
+        switch (entry.level) {
+            case DEBUG -> SteveMod.LOGGER.debug(format, args);
+            case INFO -> SteveMod.LOGGER.info(format, args);
+            case WARN -> SteveMod.LOGGER.warn(format, args);
+        }
+    }
+}
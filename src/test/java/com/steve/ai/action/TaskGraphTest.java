@@ -0,0 +1,87 @@
+package com.steve.ai.action;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TaskGraphTest {
+
+    private static Task task(String id, String... dependsOn) {
+        return new Task(id, "wait", Map.of(), List.of(dependsOn));
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    void keepsPlannerOrderWhenDependenciesAlreadyHold() {
+        List<Task> tasks = List.of(task("a"), task("b", "a"), task("c"));
+        assertEquals(List.of("a", "b", "c"), ids(TaskGraph.order(tasks)));
+    }
+
+    @Test
+    void movesTasksAfterTheirDependencies() {
+        List<Task> tasks = List.of(task("c", "b"), task("b", "a"), task("a"));
+        assertEquals(List.of("a", "b", "c"), ids(TaskGraph.order(tasks)));
+    }
+
+    @Test
+    void dropsTasksInACycleAndTheirDependents() {
+        List<Task> tasks = List.of(task("a", "b"), task("b", "a"), task("c", "a"), task("d"));
+        assertEquals(List.of("d"), ids(TaskGraph.order(tasks)));
+    }
+
+    @Test
+    void ignoresSelfDependencies() {
+        List<Task> ordered = TaskGraph.order(List.of(task("a", "a")));
+        assertEquals(List.of("a"), ids(ordered));
+        assertEquals(List.of(), ordered.get(0).getDependsOn());
+    }
+
+    @Test
+    void stripsDependenciesOnMissingIds() {
+        List<Task> ordered = TaskGraph.order(List.of(task("a", "missing"), task("b", "a", "missing")));
+        assertEquals(List.of("a", "b"), ids(ordered));
+        assertEquals(List.of(), ordered.get(0).getDependsOn());
+        assertEquals(List.of("a"), ordered.get(1).getDependsOn());
+    }
+
+    @Test
+    void ordersTasksWithoutIds() {
+        List<Task> tasks = List.of(new Task("wait", Map.of()), task("a"));
+        assertEquals(2, TaskGraph.order(tasks).size());
+    }
+
+    @Test
+    void dependentsOfFollowsTransitiveEdges() {
+        List<Task> tasks = List.of(task("a"), task("b", "a"), task("c", "b"), task("d"));
+        assertEquals(Set.of("b", "c"), TaskGraph.dependentsOf(tasks, "a"));
+        assertEquals(Set.of(), TaskGraph.dependentsOf(tasks, "d"));
+    }
+
+    @Test
+    void dropsDependentsOfFilteredTasks() {
+        Task a = task("a");
+        Task b = task("b", "a");
+        Task c = task("c", "b");
+        Task d = task("d");
+        List<Task> planned = List.of(a, b, c, d);
+
+        List<Task> kept = TaskGraph.withoutDependentsOfRemoved(planned, List.of(b, c, d));
+        assertEquals(List.of("d"), ids(kept));
+    }
+
+    @Test
+    void keepsTheFilteredListWhenNothingDependsOnRemovedTasks() {
+        Task a = task("a");
+        Task b = task("b");
+        List<Task> kept = List.of(b);
+        assertSame(kept, TaskGraph.withoutDependentsOfRemoved(List.of(a, b), kept));
+    }
+}
@@ -0,0 +1,168 @@
+package com.steve.ai.structure;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LitematicaReaderTest {
+    private static List<Block> blocks;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        blocks = BuiltInRegistries.BLOCK.stream()
+            .filter(block -> !block.defaultBlockState().isAir())
+            .limit(64)
+            .toList();
+    }
+
+    /**
+     * Air followed by the first {@code size - 1} blocks
+     */
+    private static List<Block> palette(int size) {
+        List<Block> palette = new ArrayList<>(size);
+        palette.add(Blocks.AIR);
+        palette.addAll(blocks.subList(0, size - 1));
+        return palette;
+    }
+
+    /**
+     * Pack ids the way Litematica does: {@code bits} per value, values running on into the next word
+     */
+    private static long[] pack(int[] ids, int bits) {
+        long[] words = new long[(ids.length * bits + Long.SIZE - 1) / Long.SIZE];
+        for (int index = 0; index < ids.length; index++) {
+            for (int bit = 0; bit < bits; bit++) {
+                if ((ids[index] >>> bit & 1) != 0) {
+                    long position = (long) index * bits + bit;
+                    words[(int) (position >>> 6)] |= 1L << (position & 63);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static CompoundTag vector(int x, int y, int z) {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("x", x);
+        tag.putInt("y", y);
+        tag.putInt("z", z);
+        return tag;
+    }
+
+    private static CompoundTag region(CompoundTag position, CompoundTag size, List<Block> palette, long[] words) {
+        ListTag paletteTag = new ListTag();
+        for (Block block : palette) {
+            CompoundTag entry = new CompoundTag();
+            entry.putString("Name", BuiltInRegistries.BLOCK.getKey(block).toString());
+            paletteTag.add(entry);
+        }
+        CompoundTag region = new CompoundTag();
+        region.put("Position", position);
+        region.put("Size", size);
+        region.put("BlockStatePalette", paletteTag);
+        region.putLongArray("BlockStates", words);
+        return region;
+    }
+
+    private static CompoundTag schematic(Map<String, CompoundTag> regions) {
+        CompoundTag regionsTag = new CompoundTag();
+        regions.forEach(regionsTag::put);
+        CompoundTag nbt = new CompoundTag();
+        nbt.put("Regions", regionsTag);
+        return nbt;
+    }
+
+    private static Map<Long, BlockState> decode(StructureTemplateLoader.LoadedTemplate template) {
+        Map<Long, BlockState> states = new HashMap<>();
+        for (int y = 0; y < template.getLayerCount(); y++) {
+            int layer = y;
+            template.forEachInLayer(y, (x, z, state, blockEntity) -> states.put(BlockPos.asLong(x, layer, z), state));
+        }
+        return states;
+    }
+
+    /**
+     * A 7x3x2 region filled with ids cycling through the palette, so with 3 or 5 bits per value some
+     * values start in one word and end in the next
+     */
+    private static void assertRoundTrip(int paletteSize, int expectedBits) {
+        int sizeX = 7;
+        int sizeY = 3;
+        int sizeZ = 2;
+        int[] ids = new int[sizeX * sizeY * sizeZ];
+        for (int index = 0; index < ids.length; index++) {
+            ids[index] = 1 + index % (paletteSize - 1);
+        }
+        List<Block> palette = palette(paletteSize);
+        CompoundTag nbt = schematic(Map.of("main",
+            region(vector(0, 0, 0), vector(sizeX, sizeY, sizeZ), palette, pack(ids, expectedBits))));
+
+        StructureTemplateLoader.LoadedTemplate template = LitematicaReader.read(nbt, "packed");
+        assertEquals(ids.length, template.getBlockCount());
+        Map<Long, BlockState> states = decode(template);
+        for (int index = 0; index < ids.length; index++) {
+            int y = index / (sizeX * sizeZ);
+            int z = index % (sizeX * sizeZ) / sizeX;
+            int x = index % sizeX;
+            assertEquals(palette.get(ids[index]).defaultBlockState(), states.get(BlockPos.asLong(x, y, z)),
+                "index " + index);
+        }
+    }
+
+    @Test
+    void readsValuesStraddlingWordsAtThreeBits() {
+        assertRoundTrip(5, 3); // value 21 covers bits 63 to 65
+    }
+
+    @Test
+    void readsValuesStraddlingWordsAtFiveBits() {
+        assertRoundTrip(17, 5); // value 12 covers bits 60 to 64
+    }
+
+    @Test
+    void usesAtLeastTwoBits() {
+        assertRoundTrip(2, 2);
+    }
+
+    @Test
+    void mergesRegionsWithNegativeSizes() {
+        List<Block> palette = palette(3);
+        // Extends from x = 5 back to x = 4
+        CompoundTag backwards = region(vector(5, 0, 0), vector(-2, 1, 1), palette, pack(new int[]{1, 2}, 2));
+        CompoundTag forwards = region(vector(0, 0, 0), vector(1, 1, 1), palette, pack(new int[]{2}, 2));
+
+        StructureTemplateLoader.LoadedTemplate template = LitematicaReader.read(
+            schematic(Map.of("backwards", backwards, "forwards", forwards)), "merged");
+        assertEquals(6, template.width);
+        Map<Long, BlockState> states = decode(template);
+        assertEquals(3, states.size());
+        assertEquals(palette.get(2).defaultBlockState(), states.get(BlockPos.asLong(0, 0, 0)));
+        assertEquals(palette.get(1).defaultBlockState(), states.get(BlockPos.asLong(4, 0, 0)));
+        assertEquals(palette.get(2).defaultBlockState(), states.get(BlockPos.asLong(5, 0, 0)));
+    }
+
+    @Test
+    void skipsRegionsWithTooLittleData() {
+        List<Block> palette = palette(5);
+        CompoundTag nbt = schematic(Map.of("short",
+            region(vector(0, 0, 0), vector(30, 1, 1), palette, new long[1])));
+        assertEquals(0, LitematicaReader.read(nbt, "short").getBlockCount());
+    }
+}
@@ -0,0 +1,131 @@
+package com.steve.ai.structure;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpongeSchematicReaderTest {
+    private static final int WIDTH = 5;
+    private static final int LENGTH = 4;
+    private static final int HEIGHT = 10;
+
+    // One palette entry per cell, so ids past 127 need two varint bytes
+    private static List<Block> blocks;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        blocks = BuiltInRegistries.BLOCK.stream()
+            .filter(block -> !block.defaultBlockState().isAir())
+            .limit(WIDTH * LENGTH * HEIGHT)
+            .toList();
+    }
+
+    private static CompoundTag palette() {
+        CompoundTag palette = new CompoundTag();
+        for (int id = 0; id < blocks.size(); id++) {
+            palette.putInt(BuiltInRegistries.BLOCK.getKey(blocks.get(id)).toString(), id);
+        }
+        return palette;
+    }
+
+    private static byte[] varints(int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int value = 0; value < count; value++) {
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                out.write((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            out.write(remaining);
+        }
+        return out.toByteArray();
+    }
+
+    private static void putSize(CompoundTag schematic, int version) {
+        schematic.putInt("Version", version);
+        schematic.putShort("Width", (short) WIDTH);
+        schematic.putShort("Height", (short) HEIGHT);
+        schematic.putShort("Length", (short) LENGTH);
+    }
+
+    private static Map<Long, BlockState> decode(StructureTemplateLoader.LoadedTemplate template) {
+        Map<Long, BlockState> states = new HashMap<>();
+        for (int y = 0; y < template.getLayerCount(); y++) {
+            int layer = y;
+            template.forEachInLayer(y, (x, z, state, blockEntity) -> states.put(BlockPos.asLong(x, layer, z), state));
+        }
+        return states;
+    }
+
+    /**
+     * Cell i (x, z, y order) holds palette id i
+     */
+    private static void assertEveryCell(StructureTemplateLoader.LoadedTemplate template) {
+        assertEquals(WIDTH, template.width);
+        assertEquals(HEIGHT, template.height);
+        assertEquals(LENGTH, template.depth);
+        assertEquals(blocks.size(), template.getBlockCount());
+        Map<Long, BlockState> states = decode(template);
+        for (int index = 0; index < blocks.size(); index++) {
+            int y = index / (WIDTH * LENGTH);
+            int z = index % (WIDTH * LENGTH) / WIDTH;
+            int x = index % WIDTH;
+            assertEquals(blocks.get(index).defaultBlockState(), states.get(BlockPos.asLong(x, y, z)), "palette id " + index);
+        }
+    }
+
+    @Test
+    void readsMultiByteVarintIdsInVersion2() {
+        CompoundTag schematic = new CompoundTag();
+        putSize(schematic, 2);
+        schematic.put("Palette", palette());
+        schematic.putByteArray("BlockData", varints(blocks.size()));
+
+        assertEveryCell(SpongeSchematicReader.read(schematic, "v2"));
+    }
+
+    @Test
+    void readsMultiByteVarintIdsInVersion3() {
+        CompoundTag blockData = new CompoundTag();
+        blockData.put("Palette", palette());
+        blockData.putByteArray("Data", varints(blocks.size()));
+        CompoundTag schematic = new CompoundTag();
+        putSize(schematic, 3);
+        schematic.put("Blocks", blockData);
+        CompoundTag root = new CompoundTag();
+        root.put("Schematic", schematic);
+
+        assertEveryCell(SpongeSchematicReader.read(root, "v3"));
+    }
+
+    @Test
+    void stopsAtTruncatedData() {
+        CompoundTag schematic = new CompoundTag();
+        putSize(schematic, 2);
+        schematic.put("Palette", palette());
+        byte[] data = varints(blocks.size());
+        byte[] truncated = new byte[data.length - 1]; // ends inside the last two-byte varint
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        schematic.putByteArray("BlockData", truncated);
+
+        Map<Long, BlockState> states = decode(SpongeSchematicReader.read(schematic, "truncated"));
+        assertEquals(blocks.size() - 1, states.size());
+        assertNull(states.get(BlockPos.asLong(WIDTH - 1, HEIGHT - 1, LENGTH - 1)));
+    }
+}
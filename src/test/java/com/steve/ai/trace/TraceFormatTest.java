@@ -0,0 +1,147 @@
+package com.steve.ai.trace;
+
+import com.steve.ai.action.Task;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TraceFormatTest {
+    // Both sides of every varint length boundary, plus values that need all ten bytes
+    private static final long[] VARINT_EDGES = {
+        0, 1, 127, 128, 16_383, 16_384, 2_097_151, 2_097_152, Integer.MAX_VALUE, 1L << 56, Long.MAX_VALUE, -1, Long.MIN_VALUE
+    };
+
+    private static byte[] encode(TraceRecord... records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            TraceFormat.writeHeader(out, 1_700_000_000_000L);
+            for (TraceRecord record : records) {
+                TraceFormat.write(out, record);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private static TraceRecord record(long number, TraceRecord.Kind kind, String response, List<Task> tasks) {
+        return new TraceRecord(number, number, kind, "Steve", "build a house", "groq", response, number, number, tasks);
+    }
+
+    private static void assertRecordEquals(TraceRecord expected, TraceRecord actual) {
+        assertEquals(expected.wallMillis(), actual.wallMillis());
+        assertEquals(expected.gameTick(), actual.gameTick());
+        assertEquals(expected.kind(), actual.kind());
+        assertEquals(expected.steve(), actual.steve());
+        assertEquals(expected.command(), actual.command());
+        assertEquals(expected.source(), actual.source());
+        assertEquals(expected.response(), actual.response());
+        assertEquals(expected.llmNanos(), actual.llmNanos());
+        assertEquals(expected.planNanos(), actual.planNanos());
+        assertEquals(expected.tasks().size(), actual.tasks().size());
+        for (int i = 0; i < expected.tasks().size(); i++) {
+            Task want = expected.tasks().get(i);
+            Task got = actual.tasks().get(i);
+            assertEquals(want.getId(), got.getId());
+            assertEquals(want.getAction(), got.getAction());
+            assertEquals(want.getParameters(), got.getParameters());
+            assertEquals(want.getDependsOn(), got.getDependsOn());
+        }
+    }
+
+    @Test
+    void headerRoundTrips() throws IOException {
+        assertEquals(1_700_000_000_000L, TraceFormat.readHeader(input(encode())));
+    }
+
+    @Test
+    void rejectsOtherFilesAndVersions() throws IOException {
+        byte[] bytes = encode();
+        bytes[0] ^= 1;
+        assertThrows(IOException.class, () -> TraceFormat.readHeader(input(bytes)));
+
+        byte[] future = encode();
+        future[4] = (byte) (TraceFormat.VERSION + 1);
+        assertThrows(IOException.class, () -> TraceFormat.readHeader(input(future)));
+    }
+
+    @Test
+    void varintEdgesRoundTrip() throws IOException {
+        TraceRecord[] records = Arrays.stream(VARINT_EDGES)
+            .mapToObj(value -> record(value, TraceRecord.Kind.COMMAND, "ok", List.of()))
+            .toArray(TraceRecord[]::new);
+        DataInputStream in = input(encode(records));
+        TraceFormat.readHeader(in);
+        for (TraceRecord expected : records) {
+            assertRecordEquals(expected, TraceFormat.read(in));
+        }
+        assertNull(TraceFormat.read(in));
+    }
+
+    @Test
+    void kindsNullsTasksAndUnicodeRoundTrip() throws IOException {
+        List<Task> tasks = List.of(
+            new Task("mine", Map.of("block", "iron_ore", "quantity", 8.0)),
+            new Task("t2", "build", Map.of("structure", "maison \u00e0 \u00e9tage \u2713"), List.of("t1", "t0")));
+        TraceRecord generated = record(5, TraceRecord.Kind.GENERATED, null, tasks);
+        TraceRecord empty = new TraceRecord(0, 0, TraceRecord.Kind.COMMAND, "", "", "local", "", 0, 0, List.of());
+
+        DataInputStream in = input(encode(generated, empty));
+        TraceFormat.readHeader(in);
+        assertRecordEquals(generated, TraceFormat.read(in));
+        assertRecordEquals(empty, TraceFormat.read(in));
+        assertNull(TraceFormat.read(in));
+    }
+
+    @Test
+    void longStringsUseMultiByteLengths() throws IOException {
+        TraceRecord record = record(1, TraceRecord.Kind.COMMAND, "x".repeat(20_000), List.of());
+        DataInputStream in = input(encode(record));
+        TraceFormat.readHeader(in);
+        assertRecordEquals(record, TraceFormat.read(in));
+    }
+
+    @Test
+    void truncatedRecordsFail() throws IOException {
+        byte[] bytes = encode(record(Long.MAX_VALUE, TraceRecord.Kind.COMMAND, "ok", List.of()));
+        for (int length = 14; length < bytes.length; length++) {
+            DataInputStream in = input(Arrays.copyOf(bytes, length));
+            TraceFormat.readHeader(in);
+            assertThrows(EOFException.class, () -> TraceFormat.read(in), "cut at " + length);
+        }
+    }
+
+    @Test
+    void rejectsUnknownKinds() throws IOException {
+        byte[] bytes = encode(record(1, TraceRecord.Kind.COMMAND, "ok", List.of()));
+        bytes[13 + 2] = (byte) TraceRecord.Kind.values().length; // header, then one-byte wall time and tick
+        DataInputStream in = input(bytes);
+        TraceFormat.readHeader(in);
+        assertThrows(IOException.class, () -> TraceFormat.read(in));
+    }
+
+    @Test
+    void rejectsOverlongVarints() throws IOException {
+        byte[] bytes = encode(record(1, TraceRecord.Kind.COMMAND, "ok", List.of()));
+        byte[] malformed = new byte[13 + 11];
+        System.arraycopy(bytes, 0, malformed, 0, 13);
+        Arrays.fill(malformed, 13, malformed.length, (byte) 0x80);
+        DataInputStream in = input(malformed);
+        TraceFormat.readHeader(in);
+        assertThrows(IOException.class, () -> TraceFormat.read(in));
+    }
+}